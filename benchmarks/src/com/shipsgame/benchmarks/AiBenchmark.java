@@ -0,0 +1,103 @@
+package com.shipsgame.benchmarks;
+
+import com.shipsgame.Ai;
+import com.shipsgame.AiMode;
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.ShipPlacementGenerator;
+import com.shipsgame.utilities.GameRandom;
+import com.shipsgame.utilities.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of placing ai ships and of a single ai move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiBenchmark {
+
+    private static final long SEED = 1234;
+
+    private GameRandom random;
+    private int[] shipSizes;
+    private BitBoard occupiedTiles;
+
+    @Setup
+    public void setUp() {
+        random = new GameRandom(SEED);
+        shipSizes = Ruleset.DEFAULT.getFleetComposition().getShipSizes();
+        occupiedTiles = new BitBoard(Ruleset.DEFAULT);
+    }
+
+    /**
+     * Ai attacking a fleet of another ai. Both ai are reset when the attacked fleet is destroyed,
+     * so allocations of placing new ships are included in measured moves.
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+
+        @Param({"HUNT_AND_TARGET", "PROBABILITY_DENSITY"})
+        private AiMode aiMode;
+
+        private Ai attackingAi;
+        private Ai defendingAi;
+
+        @Setup
+        public void setUp() {
+            GameRandom random = new GameRandom(SEED);
+            attackingAi = new Ai(null, aiMode, Ruleset.DEFAULT, random.split());
+            defendingAi = new Ai(null, AiMode.HUNT_AND_TARGET, Ruleset.DEFAULT, random.split());
+        }
+
+        private void resetIfGameFinished() {
+            if (defendingAi.didAiLose()) {
+                attackingAi.reset();
+                defendingAi.reset();
+            }
+        }
+    }
+
+    /**
+     * Work done by Ai.generateShipsPosition when ai is created.
+     */
+    @Benchmark
+    public List<Ship> generateShipsPosition() {
+        return ShipPlacementGenerator.generateShips(shipSizes, occupiedTiles, random);
+    }
+
+    /**
+     * Single ai move, as made by simulations.
+     */
+    @Benchmark
+    public int attackTile(MoveState state) {
+        state.resetIfGameFinished();
+        return state.attackingAi.attackTile(state.defendingAi.getFleet());
+    }
+
+    /**
+     * Single ai move through the method used by the game map, which returns tile indices as a new Pair.
+     */
+    @Benchmark
+    public Pair attack(MoveState state) {
+        state.resetIfGameFinished();
+        return state.attackingAi.attack(state.defendingAi.getFleet());
+    }
+}
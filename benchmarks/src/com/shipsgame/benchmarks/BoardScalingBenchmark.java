@@ -0,0 +1,94 @@
+package com.shipsgame.benchmarks;
+
+import com.shipsgame.Ai;
+import com.shipsgame.AiMode;
+import com.shipsgame.FleetComposition;
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.ShipPlacementGenerator;
+import com.shipsgame.utilities.GameRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of placing ships and of a single ai move on square boards of growing size, with the default fleet.
+ * Cost of a move shouldn't grow with the area of the board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardScalingBenchmark {
+
+    private static final long SEED = 1234;
+
+    @Param({"10", "100", "1000"})
+    private int sideLength;
+
+    private Ruleset ruleset;
+    private GameRandom random;
+    private BitBoard occupiedTiles;
+
+    @Setup
+    public void setUp() {
+        ruleset = new Ruleset(sideLength, sideLength, FleetComposition.DEFAULT);
+        random = new GameRandom(SEED);
+        occupiedTiles = new BitBoard(ruleset);
+    }
+
+    /**
+     * Ai attacking a fleet of another ai on the board of the benchmark. Both ai are reset when the attacked fleet
+     * is destroyed.
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+
+        @Param({"HUNT_AND_TARGET", "PROBABILITY_DENSITY"})
+        private AiMode aiMode;
+
+        private Ai attackingAi;
+        private Ai defendingAi;
+
+        @Setup
+        public void setUp(BoardScalingBenchmark benchmark) {
+            GameRandom random = new GameRandom(SEED);
+            attackingAi = new Ai(null, aiMode, benchmark.ruleset, random.split());
+            defendingAi = new Ai(null, AiMode.HUNT_AND_TARGET, benchmark.ruleset, random.split());
+        }
+    }
+
+    /**
+     * Work done by Ai.generateShipsPosition when ai is created.
+     */
+    @Benchmark
+    public List<Ship> generateShipsPosition() {
+        return ShipPlacementGenerator.generateShips(ruleset.getFleetComposition().getShipSizes(), occupiedTiles, random);
+    }
+
+    /**
+     * Single ai move.
+     */
+    @Benchmark
+    public int attackTile(MoveState state) {
+        if (state.defendingAi.didAiLose()) {
+            state.attackingAi.reset();
+            state.defendingAi.reset();
+        }
+        return state.attackingAi.attackTile(state.defendingAi.getFleet());
+    }
+}
@@ -0,0 +1,48 @@
+package com.shipsgame.benchmarks;
+
+import com.shipsgame.AiMode;
+import com.shipsgame.simulation.GameResult;
+import com.shipsgame.simulation.GameSimulator;
+import com.shipsgame.utilities.GameRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a full ai vs ai game, including placing ships of both ai.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    private static final long SEED = 1234;
+
+    @Param({"HUNT_AND_TARGET", "PROBABILITY_DENSITY"})
+    private AiMode aiMode;
+
+    private GameSimulator gameSimulator;
+
+    @Setup
+    public void setUp() {
+        gameSimulator = new GameSimulator(aiMode, aiMode, new GameRandom(SEED));
+    }
+
+    @Benchmark
+    public GameResult fullGame() {
+        return gameSimulator.playGame();
+    }
+}
@@ -0,0 +1,109 @@
+package com.shipsgame.benchmarks;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.Map;
+import com.shipsgame.map.MapCreator;
+import com.shipsgame.map.ShipPlacementGenerator;
+import com.shipsgame.map.Symbol;
+import com.shipsgame.utilities.GameRandom;
+import com.shipsgame.utilities.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the game map used by the player.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+
+    private static final long SEED = 1234;
+    // Clicks placing all ships except the last one, pairs of ship beginning and ship end, ships with size 1 need one click
+    private static final int[][] PLACING_CLICKS = {
+            {0, 0}, {3, 0}, {5, 0}, {7, 0}, {0, 2}, {2, 2}, {4, 2}, {5, 2}, {7, 2}, {8, 2}, {0, 4}, {1, 4},
+            {3, 4}, {5, 4}, {7, 4}
+    };
+
+    @State(Scope.Thread)
+    public static class PlayingState {
+
+        private Map map;
+        private Pair[] tiles;
+        private int tileNumber;
+
+        @Setup
+        public void setUp() {
+            map = new Map(SEED);
+            Ruleset ruleset = map.getRuleset();
+            tiles = new Pair[ruleset.getTilesAmount()];
+            for (int i = 0; i < ruleset.getRowsAmount(); i++) {
+                for (int j = 0; j < ruleset.getColumnsAmount(); j++) {
+                    tiles[ruleset.toIndex(j, i)] = new Pair(j, i);
+                }
+            }
+            for (Ship currentShip : ShipPlacementGenerator.generateShips(ruleset.getFleetComposition().getShipSizes(),
+                    new BitBoard(ruleset), new GameRandom(SEED))) {
+                map.addShip(currentShip);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PlacingState {
+
+        private Map map;
+        private MapCreator mapCreator;
+        private Pair[] clicks;
+
+        @Setup
+        public void setUp() {
+            clicks = new Pair[PLACING_CLICKS.length];
+            for (int i = 0; i < PLACING_CLICKS.length; i++) {
+                clicks[i] = new Pair(PLACING_CLICKS[i][0], PLACING_CLICKS[i][1]);
+            }
+        }
+
+        // Placing ships changes the map, so every invocation needs an empty one
+        @Setup(Level.Invocation)
+        public void setUpInvocation() {
+            map = new Map(SEED);
+            mapCreator = new MapCreator(map, new GameRandom(SEED));
+        }
+    }
+
+    /**
+     * Checking result of attacking every tile of the map with player ships in turn.
+     */
+    @Benchmark
+    public Symbol getStatusInfoFromTile(PlayingState state) {
+        state.tileNumber = (state.tileNumber + 1) % state.tiles.length;
+        return state.map.getStatusInfoFromTile(state.tiles[state.tileNumber]);
+    }
+
+    /**
+     * Player clicks placing nine ships on an empty map.
+     */
+    @Benchmark
+    public MapCreator mapCreatorUpdate(PlacingState state) {
+        for (Pair currentClick : state.clicks) {
+            state.mapCreator.update(currentClick, null);
+        }
+        return state.mapCreator;
+    }
+}
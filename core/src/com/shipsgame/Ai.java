@@ -1,395 +1,165 @@
 package com.shipsgame;
 
-import com.shipsgame.map.Map;
+import com.shipsgame.flightrecorder.AiMoveEvent;
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.ShipPlacementGenerator;
 import com.shipsgame.map.Symbol;
-import com.shipsgame.map.TileType;
-import com.shipsgame.replays.Action;
+import com.shipsgame.metrics.LatencyMetric;
+import com.shipsgame.metrics.LatencyMetrics;
 import com.shipsgame.replays.ActionType;
-import com.shipsgame.utilities.Direction;
+import com.shipsgame.replays.Replay;
+import com.shipsgame.replays.ReplayRecorder;
+import com.shipsgame.targeting.TargetingStrategy;
+import com.shipsgame.utilities.GameRandom;
 import com.shipsgame.utilities.Pair;
 
+import jdk.jfr.EventType;
+
 import java.io.Serializable;
-import java.util.*;
+import java.util.List;
 
 public class Ai implements Serializable {
 
-    private static final int MAX_AMOUNT_OF_RANDOMIZING_DIRECTION_LOOPS = 10;
-
-    // Reference to player map
-    private Map map;
+    private static final long serialVersionUID = 712213036662016563L;
+    // Checked before every move, so moves don't allocate events while they aren't recorded
+    private static final EventType AI_MOVE_EVENT_TYPE = EventType.getEventType(AiMoveEvent.class);
 
-    private Random randomNumberGenerator;
-    private List<Pair> availablePlayerTilesIndices;
-    private List<Ship> ships;
-    // Fields used by ai to "intelligently" choose next tile to attack
-    private boolean justHitShip;
-    private List<Pair> attackedShipIndices;
-    private Direction attackedShipDirection;
-    private List<Direction> checkedDirectionsForAttack;
-    private boolean checkBackwardsAttackedShip;
-    private boolean shipDirectionConfirmed;
-    private boolean checkLongAttackedShipBackwards;
+    // Recorder of the game being played, null when ai is used without recording replays
+    private ReplayRecorder replayRecorder;
+    // Replay recorded directly by ai saved before recorders were introduced, replaced with a recorder when read
+    private Replay replay;
 
-    public Ai(Map map) {
-        this.map = map;
-        this.ships = new ArrayList<>();
-        this.randomNumberGenerator = new Random();
-        this.availablePlayerTilesIndices = new ArrayList<>();
-        populateListWithMapTileIndices(this.availablePlayerTilesIndices);
-        this.justHitShip = false;
-        attackedShipIndices = new ArrayList<>();
-        attackedShipDirection = null;
-        checkedDirectionsForAttack = new ArrayList<>();
-        checkBackwardsAttackedShip = false;
-        shipDirectionConfirmed = false;
-        checkLongAttackedShipBackwards = false;
+    private GameRandom random;
+    // Rules of the game, composition of both ai fleet and attacked fleet is taken from them
+    private Ruleset ruleset;
+    private Fleet fleet;
+    // Strategy choosing tiles to attack
+    private TargetingStrategy targetingStrategy;
 
-        generateShipsPosition();
+    /**
+     * @param replayRecorder recorder of all shots of the game or null if shots shouldn't be recorded
+     */
+    public Ai(ReplayRecorder replayRecorder) {
+        this(replayRecorder, AiMode.HUNT_AND_TARGET);
     }
 
     /**
-     * Handle player attack at the given tileIndices and respond with own shot.
-     *
-     * @param tileIndices indices of a tile where the mouse was located
-     * @return indices of a tile chosen by ai to attack
+     * @param replayRecorder recorder of all shots of the game or null if shots shouldn't be recorded
+     * @param aiMode         strategy used to choose tiles to attack
      */
-    public Pair update(Pair tileIndices) {
-        // Process player shot
-        boolean successfulHit = false;
-        Ship shipToDestroy = null;
-
-        Iterator<Ship> shipsIterator = ships.iterator();
-        while (shipsIterator.hasNext()) {
-            Ship currentShip = shipsIterator.next();
-            if (currentShip.containsTile(tileIndices)) {
-                currentShip.damageShipPart(tileIndices);
-                if (currentShip.isShipFullyDestroyed()) {
-                    shipToDestroy = currentShip;
-                    shipsIterator.remove();
-                }
-                successfulHit = true;
-                break;
-            }
-        }
-        if (shipToDestroy != null) {
-            List<Pair> shipTileIndices = shipToDestroy.calculateShipTileIndices();
-            for (Pair currentShipTileIndices : shipTileIndices) {
-                map.getTile(currentShipTileIndices).setPlayerInfoSymbol(Symbol.DESTROYED);
-            }
-            // Used for creating game replay
-            map.getReplayInConstruction().addAction(new Action(ActionType.PLAYER_SHOT, tileIndices));
-        } else if (successfulHit) {
-            map.getTile(tileIndices).setPlayerInfoSymbol(Symbol.SUCCESSFUL_HIT);
-            // Used for creating game replay
-            map.getReplayInConstruction().addAction(new Action(ActionType.PLAYER_SHOT, tileIndices));
-        } else {
-            map.getTile(tileIndices).setPlayerInfoSymbol(Symbol.FAILED_HIT);
-            // Used for creating game replay
-            map.getReplayInConstruction().addAction(new Action(ActionType.PLAYER_MISS_SHOT, tileIndices));
-        }
-
-        // Process ai attack
-        Pair chosenTileIndices = null;
-        if (!justHitShip) {
-            chosenTileIndices = getRandomPlayerTileIndices();
-        } else {
-            Pair previousTileIndices;
-            if (checkBackwardsAttackedShip && !checkLongAttackedShipBackwards) {
-                previousTileIndices = attackedShipIndices.get(0);
-            } else {
-                previousTileIndices = attackedShipIndices.get(attackedShipIndices.size() - 1);
-            }
-            List<Direction> validDirectionsForAttack = new ArrayList<>();
-
-            if (attackedShipDirection == null) {
-                if (previousTileIndices.getIndexX() > 0) {
-                    if (!checkedDirectionsForAttack.contains(Direction.WEST)
-                            && availablePlayerTilesIndices.contains(new Pair(previousTileIndices.getIndexX() - 1, previousTileIndices.getIndexY()))) {
-                        validDirectionsForAttack.add(Direction.WEST);
-                    }
-                }
-                if (previousTileIndices.getIndexX() < Map.COLUMNS_AMOUNT - 1) {
-                    if (!checkedDirectionsForAttack.contains(Direction.EAST)
-                            && availablePlayerTilesIndices.contains(new Pair(previousTileIndices.getIndexX() + 1, previousTileIndices.getIndexY()))) {
-                        validDirectionsForAttack.add(Direction.EAST);
-                    }
-                }
-                if (previousTileIndices.getIndexY() > 0) {
-                    if (!checkedDirectionsForAttack.contains(Direction.NORTH)
-                            && availablePlayerTilesIndices.contains(new Pair(previousTileIndices.getIndexX(), previousTileIndices.getIndexY() - 1))) {
-                        validDirectionsForAttack.add(Direction.NORTH);
-                    }
-                }
-                if (previousTileIndices.getIndexY() < Map.ROWS_AMOUNT - 1) {
-                    if (!checkedDirectionsForAttack.contains(Direction.SOUTH)
-                            && availablePlayerTilesIndices.contains(new Pair(previousTileIndices.getIndexX(), previousTileIndices.getIndexY() + 1))) {
-                        validDirectionsForAttack.add(Direction.SOUTH);
-                    }
-                }
-                attackedShipDirection = validDirectionsForAttack.get(randomNumberGenerator.nextInt(validDirectionsForAttack.size()));
-                checkedDirectionsForAttack.add(attackedShipDirection);
-            }
-            switch (attackedShipDirection) {
-                case EAST:
-                    chosenTileIndices = new Pair(previousTileIndices.getIndexX() + 1, previousTileIndices.getIndexY());
-                    break;
-                case SOUTH:
-                    chosenTileIndices = new Pair(previousTileIndices.getIndexX(), previousTileIndices.getIndexY() + 1);
-                    break;
-                case WEST:
-                    chosenTileIndices = new Pair(previousTileIndices.getIndexX() - 1, previousTileIndices.getIndexY());
-                    break;
-                case NORTH:
-                    chosenTileIndices = new Pair(previousTileIndices.getIndexX(), previousTileIndices.getIndexY() - 1);
-                    break;
-            }
-        }
+    public Ai(ReplayRecorder replayRecorder, AiMode aiMode) {
+        this(replayRecorder, aiMode, Ruleset.DEFAULT, new GameRandom(GameRandom.generateSeed()));
+    }
 
-        Symbol attackStatus = map.getStatusInfoFromTile(chosenTileIndices);
-        if (attackStatus == Symbol.FAILED_HIT) {
-            if (justHitShip) {
-                if (shipDirectionConfirmed) {
-                    checkBackwardsAttackedShip = true;
-                }
-                if (checkBackwardsAttackedShip) {
-                    attackedShipDirection = Direction.getOppositeDirection(attackedShipDirection);
-                } else {
-                    attackedShipDirection = null;
-                }
-            } else {
-                justHitShip = false;
-            }
-            // Used for creating game replay
-            map.getReplayInConstruction().addAction(new Action(ActionType.AI_MISS_SHOT, chosenTileIndices));
-        } else if (attackStatus == Symbol.DESTROYED) {
-            justHitShip = false;
-            checkBackwardsAttackedShip = false;
-            shipDirectionConfirmed = false;
-            checkedDirectionsForAttack.clear();
-            attackedShipIndices.add(chosenTileIndices);
-            // Remove all tile indices from availablePlayerTilesIndices that surrounded attackedShipIndices
-            for (Pair currentShipTileIndices : attackedShipIndices) {
-                availablePlayerTilesIndices.removeAll(createListOfNeighbourTileIndices(currentShipTileIndices));
-            }
-            attackedShipIndices.clear();
-            attackedShipDirection = null;
-            checkLongAttackedShipBackwards = false;
-            // Used for creating game replay
-            map.getReplayInConstruction().addAction(new Action(ActionType.AI_SHOT, chosenTileIndices));
-        } else if (attackStatus == Symbol.SUCCESSFUL_HIT) {
-            attackedShipIndices.add(chosenTileIndices);
-            if (justHitShip) {
-                shipDirectionConfirmed = true;
-            }
-            justHitShip = true;
-            // In case of a long ship when ai starts shooting in reverse
-            if (checkBackwardsAttackedShip) {
-                checkLongAttackedShipBackwards = true;
-            }
-            // Check if ai is not attacking beyond map bounds or unavailable tile
-            if (attackedShipDirection != null) {
-                Pair nextTileIndicesToVerify = null;
-                if (attackedShipDirection == Direction.EAST) {
-                    nextTileIndicesToVerify = new Pair(chosenTileIndices.getIndexX() + 1, chosenTileIndices.getIndexY());
-                } else if (attackedShipDirection == Direction.SOUTH) {
-                    nextTileIndicesToVerify = new Pair(chosenTileIndices.getIndexX(), chosenTileIndices.getIndexY() + 1);
-                } else if (attackedShipDirection == Direction.WEST) {
-                    nextTileIndicesToVerify = new Pair(chosenTileIndices.getIndexX() - 1, chosenTileIndices.getIndexY());
-                } else if (attackedShipDirection == Direction.NORTH) {
-                    nextTileIndicesToVerify = new Pair(chosenTileIndices.getIndexX(), chosenTileIndices.getIndexY() - 1);
-                }
+    /**
+     * @param replayRecorder recorder of all shots of the game or null if shots shouldn't be recorded
+     * @param aiMode         strategy used to choose tiles to attack
+     * @param ruleset        rules of the game, both ai fleet and attacked fleet are composed as they say
+     * @param random         random number generator used by the ai, ai with the same generator seed placed against
+     *                       the same ships makes the same moves
+     */
+    public Ai(ReplayRecorder replayRecorder, AiMode aiMode, Ruleset ruleset, GameRandom random) {
+        this.replayRecorder = replayRecorder;
+        this.ruleset = ruleset;
+        this.fleet = new Fleet(ruleset);
+        this.random = random;
+        this.targetingStrategy = aiMode.createTargetingStrategy(ruleset);
 
-                if (!availablePlayerTilesIndices.contains(nextTileIndicesToVerify)) {
-                    checkBackwardsAttackedShip = true;
-                    attackedShipDirection = Direction.getOppositeDirection(attackedShipDirection);
-                }
-            }
-            // Used for creating game replay
-            map.getReplayInConstruction().addAction(new Action(ActionType.AI_SHOT, chosenTileIndices));
-        }
+        generateShipsPosition();
+    }
 
-        // Return tile indices chosen by the ai to attack player
-        return chosenTileIndices;
+    public Fleet getFleet() {
+        return fleet;
     }
 
     /**
-     * Get a random tile indices from the list of available ones and remove them afterwards.
-     *
-     * @return a random pair of tile indices from a pool of available ones
+     * Prepare this ai for a new game, reusing all its objects. Ai places new ships and forgets all its attacks.
      */
-    private Pair getRandomPlayerTileIndices() {
-        int randomIndex = randomNumberGenerator.nextInt(availablePlayerTilesIndices.size());
-        Pair randomTileIndices = availablePlayerTilesIndices.get(randomIndex);
-        availablePlayerTilesIndices.remove(randomIndex);
-        return randomTileIndices;
+    public void reset() {
+        fleet.clear();
+        targetingStrategy.reset();
+        generateShipsPosition();
     }
 
     /**
-     * Choose random, valid positions for ai ships and create them
+     * Handle enemy attack at the given tileIndices.
+     *
+     * @param tileIndices indices of a tile attacked by the enemy
+     * @return result of the attack on ai fleet
      */
-    private void generateShipsPosition() {
-        List<Integer> availableShipsSizes = new ArrayList<>(Arrays.asList(1, 1, 1, 1, 2, 2, 2, 3, 3, 4));
-        List<Pair> availableAiTileIndices = new ArrayList<>(Map.ROWS_AMOUNT * Map.COLUMNS_AMOUNT);
-        TileType[][] tempAiMap = new TileType[Map.ROWS_AMOUNT][Map.COLUMNS_AMOUNT];
-        for (int i = 0; i < tempAiMap.length; i++) {
-            for (int j = 0; j < tempAiMap[0].length; j++) {
-                tempAiMap[i][j] = TileType.EMPTY;
-            }
-        }
-        // Available tile indices for choosing random tile for ship beginning
-        populateListWithMapTileIndices(availableAiTileIndices);
-
-        while (availableShipsSizes.size() > 0) {
-            if (availableAiTileIndices.size() <= 0) {
-                throw new AiPlacingShipsException();
-            }
-            int randomIndex = randomNumberGenerator.nextInt(availableAiTileIndices.size());
-            Pair randomTileIndices = availableAiTileIndices.get(randomIndex);
-            int currentTileIndexX = randomTileIndices.getIndexX();
-            int currentTileIndexY = randomTileIndices.getIndexY();
-            int currentShipSize = availableShipsSizes.get(availableShipsSizes.size() - 1);
-
-            int directionsLoopCounter = 0;
-            boolean canCreateShip = true;
-            randomizingDirectionsLoop:
-            while (directionsLoopCounter < MAX_AMOUNT_OF_RANDOMIZING_DIRECTION_LOOPS) {
-                directionsLoopCounter++;
-                Direction currentDirection = Direction.getRandomDirection();
-                switch (currentDirection) {
-                    case EAST:
-                        if (currentTileIndexX + currentShipSize - 1 < Map.COLUMNS_AMOUNT) {
-                            for (int i = currentTileIndexX; i < currentTileIndexX + currentShipSize; i++) {
-                                if (tempAiMap[currentTileIndexY][i] == TileType.SHIP
-                                        || (i + 1 < Map.COLUMNS_AMOUNT && tempAiMap[currentTileIndexY][i + 1] == TileType.SHIP)
-                                        || !availableAiTileIndices.contains(new Pair(i, currentTileIndexY))) {
-                                    canCreateShip = false;
-                                    break;
-                                }
-                            }
-                            if (canCreateShip) {
-                                Ship newShip = new Ship(currentTileIndexX, currentTileIndexY, currentTileIndexX + currentShipSize - 1, currentTileIndexY);
-                                ships.add(newShip);
-                                break randomizingDirectionsLoop;
-                            }
-                        }
-                    case SOUTH:
-                        if (currentTileIndexY + currentShipSize - 1 < Map.ROWS_AMOUNT) {
-                            for (int i = currentTileIndexY; i < currentTileIndexY + currentShipSize; i++) {
-                                if (tempAiMap[i][currentTileIndexX] == TileType.SHIP
-                                        || (i + 1 < Map.ROWS_AMOUNT && tempAiMap[i + 1][currentTileIndexX] == TileType.SHIP)
-                                        || !availableAiTileIndices.contains(new Pair(currentTileIndexX, i))) {
-                                    canCreateShip = false;
-                                    break;
-                                }
-                            }
-                            if (canCreateShip) {
-                                Ship newShip = new Ship(currentTileIndexX, currentTileIndexY, currentTileIndexX, currentTileIndexY + currentShipSize - 1);
-                                ships.add(newShip);
-                                break randomizingDirectionsLoop;
-                            }
-                        }
-                    case WEST:
-                        if (currentTileIndexX - currentShipSize + 1 >= 0) {
-                            for (int i = currentTileIndexX - currentShipSize + 1; i <= currentTileIndexX; i++) {
-                                if (tempAiMap[currentTileIndexY][i] == TileType.SHIP
-                                        || (i - 1 >= 0 && tempAiMap[currentTileIndexY][i - 1] == TileType.SHIP)
-                                        || !availableAiTileIndices.contains(new Pair(i, currentTileIndexY))) {
-                                    canCreateShip = false;
-                                    break;
-                                }
-                            }
-                            if (canCreateShip) {
-                                Ship newShip = new Ship(currentTileIndexX - currentShipSize + 1, currentTileIndexY, currentTileIndexX, currentTileIndexY);
-                                ships.add(newShip);
-                                break randomizingDirectionsLoop;
-                            }
-                        }
-                    case NORTH:
-                        if (currentTileIndexY - currentShipSize + 1 >= 0) {
-                            for (int i = currentTileIndexY - (currentShipSize - 1); i <= currentTileIndexY; i++) {
-                                if (tempAiMap[i][currentTileIndexX] == TileType.SHIP
-                                        || (i - 1 >= 0 && tempAiMap[i - 1][currentTileIndexX] == TileType.SHIP)
-                                        || !availableAiTileIndices.contains(new Pair(currentTileIndexX, i))) {
-                                    canCreateShip = false;
-                                    break;
-                                }
-                            }
-                            if (canCreateShip) {
-                                Ship newShip = new Ship(currentTileIndexX, currentTileIndexY - currentShipSize + 1, currentTileIndexX, currentTileIndexY);
-                                ships.add(newShip);
-                                break randomizingDirectionsLoop;
-                            }
-                        }
-                }
-            }
-            // If new ship was constructed, remove its size from the availableShipSizes,
-            // build new map and remove tile indices no longer available for placing ships on
-            if (canCreateShip) {
-                availableShipsSizes.remove(availableShipsSizes.size() - 1);
-                copyShipsToArray(tempAiMap);
-                removeShipSurroundingIndicesFromList(ships.get(ships.size() - 1), availableAiTileIndices);
-            }
-        }
-
-        // Temp to see if ships were placed correctly by the ai
-        for (int i = 0; i < tempAiMap.length; i++) {
-            for (int j = 0; j < tempAiMap[0].length; j++) {
-                if (tempAiMap[i][j] == TileType.EMPTY) {
-                    System.out.print(0 + " ");
-                } else {
-                    System.out.print(1 + " ");
-                }
-            }
-            System.out.println("");
+    public Symbol processEnemyShot(Pair tileIndices) {
+        Symbol attackStatus = fleet.receiveShot(tileIndices);
+        if (attackStatus == Symbol.FAILED_HIT) {
+            recordAction(ActionType.PLAYER_MISS_SHOT, tileIndices);
+        } else {
+            recordAction(ActionType.PLAYER_SHOT, tileIndices);
         }
-        System.out.println("\n\n");
+        return attackStatus;
     }
 
     /**
-     * Add to tilesIndicesList all tiles indices from the map
+     * Choose a tile to attack and shoot at it.
      *
-     * @param tilesIndicesList empty list of tiles indices
+     * @param enemyFleet fleet attacked by the ai
+     * @return indices of a tile chosen by ai to attack
      */
-    private void populateListWithMapTileIndices(List<Pair> tilesIndicesList) {
-        for (int i = 0; i < Map.ROWS_AMOUNT; i++) {
-            for (int j = 0; j < Map.COLUMNS_AMOUNT; j++) {
-                tilesIndicesList.add(new Pair(j, i));
-            }
-        }
+    public Pair attack(Fleet enemyFleet) {
+        int chosenTile = attackTile(enemyFleet);
+        return new Pair(ruleset.toIndexX(chosenTile), ruleset.toIndexY(chosenTile));
     }
 
     /**
-     * Go through all ships and copy their positions to shipsMap
+     * Choose a tile to attack and shoot at it. Doesn't allocate any objects, unless ai records a replay.
      *
-     * @param shipsMap 2d array of TileType representing map for ai
+     * @param enemyFleet fleet attacked by the ai
+     * @return index of a tile chosen by ai to attack, as used by {@link Ruleset}
      */
-    private void copyShipsToArray(TileType[][] shipsMap) {
-        for (Ship currentShip : ships) {
-            for (Pair currentTileIndices : currentShip.calculateShipTileIndices()) {
-                shipsMap[currentTileIndices.getIndexY()][currentTileIndices.getIndexX()] = TileType.SHIP;
-            }
+    public int attackTile(Fleet enemyFleet) {
+        long startTime = LatencyMetrics.startTime();
+        AiMoveEvent aiMoveEvent = null;
+        if (AI_MOVE_EVENT_TYPE.isEnabled()) {
+            aiMoveEvent = new AiMoveEvent();
+            // Counted before the move and outside of its duration
+            aiMoveEvent.candidateTilesAmount = targetingStrategy.getCandidateTilesAmount();
+            aiMoveEvent.begin();
+        }
+        int chosenTile = targetingStrategy.chooseTile(random);
+        Symbol attackStatus = enemyFleet.receiveShot(chosenTile);
+        targetingStrategy.processAttackResult(chosenTile, attackStatus);
+        if (attackStatus == Symbol.FAILED_HIT) {
+            recordAction(ActionType.AI_MISS_SHOT, chosenTile);
+        } else {
+            recordAction(ActionType.AI_SHOT, chosenTile);
         }
+        if (aiMoveEvent != null) {
+            aiMoveEvent.end();
+        }
+        LatencyMetric.AI_MOVE.record(startTime);
+        if (aiMoveEvent != null && aiMoveEvent.shouldCommit()) {
+            aiMoveEvent.strategy = targetingStrategy.getClass().getSimpleName();
+            aiMoveEvent.tileIndex = chosenTile;
+            aiMoveEvent.hit = attackStatus != Symbol.FAILED_HIT;
+            aiMoveEvent.commit();
+        }
+
+        // Return tile chosen by the ai to attack player
+        return chosenTile;
     }
 
     /**
-     * Removes indices surrounding ship from availableAiTileIndices, to keep ships separated from each other.
-     *
-     * @param ship                   ship object, that we want to remove surrounding tile indices from
-     * @param availableAiTileIndices list of available tile indices on the map
+     * Choose random, valid positions for ai ships and create them
      */
-    private void removeShipSurroundingIndicesFromList(Ship ship, List<Pair> availableAiTileIndices) {
-        List<Pair> shipTilesIndices = ship.calculateShipTileIndices();
-        for (Pair currentTileIndices : shipTilesIndices) {
-            availableAiTileIndices.remove(currentTileIndices);
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX() + 1, currentTileIndices.getIndexY()));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX() + 1, currentTileIndices.getIndexY() + 1));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX(), currentTileIndices.getIndexY() + 1));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX() - 1, currentTileIndices.getIndexY() + 1));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX() - 1, currentTileIndices.getIndexY()));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX() - 1, currentTileIndices.getIndexY() - 1));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX(), currentTileIndices.getIndexY() - 1));
-            availableAiTileIndices.remove(new Pair(currentTileIndices.getIndexX() + 1, currentTileIndices.getIndexY() - 1));
+    private void generateShipsPosition() {
+        long startTime = LatencyMetrics.startTime();
+        List<Ship> generatedShips = ShipPlacementGenerator.generateShips(ruleset.getFleetComposition().getShipSizes(),
+                new BitBoard(ruleset), random);
+        if (generatedShips == null) {
+            throw new AiPlacingShipsException();
+        }
+        for (Ship currentShip : generatedShips) {
+            fleet.addShip(currentShip);
         }
+        LatencyMetric.AI_SHIPS_PLACEMENT.record(startTime);
     }
 
     /**
@@ -398,29 +168,41 @@ public class Ai implements Serializable {
      * @return true if ai lost all ships
      */
     public boolean didAiLose() {
-        return ships.size() <= 0;
+        return fleet.isDestroyed();
     }
 
     /**
-     * Creates an arrayList of tile indices that surround tile described by tileIndices. Always returns list with size 8.
+     * Add action to the replay of the game, if ai records one.
      *
-     * @param tileIndices indices of the tile for which we want to get neighbours
-     * @return list of tile indices that are neighbours to our tile
+     * @param actionType  type of the recorded action
+     * @param tileIndices indices of a tile used in the action
      */
-    private List<Pair> createListOfNeighbourTileIndices(Pair tileIndices) {
-        int indexX = tileIndices.getIndexX();
-        int indexY = tileIndices.getIndexY();
+    private void recordAction(ActionType actionType, Pair tileIndices) {
+        recordAction(actionType, ruleset.toIndex(tileIndices.getIndexX(), tileIndices.getIndexY()));
+    }
 
-        List<Pair> neighbourTilesIndices = new ArrayList<>();
-        neighbourTilesIndices.add(new Pair(indexX + 1, indexY));
-        neighbourTilesIndices.add(new Pair(indexX + 1, indexY + 1));
-        neighbourTilesIndices.add(new Pair(indexX, indexY + 1));
-        neighbourTilesIndices.add(new Pair(indexX - 1, indexY + 1));
-        neighbourTilesIndices.add(new Pair(indexX - 1, indexY));
-        neighbourTilesIndices.add(new Pair(indexX - 1, indexY - 1));
-        neighbourTilesIndices.add(new Pair(indexX, indexY - 1));
-        neighbourTilesIndices.add(new Pair(indexX + 1, indexY - 1));
+    private void recordAction(ActionType actionType, int tileIndex) {
+        if (replayRecorder != null) {
+            replayRecorder.addAction(actionType, tileIndex);
+        }
+    }
 
-        return neighbourTilesIndices;
+    /**
+     * @return recorder of the game being played or null if ai doesn't record the game
+     */
+    public ReplayRecorder getReplayRecorder() {
+        return replayRecorder;
+    }
+
+    private Object readResolve() {
+        // Ai saved before rulesets were introduced played a default game
+        if (ruleset == null) {
+            this.ruleset = Ruleset.DEFAULT;
+        }
+        if (replay != null) {
+            this.replayRecorder = new ReplayRecorder(replay);
+            this.replay = null;
+        }
+        return this;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.shipsgame;
+
+import com.shipsgame.targeting.HuntAndTargetStrategy;
+import com.shipsgame.targeting.ProbabilityDensityStrategy;
+import com.shipsgame.targeting.TargetingStrategy;
+
+/**
+ * Strategies used by the ai to choose tiles to attack.
+ */
+public enum AiMode {
+    // Attack random tiles and follow hit ships until they are destroyed
+    HUNT_AND_TARGET {
+        @Override
+        public TargetingStrategy createTargetingStrategy(Ruleset ruleset) {
+            return new HuntAndTargetStrategy(ruleset);
+        }
+    },
+    // Attack tiles that can be covered by the highest amount of positions of alive ships
+    PROBABILITY_DENSITY {
+        @Override
+        public TargetingStrategy createTargetingStrategy(Ruleset ruleset) {
+            return new ProbabilityDensityStrategy(ruleset);
+        }
+    };
+
+    /**
+     * @param ruleset rules of the game, describing the attacked board and fleet
+     * @return new strategy of this mode, ready to be used in a new game
+     */
+    public abstract TargetingStrategy createTargetingStrategy(Ruleset ruleset);
+}
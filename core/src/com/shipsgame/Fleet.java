@@ -0,0 +1,173 @@
+package com.shipsgame;
+
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.Symbol;
+import com.shipsgame.utilities.Pair;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pure game state of ships owned by one side of the game. Has no dependency on rendering or screens,
+ * so it can be used both by the game map and by headless simulations.
+ * Damage of the ships is tracked by the fleet itself, so resolving a shot is constant time and never allocates.
+ */
+public class Fleet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final byte NO_SHIP = -1;
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_TILES = 1 << CHUNK_SHIFT;
+
+    private Ruleset ruleset;
+    private List<Ship> ships;
+    // Index in ships of a ship located on every map tile or NO_SHIP, in chunks of CHUNK_TILES tiles. A chunk is
+    // allocated when a ship is placed on it for the first time, so a fleet on a big board takes little memory
+    private byte[][] shipIdsOnTiles;
+    // Amount of destroyed parts of every ship, indexed the same as ships
+    private int[] shipHitsAmounts;
+    private BitBoard hitTiles;
+    private int destroyedShipsAmount;
+
+    /**
+     * @param ruleset rules of the game in which the fleet is used
+     */
+    public Fleet(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.ships = new ArrayList<>();
+        this.shipIdsOnTiles = new byte[(ruleset.getTilesAmount() + CHUNK_TILES - 1) >>> CHUNK_SHIFT][];
+        this.shipHitsAmounts = new int[0];
+        this.hitTiles = new BitBoard(ruleset);
+        this.destroyedShipsAmount = 0;
+    }
+
+    /**
+     * Remove all ships and their damage from this fleet.
+     */
+    public void clear() {
+        // Only tiles of the ships are cleared, so clearing doesn't depend on the size of the board
+        for (Ship ship : ships) {
+            for (int i = 0; i < ship.getShipSize(); i++) {
+                setShipId(ship.getTileIndex(i, ruleset), NO_SHIP);
+            }
+        }
+        ships.clear();
+        shipHitsAmounts = new int[0];
+        hitTiles.clear();
+        destroyedShipsAmount = 0;
+    }
+
+    public List<Ship> getShips() {
+        return ships;
+    }
+
+    public void addShip(Ship ship) {
+        byte shipId = (byte) ships.size();
+        this.ships.add(ship);
+        this.shipHitsAmounts = Arrays.copyOf(shipHitsAmounts, ships.size());
+        for (int i = 0; i < ship.getShipSize(); i++) {
+            setShipId(ship.getTileIndex(i, ruleset), shipId);
+        }
+    }
+
+    /**
+     * @param tileIndices indices of a tile to check
+     * @return ship located at given tile indices or null if there is no ship there
+     */
+    public Ship getShipAt(Pair tileIndices) {
+        return getShipAt(ruleset.toIndex(tileIndices.getIndexX(), tileIndices.getIndexY()));
+    }
+
+    /**
+     * @param tileIndex index of a tile to check, as used by {@link Ruleset}
+     * @return ship located at given tile or null if there is no ship there
+     */
+    public Ship getShipAt(int tileIndex) {
+        byte shipId = getShipId(tileIndex);
+        return shipId == NO_SHIP ? null : ships.get(shipId);
+    }
+
+    /**
+     * Check tile described by attackedTileIndices and return what happens if this tile is attacked.
+     *
+     * @param attackedTileIndices indices of a tile that is attacked
+     * @return Symbol with value SUCCESSFUL_HIT if a ship was hit,
+     * FAILED_HIT if there was no ship at given location,
+     * DESTROYED if after attack a ship was completely destroyed
+     */
+    public Symbol getStatusInfoFromTile(Pair attackedTileIndices) {
+        int tileIndex = ruleset.toIndex(attackedTileIndices.getIndexX(), attackedTileIndices.getIndexY());
+        byte shipId = getShipId(tileIndex);
+        if (shipId == NO_SHIP) {
+            return Symbol.FAILED_HIT;
+        }
+        int hitsAmountAfterAttack = shipHitsAmounts[shipId] + (hitTiles.get(tileIndex) ? 0 : 1);
+        return statusFromHitsAmount(shipId, hitsAmountAfterAttack);
+    }
+
+    /**
+     * Attack tile described by attackedTileIndices and damage ship located there.
+     *
+     * @param attackedTileIndices indices of a tile that is attacked
+     * @return Symbol with the same meaning as in {@link #getStatusInfoFromTile(Pair)}
+     */
+    public Symbol receiveShot(Pair attackedTileIndices) {
+        return receiveShot(ruleset.toIndex(attackedTileIndices.getIndexX(), attackedTileIndices.getIndexY()));
+    }
+
+    /**
+     * Attack given tile and damage ship located there.
+     *
+     * @param tileIndex index of a tile that is attacked, as used by {@link Ruleset}
+     * @return Symbol with the same meaning as in {@link #getStatusInfoFromTile(Pair)}
+     */
+    public Symbol receiveShot(int tileIndex) {
+        byte shipId = getShipId(tileIndex);
+        if (shipId == NO_SHIP) {
+            return Symbol.FAILED_HIT;
+        }
+        // Attacking already destroyed part of a ship doesn't damage it again
+        if (!hitTiles.get(tileIndex)) {
+            hitTiles.set(tileIndex);
+            shipHitsAmounts[shipId]++;
+            if (shipHitsAmounts[shipId] == ships.get(shipId).getShipSize()) {
+                destroyedShipsAmount++;
+            }
+        }
+        return statusFromHitsAmount(shipId, shipHitsAmounts[shipId]);
+    }
+
+    private Symbol statusFromHitsAmount(byte shipId, int hitsAmount) {
+        if (hitsAmount >= ships.get(shipId).getShipSize()) {
+            return Symbol.DESTROYED;
+        } else {
+            return Symbol.SUCCESSFUL_HIT;
+        }
+    }
+
+    private byte getShipId(int tileIndex) {
+        byte[] chunk = shipIdsOnTiles[tileIndex >>> CHUNK_SHIFT];
+        return chunk == null ? NO_SHIP : chunk[tileIndex & (CHUNK_TILES - 1)];
+    }
+
+    private void setShipId(int tileIndex, byte shipId) {
+        int chunkIndex = tileIndex >>> CHUNK_SHIFT;
+        if (shipIdsOnTiles[chunkIndex] == null) {
+            // The last chunk holds only the remaining tiles
+            shipIdsOnTiles[chunkIndex] = new byte[Math.min(CHUNK_TILES, ruleset.getTilesAmount() - (chunkIndex << CHUNK_SHIFT))];
+            Arrays.fill(shipIdsOnTiles[chunkIndex], NO_SHIP);
+        }
+        shipIdsOnTiles[chunkIndex][tileIndex & (CHUNK_TILES - 1)] = shipId;
+    }
+
+    /**
+     * Check if this fleet lost the game by losing all its ships.
+     *
+     * @return true if all ships are destroyed
+     */
+    public boolean isDestroyed() {
+        return destroyedShipsAmount >= ships.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.shipsgame;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Sizes of all ships of a fleet. Used both by the player placing ships and by the ai, as a part of {@link Ruleset}.
+ */
+public final class FleetComposition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    // Ship has to fit into a row or a column of the largest board
+    public static final int MAX_SHIP_SIZE = Ruleset.MAX_SIDE_LENGTH;
+    // Ship sizes and their amount used in a normal game
+    public static final FleetComposition DEFAULT = new FleetComposition(1, 1, 1, 1, 2, 2, 2, 3, 3, 4);
+
+    private final int[] shipSizes;
+
+    /**
+     * @param shipSizes sizes of all ships of the fleet, sorted ascending
+     * @throws IllegalArgumentException if fleet is empty or any ship is longer than {@link #MAX_SHIP_SIZE}
+     */
+    public FleetComposition(int... shipSizes) {
+        if (shipSizes.length == 0) {
+            throw new IllegalArgumentException("Fleet must contain at least one ship");
+        }
+        for (int shipSize : shipSizes) {
+            if (shipSize < 1 || shipSize > MAX_SHIP_SIZE) {
+                throw new IllegalArgumentException("Invalid ship size: " + shipSize);
+            }
+        }
+        this.shipSizes = Arrays.copyOf(shipSizes, shipSizes.length);
+        Arrays.sort(this.shipSizes);
+    }
+
+    /**
+     * @param text ship sizes separated with commas, for example "1,1,2,3"
+     * @return fleet composition with given ship sizes
+     * @throws IllegalArgumentException if text doesn't describe a valid fleet
+     */
+    public static FleetComposition parse(String text) {
+        String[] parts = text.split(",");
+        int[] shipSizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            shipSizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return new FleetComposition(shipSizes);
+    }
+
+    /**
+     * @return copy of ship sizes, sorted ascending
+     */
+    public int[] getShipSizes() {
+        return Arrays.copyOf(shipSizes, shipSizes.length);
+    }
+
+    public int getShipsAmount() {
+        return shipSizes.length;
+    }
+
+    public int getMaxShipSize() {
+        return shipSizes[shipSizes.length - 1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(shipSizes, ((FleetComposition) o).shipSizes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(shipSizes);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < shipSizes.length; i++) {
+            if (i > 0) {
+                stringBuilder.append(',');
+            }
+            stringBuilder.append(shipSizes[i]);
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,298 @@
+package com.shipsgame;
+
+import com.shipsgame.map.Map;
+import com.shipsgame.replays.ActionType;
+import com.shipsgame.replays.ReplayRecorder;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-ahead journal of the game in progress of a single player. When a game starts, its seed and ruleset are written
+ * to the journal and then every move is appended as soon as it is made:
+ * <ul>
+ * <li>ship placed by the player: record type (1 byte), start and end tile index (4 bytes each)</li>
+ * <li>shot of the player: record type (1 byte) and tile index (4 bytes)</li>
+ * <li>answering shot of the ai: record type (1 byte) and tile index (4 bytes)</li>
+ * </ul>
+ * A game is resumed by playing it again from its seed with ships and shots of the player, so saving a move costs
+ * a few bytes instead of a whole profile. Shots of the ai follow from the seed, they are journaled only to check
+ * that the game played again is the journaled one.
+ * Every record is written at once, so a crash can leave only the last record incomplete, and such record is ignored.
+ * A new journal is written to a temporary file and moved over the previous one, so a crash while starting a game leaves
+ * either the previous or the new journal.
+ */
+public class GameJournal {
+
+    private static final String JOURNAL_FILE_EXTENSION = ".journal";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    private static final int VERSION = 1;
+    private static final int MAGIC = 0x53484a4e;
+
+    private static final int SHIP_RECORD = 1;
+    private static final int PLAYER_SHOT_RECORD = 2;
+    private static final int AI_SHOT_RECORD = 3;
+
+    private final File journalFile;
+    private final File temporaryFile;
+    // Buffer for a single record, the longest one is a shot of the player with the answering shot of the ai
+    private final byte[] recordBuffer;
+    // Stream appending to the journal of the current game, null if no game is journaled
+    private FileOutputStream journalOut;
+    private Ruleset ruleset;
+
+    /**
+     * @param directoryPath path of the directory with player files
+     * @param login         login of the player owning the journal
+     */
+    public GameJournal(String directoryPath, String login) {
+        this.journalFile = new File(directoryPath, login + JOURNAL_FILE_EXTENSION);
+        this.temporaryFile = new File(directoryPath, login + JOURNAL_FILE_EXTENSION + TEMPORARY_FILE_EXTENSION);
+        this.recordBuffer = new byte[2 * (1 + Integer.BYTES)];
+    }
+
+    /**
+     * Start journaling given game, replacing the previous journal. Moves already made in the game are written
+     * together with its seed, so resumed games are journaled again from their current state.
+     *
+     * @param map game to be journaled, its moves are appended to this journal from now on
+     */
+    public synchronized void begin(Map map) {
+        close();
+        ReplayRecorder replayRecorder = map.getReplayRecorder();
+        // Games started before seeds were stored can't be played again, so they aren't journaled
+        if (replayRecorder.getSeed() == null) {
+            return;
+        }
+        this.ruleset = map.getRuleset();
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(journal);
+        try {
+            dataOut.writeInt(MAGIC);
+            dataOut.writeByte(VERSION);
+            dataOut.writeLong(replayRecorder.getSeed());
+            RulesetCodec.write(dataOut, ruleset);
+            for (Ship ship : map.getShips()) {
+                writeShip(dataOut, ship);
+            }
+            for (int i = 0; i < replayRecorder.getActionsAmount(); i++) {
+                ActionType actionType = replayRecorder.getActionType(i);
+                boolean playerShot = actionType == ActionType.PLAYER_SHOT || actionType == ActionType.PLAYER_MISS_SHOT;
+                dataOut.writeByte(playerShot ? PLAYER_SHOT_RECORD : AI_SHOT_RECORD);
+                dataOut.writeInt(replayRecorder.getActionTileIndex(i));
+            }
+            try (FileOutputStream temporaryOut = new FileOutputStream(temporaryFile)) {
+                journal.writeTo(temporaryOut);
+            }
+            try {
+                Files.move(temporaryFile.toPath(), journalFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.journalOut = new FileOutputStream(journalFile, true);
+        } catch (IOException e) {
+            e.printStackTrace();
+            close();
+            return;
+        }
+        map.setGameJournal(this);
+    }
+
+    /**
+     * Append ship placed by the player.
+     */
+    public synchronized void appendShip(Ship ship) {
+        if (journalOut == null) {
+            return;
+        }
+        int recordLength = putByte(0, SHIP_RECORD);
+        recordLength = putInt(recordLength, ship.getTileIndex(0, ruleset));
+        recordLength = putInt(recordLength, ship.getTileIndex(ship.getShipSize() - 1, ruleset));
+        appendRecord(recordLength);
+    }
+
+    /**
+     * Append shot of the player and the answering shot of the ai.
+     *
+     * @param playerTileIndex tile index of the shot of the player
+     * @param aiTileIndex     tile index of the shot of the ai
+     */
+    public synchronized void appendShots(int playerTileIndex, int aiTileIndex) {
+        if (journalOut == null) {
+            return;
+        }
+        int recordLength = putByte(0, PLAYER_SHOT_RECORD);
+        recordLength = putInt(recordLength, playerTileIndex);
+        recordLength = putByte(recordLength, AI_SHOT_RECORD);
+        recordLength = putInt(recordLength, aiTileIndex);
+        appendRecord(recordLength);
+    }
+
+    /**
+     * Stop journaling and remove the journal, when the journaled game ends.
+     */
+    public synchronized void clear() {
+        close();
+        if (journalFile.exists() && !journalFile.delete()) {
+            System.err.println("Journal " + journalFile + " couldn't be removed");
+        }
+    }
+
+    /**
+     * Stop journaling, the journal is kept so the game can be resumed.
+     */
+    public synchronized void close() {
+        if (journalOut != null) {
+            try {
+                journalOut.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            journalOut = null;
+        }
+    }
+
+    /**
+     * Restore the journaled game by playing it again from its seed.
+     *
+     * @return journaled game or null if there is no journal or the journaled game has ended
+     * @throws IOException if the journal is damaged or doesn't match the game played again from its seed
+     */
+    public synchronized Map load() throws IOException {
+        if (!journalFile.exists()) {
+            return null;
+        }
+        long seed;
+        Ruleset journaledRuleset;
+        List<Ship> ships = new ArrayList<>();
+        List<Integer> playerShotTileIndices = new ArrayList<>();
+        List<Integer> aiShotTileIndices = new ArrayList<>();
+        try (DataInputStream dataIn = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            if (dataIn.readInt() != MAGIC) {
+                throw new IOException("Not a game journal");
+            }
+            int version = dataIn.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal format version: " + version);
+            }
+            seed = dataIn.readLong();
+            journaledRuleset = RulesetCodec.read(dataIn);
+            try {
+                readRecords(dataIn, journaledRuleset, ships, playerShotTileIndices, aiShotTileIndices);
+            } catch (EOFException e) {
+                // The last record was left incomplete by a crash, moves before it are restored
+            }
+        } catch (EOFException e) {
+            throw new IOException("Journal without a complete header");
+        }
+
+        int[] playerShots = new int[playerShotTileIndices.size()];
+        for (int i = 0; i < playerShots.length; i++) {
+            playerShots[i] = playerShotTileIndices.get(i);
+        }
+        Map map;
+        try {
+            map = new Map(seed, journaledRuleset, ships, playerShots);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid journaled game: " + e.getMessage());
+        }
+        ReplayRecorder replayRecorder = map.getReplayRecorder();
+        int aiShotNumber = 0;
+        for (int i = 0; i < replayRecorder.getActionsAmount(); i++) {
+            ActionType actionType = replayRecorder.getActionType(i);
+            if (actionType == ActionType.AI_SHOT || actionType == ActionType.AI_MISS_SHOT) {
+                // Shot of the ai lost with the incomplete last record isn't checked
+                if (aiShotNumber < aiShotTileIndices.size()
+                        && aiShotTileIndices.get(aiShotNumber) != replayRecorder.getActionTileIndex(i)) {
+                    throw new IOException("Journaled game doesn't match the game played from its seed");
+                }
+                aiShotNumber++;
+            }
+        }
+        return map.isGameOver() ? null : map;
+    }
+
+    private static void readRecords(DataInputStream dataIn, Ruleset ruleset, List<Ship> ships,
+                                    List<Integer> playerShotTileIndices, List<Integer> aiShotTileIndices) throws IOException {
+        int recordType;
+        while ((recordType = dataIn.read()) != -1) {
+            switch (recordType) {
+                case SHIP_RECORD:
+                    int startTileIndex = readTileIndex(dataIn, ruleset);
+                    int endTileIndex = readTileIndex(dataIn, ruleset);
+                    ships.add(new Ship(ruleset.toIndexX(startTileIndex), ruleset.toIndexY(startTileIndex),
+                            ruleset.toIndexX(endTileIndex), ruleset.toIndexY(endTileIndex)));
+                    break;
+                case PLAYER_SHOT_RECORD:
+                    playerShotTileIndices.add(readTileIndex(dataIn, ruleset));
+                    break;
+                case AI_SHOT_RECORD:
+                    aiShotTileIndices.add(readTileIndex(dataIn, ruleset));
+                    break;
+                default:
+                    throw new IOException("Invalid journal record type: " + recordType);
+            }
+        }
+    }
+
+    private static int readTileIndex(DataInputStream dataIn, Ruleset ruleset) throws IOException {
+        int tileIndex = dataIn.readInt();
+        if (tileIndex < 0 || tileIndex >= ruleset.getTilesAmount()) {
+            throw new IOException("Invalid tile index: " + tileIndex);
+        }
+        return tileIndex;
+    }
+
+    private void writeShip(DataOutputStream dataOut, Ship ship) throws IOException {
+        dataOut.writeByte(SHIP_RECORD);
+        dataOut.writeInt(ship.getTileIndex(0, ruleset));
+        dataOut.writeInt(ship.getTileIndex(ship.getShipSize() - 1, ruleset));
+    }
+
+    /**
+     * @return offset in recordBuffer after the written byte
+     */
+    private int putByte(int offset, int value) {
+        recordBuffer[offset] = (byte) value;
+        return offset + 1;
+    }
+
+    /**
+     * Write int to recordBuffer in the same byte order as {@link DataOutputStream}.
+     *
+     * @return offset in recordBuffer after the written int
+     */
+    private int putInt(int offset, int value) {
+        recordBuffer[offset] = (byte) (value >>> 24);
+        recordBuffer[offset + 1] = (byte) (value >>> 16);
+        recordBuffer[offset + 2] = (byte) (value >>> 8);
+        recordBuffer[offset + 3] = (byte) value;
+        return offset + Integer.BYTES;
+    }
+
+    /**
+     * Write whole record from recordBuffer with a single write. It isn't synced, so it survives a crash of the game
+     * but not of the system.
+     */
+    private void appendRecord(int recordLength) {
+        try {
+            journalOut.write(recordBuffer, 0, recordLength);
+        } catch (IOException e) {
+            // Journaling stops, the game can still be resumed from the profile
+            e.printStackTrace();
+            close();
+        }
+    }
+}
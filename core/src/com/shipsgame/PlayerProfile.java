@@ -5,10 +5,12 @@ import com.shipsgame.replays.Replay;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class PlayerProfile implements Serializable {
 
+    private static final long serialVersionUID = 732030051286722809L;
     private int wins;
     private int loses;
     private String firstName;
@@ -16,6 +18,7 @@ public class PlayerProfile implements Serializable {
     private String login;
     private String password;
     private Map resumedGameMap;
+    // Replays of profiles saved before replays were moved to ReplayStore, empty otherwise
     private List<Replay> replayList;
 
     public PlayerProfile(String login, String password) {
@@ -28,6 +31,17 @@ public class PlayerProfile implements Serializable {
         this.replayList = new ArrayList<>();
     }
 
+    PlayerProfile(String login, String password, String firstName, String lastName, int wins, int loses, Map resumedGameMap) {
+        this.wins = wins;
+        this.loses = loses;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.login = login;
+        this.password = password;
+        this.resumedGameMap = resumedGameMap;
+        this.replayList = new ArrayList<>();
+    }
+
     public int getWins() {
         return wins;
     }
@@ -64,12 +78,28 @@ public class PlayerProfile implements Serializable {
         this.resumedGameMap = resumedGameMap;
     }
 
-    public List<Replay> getReplayList() {
-        return replayList;
+    /**
+     * @return replays saved in this profile before replays were moved to ReplayStore, oldest first
+     */
+    public List<Replay> getLegacyReplays() {
+        return Collections.unmodifiableList(replayList);
+    }
+
+    /**
+     * Keep replay of a game finished before replays of this profile were moved to ReplayStore, so it is stored
+     * after them.
+     *
+     * @param replay replay of the finished game
+     */
+    public void addLegacyReplay(Replay replay) {
+        replayList.add(replay);
     }
 
-    public void addReplay(Replay replayToAdd) {
-        this.replayList.add(replayToAdd);
+    /**
+     * Remove replays saved in this profile before replays were moved to ReplayStore, once they are stored there.
+     */
+    public void clearLegacyReplays() {
+        this.replayList = new ArrayList<>();
     }
 
     public void addWin() {
@@ -80,6 +110,10 @@ public class PlayerProfile implements Serializable {
         this.loses++;
     }
 
+    String getHashedPassword() {
+        return password;
+    }
+
     public boolean verifyPassword(String hashedPassword) {
         return hashedPassword.equals(this.password);
     }
@@ -0,0 +1,171 @@
+package com.shipsgame;
+
+import com.shipsgame.map.Map;
+import com.shipsgame.replays.ActionType;
+import com.shipsgame.replays.ReplayRecorder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary format of player profiles. Layout of an encoded profile:
+ * <ul>
+ * <li>magic number (4 bytes) and format version (1 byte)</li>
+ * <li>login, hashed password, first name and last name, each one a presence flag followed by the string</li>
+ * <li>amount of wins and amount of loses (4 bytes each)</li>
+ * <li>presence flag of the resumed game, followed by the seed of the game (8 bytes), its ruleset written by
+ * {@link RulesetCodec}, amount of placed player ships (1 byte), start and end tile index of every ship (4 bytes each),
+ * amount of player shots (4 bytes) and tile index of every shot (4 bytes each)</li>
+ * </ul>
+ * Only moves of the player are stored, the resumed game is restored by playing it again from its seed.
+ * Profiles of version 1 don't store the ruleset, their resumed games were played with the default one.
+ * Replays aren't part of the profile, they are kept by {@link com.shipsgame.replays.ReplayStore}.
+ */
+public final class ProfileCodec {
+
+    public static final int VERSION = 2;
+    private static final int DEFAULT_RULESET_VERSION = 1;
+
+    private static final int MAGIC = 0x53485046;
+
+    private ProfileCodec() {
+    }
+
+    /**
+     * @param data beginning of the stored profile, at least 4 bytes
+     * @return true if the profile is stored in this format, false if it was stored with Java serialization
+     */
+    public static boolean isEncodedProfile(byte[] data) {
+        return data.length >= Integer.BYTES
+                && ((data[0] & 0xff) << 24 | (data[1] & 0xff) << 16 | (data[2] & 0xff) << 8 | (data[3] & 0xff)) == MAGIC;
+    }
+
+    /**
+     * Write given profile to the stream.
+     *
+     * @param playerProfile profile to be encoded
+     * @param out           stream to which the profile is written
+     */
+    public static void encode(PlayerProfile playerProfile, OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeByte(VERSION);
+        writeString(dataOut, playerProfile.getLogin());
+        writeString(dataOut, playerProfile.getHashedPassword());
+        writeString(dataOut, playerProfile.getFirstName());
+        writeString(dataOut, playerProfile.getLastName());
+        dataOut.writeInt(playerProfile.getWins());
+        dataOut.writeInt(playerProfile.getLoses());
+
+        Map resumedGameMap = playerProfile.getResumedGameMap();
+        // Games started before seeds were stored can't be played again, so they aren't resumed
+        boolean hasResumedGame = resumedGameMap != null && resumedGameMap.getReplayRecorder() != null
+                && resumedGameMap.getReplayRecorder().getSeed() != null;
+        dataOut.writeBoolean(hasResumedGame);
+        if (hasResumedGame) {
+            ReplayRecorder replayRecorder = resumedGameMap.getReplayRecorder();
+            dataOut.writeLong(replayRecorder.getSeed());
+            Ruleset ruleset = resumedGameMap.getRuleset();
+            RulesetCodec.write(dataOut, ruleset);
+            List<Ship> ships = resumedGameMap.getShips();
+            dataOut.writeByte(ships.size());
+            for (Ship ship : ships) {
+                dataOut.writeInt(ship.getTileIndex(0, ruleset));
+                dataOut.writeInt(ship.getTileIndex(ship.getShipSize() - 1, ruleset));
+            }
+            int playerShotsAmount = 0;
+            for (int i = 0; i < replayRecorder.getActionsAmount(); i++) {
+                if (isPlayerShot(replayRecorder.getActionType(i))) {
+                    playerShotsAmount++;
+                }
+            }
+            dataOut.writeInt(playerShotsAmount);
+            for (int i = 0; i < replayRecorder.getActionsAmount(); i++) {
+                if (isPlayerShot(replayRecorder.getActionType(i))) {
+                    dataOut.writeInt(replayRecorder.getActionTileIndex(i));
+                }
+            }
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * Read a profile from the stream.
+     *
+     * @param in stream containing profile written by {@link #encode(PlayerProfile, OutputStream)}
+     * @return decoded profile
+     * @throws IOException if the stream ends early or doesn't contain a valid profile
+     */
+    public static PlayerProfile decode(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != MAGIC) {
+            throw new IOException("Not an encoded player profile");
+        }
+        int version = dataIn.readUnsignedByte();
+        if (version != VERSION && version != DEFAULT_RULESET_VERSION) {
+            throw new IOException("Unsupported profile format version: " + version);
+        }
+        String login = readString(dataIn);
+        String hashedPassword = readString(dataIn);
+        String firstName = readString(dataIn);
+        String lastName = readString(dataIn);
+        int wins = dataIn.readInt();
+        int loses = dataIn.readInt();
+
+        Map resumedGameMap = null;
+        if (dataIn.readBoolean()) {
+            long seed = dataIn.readLong();
+            Ruleset ruleset = version == DEFAULT_RULESET_VERSION ? Ruleset.DEFAULT : RulesetCodec.read(dataIn);
+            int shipsAmount = dataIn.readUnsignedByte();
+            List<Ship> ships = new ArrayList<>(shipsAmount);
+            for (int i = 0; i < shipsAmount; i++) {
+                int startTileIndex = readTileIndex(dataIn, ruleset);
+                int endTileIndex = readTileIndex(dataIn, ruleset);
+                ships.add(new Ship(ruleset.toIndexX(startTileIndex), ruleset.toIndexY(startTileIndex),
+                        ruleset.toIndexX(endTileIndex), ruleset.toIndexY(endTileIndex)));
+            }
+            int playerShotsAmount = dataIn.readInt();
+            if (playerShotsAmount < 0 || playerShotsAmount > ruleset.getTilesAmount()) {
+                throw new IOException("Invalid amount of player shots: " + playerShotsAmount);
+            }
+            int[] playerShotTileIndices = new int[playerShotsAmount];
+            for (int i = 0; i < playerShotsAmount; i++) {
+                playerShotTileIndices[i] = dataIn.readInt();
+            }
+            try {
+                resumedGameMap = new Map(seed, ruleset, ships, playerShotTileIndices);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid resumed game: " + e.getMessage());
+            }
+        }
+        return new PlayerProfile(login, hashedPassword, firstName, lastName, wins, loses, resumedGameMap);
+    }
+
+    private static boolean isPlayerShot(ActionType actionType) {
+        return actionType == ActionType.PLAYER_SHOT || actionType == ActionType.PLAYER_MISS_SHOT;
+    }
+
+    private static void writeString(DataOutputStream dataOut, String string) throws IOException {
+        dataOut.writeBoolean(string != null);
+        if (string != null) {
+            dataOut.writeUTF(string);
+        }
+    }
+
+    private static String readString(DataInputStream dataIn) throws IOException {
+        return dataIn.readBoolean() ? dataIn.readUTF() : null;
+    }
+
+    private static int readTileIndex(DataInputStream dataIn, Ruleset ruleset) throws IOException {
+        int tileIndex = dataIn.readInt();
+        if (tileIndex < 0 || tileIndex >= ruleset.getTilesAmount()) {
+            throw new IOException("Invalid tile index: " + tileIndex);
+        }
+        return tileIndex;
+    }
+}
@@ -0,0 +1,202 @@
+package com.shipsgame;
+
+import com.shipsgame.flightrecorder.ProfileSaveEvent;
+import com.shipsgame.flightrecorder.ProfileWriteEvent;
+import com.shipsgame.metrics.LatencyMetric;
+import com.shipsgame.metrics.LatencyMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves player profiles on a background thread. A profile is encoded with {@link ProfileCodec} into a snapshot
+ * on the thread which saves it, or serialized while it still keeps replays not moved to
+ * {@link com.shipsgame.replays.ReplayStore}, so the profile can be modified right after, and the snapshot is written by
+ * the background thread. Snapshots are written to a temporary file, synced and moved over the profile file, so a crash
+ * leaves either the previous or the new profile. If a profile is saved again before its previous snapshot is written,
+ * only the newest snapshot is written, it contains everything the previous one did.
+ */
+public class ProfilePersistence {
+
+    private static final String PROFILE_FILE_EXTENSION = ".profile";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final File directory;
+    // Newest snapshots not written yet, by login
+    private final ConcurrentHashMap<String, byte[]> pendingSnapshots;
+    private final ExecutorService writer;
+
+    /**
+     * @param directoryPath path of the directory with profile files
+     */
+    public ProfilePersistence(String directoryPath) {
+        this.directory = new File(directoryPath);
+        this.pendingSnapshots = new ConcurrentHashMap<>();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "Profile persistence"));
+    }
+
+    /**
+     * Save current state of the profile without waiting for it to be written.
+     *
+     * @param playerProfile profile to be saved
+     */
+    public void save(PlayerProfile playerProfile) {
+        long startTime = LatencyMetrics.startTime();
+        ProfileSaveEvent profileSaveEvent = new ProfileSaveEvent();
+        profileSaveEvent.begin();
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try {
+            if (playerProfile.getLegacyReplays().isEmpty()) {
+                ProfileCodec.encode(playerProfile, snapshot);
+            } else {
+                // Codec doesn't keep replays, so the profile is serialized as before until they are moved to the store
+                try (ObjectOutputStream out = new ObjectOutputStream(snapshot)) {
+                    out.writeObject(playerProfile);
+                }
+            }
+        } catch (IOException e) {
+            // Writing to a byte array never fails
+            throw new UncheckedIOException(e);
+        }
+        profileSaveEvent.end();
+        if (profileSaveEvent.shouldCommit()) {
+            profileSaveEvent.size = snapshot.size();
+            profileSaveEvent.commit();
+        }
+        String login = playerProfile.getLogin();
+        // Write is scheduled only if there isn't one waiting already, the waiting one writes the newest snapshot
+        if (pendingSnapshots.put(login, snapshot.toByteArray()) == null) {
+            writer.execute(() -> write(login));
+        }
+        LatencyMetric.PROFILE_SAVE.record(startTime);
+    }
+
+    /**
+     * Run given write of another file of a player on the background thread, after profiles saved before it are
+     * written, so the render thread doesn't wait for the disk.
+     *
+     * @param write write of the file, handling its own errors
+     */
+    public void execute(Runnable write) {
+        writer.execute(write);
+    }
+
+    /**
+     * Profiles written before {@link ProfileCodec} was introduced are read with Java serialization and passed
+     * through the codec, so their resumed games are restored the same way as games of new profiles. Their replays are
+     * kept in the returned profile until they are moved to the replay store. They are written in the new format when
+     * they are saved again.
+     *
+     * @param login login of the player
+     * @return the most recently saved profile of the player, even if it wasn't written yet
+     */
+    public PlayerProfile load(String login) throws IOException, ClassNotFoundException {
+        byte[] snapshot = pendingSnapshots.get(login);
+        if (snapshot == null) {
+            snapshot = Files.readAllBytes(getProfileFile(login).toPath());
+        }
+        if (ProfileCodec.isEncodedProfile(snapshot)) {
+            return ProfileCodec.decode(new ByteArrayInputStream(snapshot));
+        }
+        PlayerProfile legacyProfile;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(snapshot))) {
+            legacyProfile = (PlayerProfile) in.readObject();
+        }
+        ByteArrayOutputStream encodedProfile = new ByteArrayOutputStream();
+        ProfileCodec.encode(legacyProfile, encodedProfile);
+        // Codec doesn't keep replays, so only the restored game is taken and the replays stay to be moved to the store
+        PlayerProfile decodedProfile = ProfileCodec.decode(new ByteArrayInputStream(encodedProfile.toByteArray()));
+        legacyProfile.setResumedGameMap(decodedProfile.getResumedGameMap());
+        return legacyProfile;
+    }
+
+    /**
+     * Write all saved profiles and stop the background thread.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Profiles weren't written in " + CLOSE_TIMEOUT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write the newest snapshot of the profile. Snapshot stays pending until it is written, so loading the profile
+     * never reads an outdated file.
+     */
+    private void write(String login) {
+        byte[] snapshot = pendingSnapshots.get(login);
+        writeSnapshot(login, snapshot);
+        // Snapshot saved while this one was written wasn't scheduled, so it is written now
+        while (!pendingSnapshots.remove(login, snapshot)) {
+            snapshot = pendingSnapshots.get(login);
+            writeSnapshot(login, snapshot);
+        }
+    }
+
+    private void writeSnapshot(String login, byte[] snapshot) {
+        File profileFile = getProfileFile(login);
+        File temporaryFile = new File(directory, login + PROFILE_FILE_EXTENSION + TEMPORARY_FILE_EXTENSION);
+        long startTime = LatencyMetrics.startTime();
+        ProfileWriteEvent profileWriteEvent = new ProfileWriteEvent();
+        profileWriteEvent.begin();
+        try {
+            try (FileOutputStream out = new FileOutputStream(temporaryFile)) {
+                out.write(snapshot);
+                out.getFD().sync();
+            }
+            try {
+                Files.move(temporaryFile.toPath(), profileFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), profileFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory();
+            profileWriteEvent.written = true;
+        } catch (IOException e) {
+            // Profile file is left intact and the next save of the profile writes everything this one would
+            e.printStackTrace();
+        }
+        LatencyMetric.PROFILE_WRITE.record(startTime);
+        if (profileWriteEvent.shouldCommit()) {
+            profileWriteEvent.size = snapshot.length;
+            profileWriteEvent.commit();
+        }
+    }
+
+    /**
+     * Make the move of the temporary file durable. Directories can't be synced on some systems, where the move
+     * is durable only once the system flushes it.
+     */
+    private void syncDirectory() {
+        try (FileChannel directoryChannel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // Directory can't be synced on this system
+        }
+    }
+
+    private File getProfileFile(String login) {
+        return new File(directory, login + PROFILE_FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,112 @@
+package com.shipsgame;
+
+import java.io.Serializable;
+
+/**
+ * Rules of a single game: size of the board and composition of fleets of both sides. Tiles of the board are identified
+ * by indices {@code indexY * columnsAmount + indexX}, used by {@link com.shipsgame.map.BitBoard} and by everything
+ * storing tiles of the game.
+ */
+public final class Ruleset implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    public static final int MAX_SIDE_LENGTH = 1000;
+    // Rules of a normal game
+    public static final Ruleset DEFAULT = new Ruleset(10, 10, FleetComposition.DEFAULT);
+
+    private final int columnsAmount;
+    private final int rowsAmount;
+    private final FleetComposition fleetComposition;
+
+    /**
+     * @param columnsAmount    width of the board in tiles
+     * @param rowsAmount       height of the board in tiles
+     * @param fleetComposition composition of fleets of both sides
+     * @throws IllegalArgumentException if the board is too small or too big or the fleet can't fit on it
+     */
+    public Ruleset(int columnsAmount, int rowsAmount, FleetComposition fleetComposition) {
+        if (columnsAmount < 1 || columnsAmount > MAX_SIDE_LENGTH || rowsAmount < 1 || rowsAmount > MAX_SIDE_LENGTH) {
+            throw new IllegalArgumentException("Invalid board size: " + columnsAmount + "x" + rowsAmount);
+        }
+        // Fleet keeps indices of ships in bytes
+        if (fleetComposition.getShipsAmount() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many ships: " + fleetComposition.getShipsAmount());
+        }
+        if (fleetComposition.getMaxShipSize() > Math.max(columnsAmount, rowsAmount)) {
+            throw new IllegalArgumentException("Ship of size " + fleetComposition.getMaxShipSize() + " doesn't fit on the board");
+        }
+        // Every ship together with tiles right of it and below it covers 2 * (size + 1) tiles of the board extended
+        // by a column and a row, and these tiles of ships which don't touch are separate
+        long fleetFootprint = 0;
+        for (int shipSize : fleetComposition.getShipSizes()) {
+            fleetFootprint += 2 * (shipSize + 1);
+        }
+        if (fleetFootprint > (long) (columnsAmount + 1) * (rowsAmount + 1)) {
+            throw new IllegalArgumentException("Fleet " + fleetComposition + " doesn't fit on a " + columnsAmount + "x" + rowsAmount + " board");
+        }
+        this.columnsAmount = columnsAmount;
+        this.rowsAmount = rowsAmount;
+        this.fleetComposition = fleetComposition;
+    }
+
+    public int getColumnsAmount() {
+        return columnsAmount;
+    }
+
+    public int getRowsAmount() {
+        return rowsAmount;
+    }
+
+    public int getTilesAmount() {
+        return columnsAmount * rowsAmount;
+    }
+
+    public FleetComposition getFleetComposition() {
+        return fleetComposition;
+    }
+
+    /**
+     * @param indexX horizontal index of tile
+     * @param indexY vertical index of tile
+     * @return index of given tile
+     */
+    public int toIndex(int indexX, int indexY) {
+        return indexY * columnsAmount + indexX;
+    }
+
+    public int toIndexX(int index) {
+        return index % columnsAmount;
+    }
+
+    public int toIndexY(int index) {
+        return index / columnsAmount;
+    }
+
+    /**
+     * @param indexX horizontal index of tile
+     * @param indexY vertical index of tile
+     * @return true if given indices describe tile located on the board
+     */
+    public boolean isOnMap(int indexX, int indexY) {
+        return indexX >= 0 && indexX < columnsAmount && indexY >= 0 && indexY < rowsAmount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Ruleset ruleset = (Ruleset) o;
+        return columnsAmount == ruleset.columnsAmount && rowsAmount == ruleset.rowsAmount
+                && fleetComposition.equals(ruleset.fleetComposition);
+    }
+
+    @Override
+    public int hashCode() {
+        return (columnsAmount * 31 + rowsAmount) * 31 + fleetComposition.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return columnsAmount + "x" + rowsAmount + " " + fleetComposition;
+    }
+}
@@ -0,0 +1,52 @@
+package com.shipsgame;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary format of rulesets, shared by stored profiles, replays and game journals. Layout of an encoded ruleset:
+ * amount of columns and rows (2 bytes each), amount of ships (1 byte) and size of every ship (2 bytes each).
+ */
+public final class RulesetCodec {
+
+    private RulesetCodec() {
+    }
+
+    /**
+     * Write given ruleset to the stream.
+     *
+     * @param dataOut stream to which the ruleset is written
+     * @param ruleset ruleset to be encoded
+     */
+    public static void write(DataOutputStream dataOut, Ruleset ruleset) throws IOException {
+        dataOut.writeShort(ruleset.getColumnsAmount());
+        dataOut.writeShort(ruleset.getRowsAmount());
+        int[] shipSizes = ruleset.getFleetComposition().getShipSizes();
+        dataOut.writeByte(shipSizes.length);
+        for (int shipSize : shipSizes) {
+            dataOut.writeShort(shipSize);
+        }
+    }
+
+    /**
+     * Read a single ruleset from the stream.
+     *
+     * @param dataIn stream containing ruleset written by {@link #write(DataOutputStream, Ruleset)}
+     * @return decoded ruleset
+     * @throws IOException if the stream ends early or doesn't contain a valid ruleset
+     */
+    public static Ruleset read(DataInputStream dataIn) throws IOException {
+        int columnsAmount = dataIn.readUnsignedShort();
+        int rowsAmount = dataIn.readUnsignedShort();
+        int[] shipSizes = new int[dataIn.readUnsignedByte()];
+        for (int i = 0; i < shipSizes.length; i++) {
+            shipSizes[i] = dataIn.readUnsignedShort();
+        }
+        try {
+            return new Ruleset(columnsAmount, rowsAmount, new FleetComposition(shipSizes));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid ruleset: " + e.getMessage());
+        }
+    }
+}
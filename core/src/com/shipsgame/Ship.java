@@ -1,5 +1,6 @@
 package com.shipsgame;
 
+import com.shipsgame.map.BitBoard;
 import com.shipsgame.map.Orientation;
 import com.shipsgame.utilities.Pair;
 
@@ -9,10 +10,10 @@ import java.util.List;
 
 public class Ship implements Serializable {
 
+    private static final long serialVersionUID = -3884103853750328642L;
     private int shipSize;
     private int startX;
     private int startY;
-    private List<Integer> goodShipParts;
     private Orientation orientation;
 
     public Ship(int startX, int startY, int endX, int endY) {
@@ -24,10 +25,6 @@ public class Ship implements Serializable {
         } else {
             orientation = Orientation.VERTICAL;
         }
-        goodShipParts = new ArrayList<>(shipSize);
-        for (int i = 0; i < shipSize; i++) {
-            goodShipParts.add(i);
-        }
     }
 
     @SuppressWarnings("IncompleteCopyConstructor")
@@ -35,8 +32,6 @@ public class Ship implements Serializable {
         this.shipSize = other.shipSize;
         this.startX = other.startX;
         this.startY = other.startY;
-        this.goodShipParts = new ArrayList<>();
-        this.goodShipParts.addAll(other.goodShipParts);
         this.orientation = other.orientation;
     }
 
@@ -50,6 +45,23 @@ public class Ship implements Serializable {
         this(indexX, indexY, indexX, indexY);
     }
 
+    public int getShipSize() {
+        return shipSize;
+    }
+
+    /**
+     * @param shipPartIndex index of the ship part, 0 is the first part of the ship
+     * @param ruleset       ruleset of the board on which the ship is placed
+     * @return index of a map tile on which given ship part is located
+     */
+    public int getTileIndex(int shipPartIndex, Ruleset ruleset) {
+        if (orientation == Orientation.HORIZONTAL) {
+            return ruleset.toIndex(startX + shipPartIndex, startY);
+        } else {
+            return ruleset.toIndex(startX, startY + shipPartIndex);
+        }
+    }
+
     /**
      * Calculate all tile indices from which the ship is built.
      *
@@ -67,6 +79,17 @@ public class Ship implements Serializable {
         return shipTileIndices;
     }
 
+    /**
+     * Add all tiles from which the ship is built to the bitBoard.
+     *
+     * @param bitBoard set of tiles to add ship tiles to
+     */
+    public void markTiles(BitBoard bitBoard) {
+        for (int i = 0; i < shipSize; i++) {
+            bitBoard.set(getTileIndex(i, bitBoard.getRuleset()));
+        }
+    }
+
     /**
      * Check if tile with given indices belongs to this ship.
      *
@@ -84,35 +107,4 @@ public class Ship implements Serializable {
                     && tileIndices.getIndexY() < this.startY + this.shipSize;
         }
     }
-
-    /**
-     * Damages ship by destroying its goodShipPart described by shipPartIndices.
-     *
-     * @param shipPartIndices indices of tile to damage
-     * @return true if ship was damaged or false otherwise
-     */
-    public boolean damageShipPart(Pair shipPartIndices) {
-        if (this.containsTile(shipPartIndices)) {
-            int shipPartIndexInShip;
-            if (this.orientation == Orientation.HORIZONTAL) {
-                shipPartIndexInShip = shipPartIndices.getIndexX() - this.startX;
-                goodShipParts.remove(new Integer(shipPartIndexInShip));
-            } else {
-                shipPartIndexInShip = shipPartIndices.getIndexY() - this.startY;
-            }
-            goodShipParts.remove(new Integer(shipPartIndexInShip));
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    /**
-     * Check if all goodShipParts of this ship were destroyed.
-     *
-     * @return true if ship has no more goodShipParts
-     */
-    public boolean isShipFullyDestroyed() {
-        return this.goodShipParts.size() <= 0;
-    }
 }
@@ -0,0 +1,271 @@
+package com.shipsgame.authorization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hashed index of the users file, mapped into memory, used to find passwords of users without reading the whole
+ * users file. Every line of the users file contains login and hashed password of a single user separated with
+ * a space. The users file is the source of truth: index is an open addressing hash table of login hashes and offsets
+ * of lines in the users file, and it remembers how much of the users file it covers. Lines not covered yet, for example
+ * appended while the index was lost or before an interrupted update of the index, are indexed when the index is opened.
+ * If more lines have the same login, the first one is used.
+ */
+public class CredentialIndex implements Closeable {
+
+    private static final int MAGIC = 0x53484958;
+    private static final int VERSION = 1;
+    // Magic (4 bytes), version (4 bytes), capacity (4 bytes), amount of users (4 bytes), covered length (8 bytes)
+    private static final int HEADER_SIZE = 24;
+    private static final int MAGIC_POSITION = 0;
+    private static final int VERSION_POSITION = 4;
+    private static final int CAPACITY_POSITION = 8;
+    private static final int USERS_AMOUNT_POSITION = 12;
+    private static final int COVERED_LENGTH_POSITION = 16;
+    // Login hash (8 bytes) and offset of the user line (8 bytes), hash equal to 0 marks an empty slot
+    private static final int SLOT_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LINE_READ_BUFFER_SIZE = 128;
+
+    private final RandomAccessFile usersFile;
+    private final RandomAccessFile indexFile;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int usersAmount;
+
+    /**
+     * Open the index, creating it or bringing it up to date with the users file if necessary.
+     *
+     * @param usersPathName path of the users file
+     * @param indexPathName path of the index file
+     */
+    public CredentialIndex(String usersPathName, String indexPathName) throws IOException {
+        this.usersFile = new RandomAccessFile(usersPathName, "rw");
+        this.indexFile = new RandomAccessFile(indexPathName, "rw");
+        if (!isIndexValid()) {
+            createIndex(INITIAL_CAPACITY);
+        }
+        indexNewLines();
+    }
+
+    /**
+     * @param login login of the user
+     * @return hashed password of the user or null if no user with the login exists
+     */
+    public synchronized String findPassword(String login) throws IOException {
+        long loginHash = hash(login);
+        int mask = capacity - 1;
+        for (int slot = (int) loginHash & mask; ; slot = (slot + 1) & mask) {
+            long slotHash = index.getLong(slotPosition(slot));
+            if (slotHash == 0) {
+                return null;
+            }
+            if (slotHash == loginHash) {
+                String[] tokens = readLine(index.getLong(slotPosition(slot) + Long.BYTES)).split(" ");
+                if (tokens[0].equals(login)) {
+                    return tokens.length > 1 ? tokens[1] : "";
+                }
+            }
+        }
+    }
+
+    /**
+     * Append new user to the users file and the index.
+     *
+     * @param login          login of the new user
+     * @param hashedPassword hashed password of the new user
+     * @return true if the user was added or false if user with the login already exists
+     */
+    public synchronized boolean addUser(String login, String hashedPassword) throws IOException {
+        indexNewLines();
+        if (findPassword(login) != null) {
+            return false;
+        }
+        long lineOffset = usersFile.length();
+        StringBuilder line = new StringBuilder();
+        if (lineOffset > 0) {
+            usersFile.seek(lineOffset - 1);
+            if (usersFile.read() != '\n') {
+                // Last line of the file doesn't end with line separator
+                line.append(System.lineSeparator());
+                lineOffset += System.lineSeparator().length();
+            }
+        }
+        line.append(login).append(' ').append(hashedPassword).append(System.lineSeparator());
+        usersFile.seek(usersFile.length());
+        usersFile.write(line.toString().getBytes(StandardCharsets.UTF_8));
+
+        insert(hash(login), lineOffset);
+        setCoveredLength(usersFile.length());
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        index.force();
+        indexFile.close();
+        usersFile.close();
+    }
+
+    private boolean isIndexValid() throws IOException {
+        if (indexFile.length() < HEADER_SIZE) {
+            return false;
+        }
+        mapIndex(indexFile.length());
+        this.capacity = index.getInt(CAPACITY_POSITION);
+        this.usersAmount = index.getInt(USERS_AMOUNT_POSITION);
+        return index.getInt(MAGIC_POSITION) == MAGIC && index.getInt(VERSION_POSITION) == VERSION
+                && capacity > 0 && Integer.bitCount(capacity) == 1
+                && indexFile.length() == HEADER_SIZE + (long) capacity * SLOT_SIZE
+                && usersAmount >= 0 && usersAmount < capacity
+                // Users file can't shrink, if it did, it was edited and the whole index has to be rebuilt
+                && getCoveredLength() <= usersFile.length();
+    }
+
+    private void createIndex(int capacity) throws IOException {
+        indexFile.setLength(HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        mapIndex(indexFile.length());
+        for (int i = 0; i < HEADER_SIZE + capacity * SLOT_SIZE; i += Long.BYTES) {
+            index.putLong(i, 0);
+        }
+        index.putInt(MAGIC_POSITION, MAGIC);
+        index.putInt(VERSION_POSITION, VERSION);
+        index.putInt(CAPACITY_POSITION, capacity);
+        this.capacity = capacity;
+        this.usersAmount = 0;
+    }
+
+    private void mapIndex(long size) throws IOException {
+        this.index = indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Index all lines of the users file which aren't covered by the index yet.
+     */
+    private void indexNewLines() throws IOException {
+        long coveredLength = getCoveredLength();
+        long usersFileLength = usersFile.length();
+        if (coveredLength == usersFileLength) {
+            return;
+        }
+        byte[] newBytes = new byte[(int) (usersFileLength - coveredLength)];
+        usersFile.seek(coveredLength);
+        usersFile.readFully(newBytes);
+
+        int lineStart = 0;
+        for (int i = 0; i <= newBytes.length; i++) {
+            // Last line doesn't have to end with line separator
+            if (i < newBytes.length && newBytes[i] != '\n') {
+                continue;
+            }
+            String line = decodeLine(newBytes, lineStart, i);
+            if (!line.isEmpty()) {
+                String login = line.split(" ")[0];
+                if (findPassword(login) == null) {
+                    insert(hash(login), coveredLength + lineStart);
+                }
+            }
+            lineStart = i + 1;
+        }
+        setCoveredLength(usersFileLength);
+    }
+
+    private void insert(long loginHash, long lineOffset) throws IOException {
+        if ((usersAmount + 1) * 2 > capacity) {
+            grow();
+        }
+        int mask = capacity - 1;
+        int slot = (int) loginHash & mask;
+        while (index.getLong(slotPosition(slot)) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        // Offset is written first, so the slot becomes used only when it is complete
+        index.putLong(slotPosition(slot) + Long.BYTES, lineOffset);
+        index.putLong(slotPosition(slot), loginHash);
+        index.putInt(USERS_AMOUNT_POSITION, ++usersAmount);
+    }
+
+    /**
+     * Double capacity of the index and insert all users again.
+     */
+    private void grow() throws IOException {
+        long[] loginHashes = new long[usersAmount];
+        long[] lineOffsets = new long[usersAmount];
+        int usersCopied = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long slotHash = index.getLong(slotPosition(slot));
+            if (slotHash != 0) {
+                loginHashes[usersCopied] = slotHash;
+                lineOffsets[usersCopied++] = index.getLong(slotPosition(slot) + Long.BYTES);
+            }
+        }
+        long coveredLength = getCoveredLength();
+
+        createIndex(capacity * 2);
+        for (int i = 0; i < usersCopied; i++) {
+            insert(loginHashes[i], lineOffsets[i]);
+        }
+        setCoveredLength(coveredLength);
+    }
+
+    /**
+     * @param lineOffset offset of the line beginning in the users file
+     * @return line of the users file without line separator
+     */
+    private String readLine(long lineOffset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        byte[] buffer = new byte[LINE_READ_BUFFER_SIZE];
+        usersFile.seek(lineOffset);
+        int bytesRead;
+        while ((bytesRead = usersFile.read(buffer)) > 0) {
+            for (int i = 0; i < bytesRead; i++) {
+                if (buffer[i] == '\n') {
+                    line.write(buffer, 0, i);
+                    byte[] lineBytes = line.toByteArray();
+                    return decodeLine(lineBytes, 0, lineBytes.length);
+                }
+            }
+            line.write(buffer, 0, bytesRead);
+        }
+        byte[] lineBytes = line.toByteArray();
+        return decodeLine(lineBytes, 0, lineBytes.length);
+    }
+
+    private static String decodeLine(byte[] bytes, int start, int end) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private long getCoveredLength() {
+        return index.getLong(COVERED_LENGTH_POSITION);
+    }
+
+    private void setCoveredLength(long coveredLength) {
+        index.putLong(COVERED_LENGTH_POSITION, coveredLength);
+    }
+
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * @return 64 bit FNV-1a hash of the login, never equal to 0
+     */
+    private static long hash(String login) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte loginByte : login.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= loginByte & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        // Spread high bits to low bits, which choose the slot
+        hash ^= hash >>> 32;
+        return hash != 0 ? hash : 1;
+    }
+}
@@ -0,0 +1,32 @@
+package com.shipsgame.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Choosing and attacking a single tile by the ai.
+ */
+@Name("com.shipsgame.AiMove")
+@Label("Ai Move")
+@Category({"Ships Game", "Ai"})
+@Description("Ai choosing a tile and attacking it")
+@StackTrace(false)
+public class AiMoveEvent extends Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Candidate Tiles")
+    @Description("Amount of tiles the ai could choose from")
+    public int candidateTilesAmount;
+
+    @Label("Tile Index")
+    public int tileIndex;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,24 @@
+package com.shipsgame.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Encoding a player profile into a snapshot, on the thread saving it.
+ */
+@Name("com.shipsgame.ProfileSave")
+@Label("Profile Save")
+@Category({"Ships Game", "Persistence"})
+@Description("Encoding a player profile to be written in the background")
+@StackTrace(false)
+public class ProfileSaveEvent extends Event {
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+}
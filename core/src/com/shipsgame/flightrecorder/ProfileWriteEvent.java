@@ -0,0 +1,28 @@
+package com.shipsgame.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Writing a profile snapshot to its file, on the background thread.
+ */
+@Name("com.shipsgame.ProfileWrite")
+@Label("Profile Write")
+@Category({"Ships Game", "Persistence"})
+@Description("Writing, syncing and moving a profile snapshot into place")
+@StackTrace(false)
+public class ProfileWriteEvent extends Event {
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+
+    @Label("Written")
+    @Description("False if writing failed and the previous profile file was left")
+    public boolean written;
+}
@@ -0,0 +1,25 @@
+package com.shipsgame.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Appending a replay of a finished game to the replay store.
+ */
+@Name("com.shipsgame.ReplayAppend")
+@Label("Replay Append")
+@Category({"Ships Game", "Persistence"})
+@StackTrace(false)
+public class ReplayAppendEvent extends Event {
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+
+    @Label("Actions")
+    public int actionsAmount;
+}
@@ -0,0 +1,25 @@
+package com.shipsgame.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Changing the active screen of the game, including hiding the previous screen and showing the next one.
+ */
+@Name("com.shipsgame.ScreenTransition")
+@Label("Screen Transition")
+@Category({"Ships Game", "Screens"})
+@Description("Hiding the previous screen and showing the next one")
+@StackTrace(false)
+public class ScreenTransitionEvent extends Event {
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+}
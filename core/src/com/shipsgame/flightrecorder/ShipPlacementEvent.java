@@ -0,0 +1,36 @@
+package com.shipsgame.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Generating random positions of ships, by the ai or for the player.
+ */
+@Name("com.shipsgame.ShipPlacement")
+@Label("Ship Placement")
+@Category({"Ships Game", "Ai"})
+@Description("Generating random positions of ships")
+@StackTrace(false)
+public class ShipPlacementEvent extends Event {
+
+    @Label("Columns")
+    public int columnsAmount;
+
+    @Label("Rows")
+    public int rowsAmount;
+
+    @Label("Ships")
+    public int shipsAmount;
+
+    @Label("Attempts")
+    @Description("Positions tried for all ships, more than ships when positions were drawn again or ships were moved")
+    public int attemptsAmount;
+
+    @Label("Placed")
+    @Description("False if ships don't fit on the board")
+    public boolean placed;
+}
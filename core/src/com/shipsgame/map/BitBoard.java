@@ -0,0 +1,344 @@
+package com.shipsgame.map;
+
+import com.shipsgame.Ruleset;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Set of board tiles, one bit per tile, with tiles identified by indices of the {@link Ruleset} of the board.
+ * Bits are kept in chunks of CHUNK_TILES consecutive tiles. A chunk is allocated when a tile of it is added for
+ * the first time, so sets of a few tiles on big boards take little memory. Chunks to which tiles were added since
+ * the set was cleared are listed, so clearing, copying and combining sets costs time proportional to the amount of
+ * such chunks and not to the size of the board. Boards with up to CHUNK_TILES tiles, like the default one, are a single
+ * chunk.
+ */
+public class BitBoard implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int WORD_SHIFT = 6;
+    private static final int CHUNK_WORDS_SHIFT = 6;
+    private static final int CHUNK_SHIFT = WORD_SHIFT + CHUNK_WORDS_SHIFT;
+    private static final int CHUNK_TILES = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_WORDS = 1 << CHUNK_WORDS_SHIFT;
+
+    private final Ruleset ruleset;
+    private final int tilesAmount;
+    // Chunks of bits, null until a tile of the chunk is added
+    private final long[][] chunks;
+    // Indices of chunks to which tiles were added since this set was cleared, other chunks contain no tiles
+    private final int[] usedChunks;
+    private final boolean[] chunkUsed;
+    private int usedChunksAmount;
+
+    /**
+     * Create an empty set of tiles of a board described by given ruleset.
+     */
+    public BitBoard(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.tilesAmount = ruleset.getTilesAmount();
+        int chunksAmount = (tilesAmount + CHUNK_TILES - 1) >>> CHUNK_SHIFT;
+        this.chunks = new long[chunksAmount][];
+        this.usedChunks = new int[chunksAmount];
+        this.chunkUsed = new boolean[chunksAmount];
+        this.usedChunksAmount = 0;
+    }
+
+    public BitBoard(BitBoard other) {
+        this(other.ruleset);
+        copyFrom(other);
+    }
+
+    /**
+     * @return ruleset describing the board of this set
+     */
+    public Ruleset getRuleset() {
+        return ruleset;
+    }
+
+    public boolean get(int index) {
+        long[] chunk = chunks[index >>> CHUNK_SHIFT];
+        return chunk != null && (chunk[(index >>> WORD_SHIFT) & (CHUNK_WORDS - 1)] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        useChunk(index >>> CHUNK_SHIFT)[(index >>> WORD_SHIFT) & (CHUNK_WORDS - 1)] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        long[] chunk = chunks[index >>> CHUNK_SHIFT];
+        if (chunk != null) {
+            chunk[(index >>> WORD_SHIFT) & (CHUNK_WORDS - 1)] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Add given tile and all 8 tiles surrounding it to this set. Every row of the neighbourhood is added with
+     * word masks.
+     */
+    public void setWithNeighbourhood(int index) {
+        int indexX = ruleset.toIndexX(index);
+        int indexY = ruleset.toIndexY(index);
+        int fromX = Math.max(indexX - 1, 0);
+        int toX = Math.min(indexX + 1, ruleset.getColumnsAmount() - 1);
+        for (int i = Math.max(indexY - 1, 0); i <= Math.min(indexY + 1, ruleset.getRowsAmount() - 1); i++) {
+            setRange(ruleset.toIndex(fromX, i), ruleset.toIndex(toX, i) + 1);
+        }
+    }
+
+    /**
+     * Remove all tiles from this set. Allocated chunks are kept, so adding tiles again doesn't allocate.
+     */
+    public void clear() {
+        for (int i = 0; i < usedChunksAmount; i++) {
+            Arrays.fill(chunks[usedChunks[i]], 0);
+            chunkUsed[usedChunks[i]] = false;
+        }
+        usedChunksAmount = 0;
+    }
+
+    /**
+     * Add all tiles of the board to this set.
+     */
+    public void fill() {
+        for (int i = 0; i < chunks.length; i++) {
+            Arrays.fill(useChunk(i), -1L);
+        }
+        // Bits after the last tile don't represent tiles
+        int lastWordTiles = tilesAmount & (Long.SIZE - 1);
+        if (lastWordTiles != 0) {
+            long[] lastChunk = chunks[chunks.length - 1];
+            lastChunk[lastChunk.length - 1] = (1L << lastWordTiles) - 1;
+        }
+    }
+
+    /**
+     * Make this set contain the same tiles as the other one.
+     */
+    public void copyFrom(BitBoard other) {
+        clear();
+        for (int i = 0; i < other.usedChunksAmount; i++) {
+            int chunkIndex = other.usedChunks[i];
+            long[] otherChunk = other.chunks[chunkIndex];
+            System.arraycopy(otherChunk, 0, useChunk(chunkIndex), 0, otherChunk.length);
+        }
+    }
+
+    public void or(BitBoard other) {
+        for (int i = 0; i < other.usedChunksAmount; i++) {
+            int chunkIndex = other.usedChunks[i];
+            long[] otherChunk = other.chunks[chunkIndex];
+            long[] chunk = useChunk(chunkIndex);
+            for (int j = 0; j < chunk.length; j++) {
+                chunk[j] |= otherChunk[j];
+            }
+        }
+    }
+
+    /**
+     * Add tiles which are contained in exactly one of given sets.
+     */
+    public void orDifference(BitBoard first, BitBoard second) {
+        for (int i = 0; i < first.usedChunksAmount; i++) {
+            int chunkIndex = first.usedChunks[i];
+            long[] firstChunk = first.chunks[chunkIndex];
+            long[] chunk = useChunk(chunkIndex);
+            if (second.chunkUsed[chunkIndex]) {
+                long[] secondChunk = second.chunks[chunkIndex];
+                for (int j = 0; j < chunk.length; j++) {
+                    chunk[j] |= firstChunk[j] ^ secondChunk[j];
+                }
+            } else {
+                for (int j = 0; j < chunk.length; j++) {
+                    chunk[j] |= firstChunk[j];
+                }
+            }
+        }
+        for (int i = 0; i < second.usedChunksAmount; i++) {
+            int chunkIndex = second.usedChunks[i];
+            if (!first.chunkUsed[chunkIndex]) {
+                long[] secondChunk = second.chunks[chunkIndex];
+                long[] chunk = useChunk(chunkIndex);
+                for (int j = 0; j < chunk.length; j++) {
+                    chunk[j] |= secondChunk[j];
+                }
+            }
+        }
+    }
+
+    public void andNot(BitBoard other) {
+        for (int i = 0; i < usedChunksAmount; i++) {
+            int chunkIndex = usedChunks[i];
+            if (other.chunkUsed[chunkIndex]) {
+                long[] otherChunk = other.chunks[chunkIndex];
+                long[] chunk = chunks[chunkIndex];
+                for (int j = 0; j < chunk.length; j++) {
+                    chunk[j] &= ~otherChunk[j];
+                }
+            }
+        }
+    }
+
+    public boolean intersects(BitBoard other) {
+        for (int i = 0; i < usedChunksAmount; i++) {
+            int chunkIndex = usedChunks[i];
+            if (other.chunkUsed[chunkIndex]) {
+                long[] otherChunk = other.chunks[chunkIndex];
+                long[] chunk = chunks[chunkIndex];
+                for (int j = 0; j < chunk.length; j++) {
+                    if ((chunk[j] & otherChunk[j]) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < usedChunksAmount; i++) {
+            for (long word : chunks[usedChunks[i]]) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return amount of tiles in this set
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < usedChunksAmount; i++) {
+            for (long word : chunks[usedChunks[i]]) {
+                cardinality += Long.bitCount(word);
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * @param n number of the tile to find, counting from 0
+     * @return index of n-th tile in this set or -1 if set contains less tiles
+     */
+    public int selectTile(int n) {
+        for (int i = 0; i < chunks.length; i++) {
+            if (!chunkUsed[i]) {
+                continue;
+            }
+            long[] chunk = chunks[i];
+            for (int j = 0; j < chunk.length; j++) {
+                int wordCount = Long.bitCount(chunk[j]);
+                if (n < wordCount) {
+                    return (i << CHUNK_SHIFT) + (j << WORD_SHIFT) + selectBit(chunk[j], n);
+                }
+                n -= wordCount;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param fromIndex index of the first tile to check
+     * @return index of the first tile in this set with index not lower than fromIndex or -1 if there is none
+     */
+    public int nextTile(int fromIndex) {
+        if (fromIndex >= tilesAmount) {
+            return -1;
+        }
+        int chunkIndex = fromIndex >>> CHUNK_SHIFT;
+        int wordIndex = (fromIndex >>> WORD_SHIFT) & (CHUNK_WORDS - 1);
+        long word = chunkUsed[chunkIndex] ? chunks[chunkIndex][wordIndex] & (-1L << fromIndex) : 0;
+        while (word == 0) {
+            wordIndex++;
+            if (!chunkUsed[chunkIndex] || wordIndex == chunks[chunkIndex].length) {
+                // Chunks without tiles are skipped whole
+                do {
+                    chunkIndex++;
+                } while (chunkIndex < chunks.length && !chunkUsed[chunkIndex]);
+                if (chunkIndex == chunks.length) {
+                    return -1;
+                }
+                wordIndex = 0;
+            }
+            word = chunks[chunkIndex][wordIndex];
+        }
+        return (chunkIndex << CHUNK_SHIFT) + (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static int selectBit(long word, int n) {
+        for (int i = 0; i < n; i++) {
+            // Remove lowest set bit
+            word &= word - 1;
+        }
+        return Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @param index index of the tile being checked
+     * @return true if any of 8 tiles surrounding given tile is in this set
+     */
+    public boolean intersectsNeighbourhood(int index) {
+        int indexX = ruleset.toIndexX(index);
+        int indexY = ruleset.toIndexY(index);
+        int fromIndex = ruleset.toIndex(Math.max(indexX - 1, 0), indexY);
+        int toIndex = ruleset.toIndex(Math.min(indexX + 1, ruleset.getColumnsAmount() - 1), indexY) + 1;
+        int rowOffset = ruleset.getColumnsAmount();
+        return intersectsRange(fromIndex, index) || intersectsRange(index + 1, toIndex)
+                || indexY > 0 && intersectsRange(fromIndex - rowOffset, toIndex - rowOffset)
+                || indexY < ruleset.getRowsAmount() - 1 && intersectsRange(fromIndex + rowOffset, toIndex + rowOffset);
+    }
+
+    /**
+     * Add tiles with indices from fromIndex inclusive to toIndex exclusive, a word at a time.
+     */
+    private void setRange(int fromIndex, int toIndex) {
+        while (fromIndex < toIndex) {
+            int wordEnd = Math.min(toIndex, (fromIndex | (Long.SIZE - 1)) + 1);
+            useChunk(fromIndex >>> CHUNK_SHIFT)[(fromIndex >>> WORD_SHIFT) & (CHUNK_WORDS - 1)] |= wordMask(fromIndex, wordEnd);
+            fromIndex = wordEnd;
+        }
+    }
+
+    /**
+     * @return true if any tile with index from fromIndex inclusive to toIndex exclusive is in this set
+     */
+    private boolean intersectsRange(int fromIndex, int toIndex) {
+        while (fromIndex < toIndex) {
+            int wordEnd = Math.min(toIndex, (fromIndex | (Long.SIZE - 1)) + 1);
+            long[] chunk = chunks[fromIndex >>> CHUNK_SHIFT];
+            if (chunk != null && (chunk[(fromIndex >>> WORD_SHIFT) & (CHUNK_WORDS - 1)] & wordMask(fromIndex, wordEnd)) != 0) {
+                return true;
+            }
+            fromIndex = wordEnd;
+        }
+        return false;
+    }
+
+    /**
+     * @return mask of bits of tiles from fromIndex inclusive to toIndex exclusive, both in the same word
+     */
+    private static long wordMask(int fromIndex, int toIndex) {
+        return (-1L >>> (Long.SIZE - (toIndex - fromIndex))) << fromIndex;
+    }
+
+    /**
+     * Mark chunk as possibly containing tiles, allocating it if needed.
+     *
+     * @return bits of the chunk
+     */
+    private long[] useChunk(int chunkIndex) {
+        if (!chunkUsed[chunkIndex]) {
+            chunkUsed[chunkIndex] = true;
+            usedChunks[usedChunksAmount++] = chunkIndex;
+            if (chunks[chunkIndex] == null) {
+                // The last chunk holds only the remaining tiles
+                int wordsAmount = (tilesAmount + Long.SIZE - 1) >>> WORD_SHIFT;
+                chunks[chunkIndex] = new long[Math.min(CHUNK_WORDS, wordsAmount - (chunkIndex << CHUNK_WORDS_SHIFT))];
+            }
+        }
+        return chunks[chunkIndex];
+    }
+}
@@ -0,0 +1,253 @@
+package com.shipsgame.map;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of all map tiles stored as a set of bit boards, one for each tile type and symbol.
+ * Every change of a tile made through methods of the board is published to its {@link TileChangeListener}s, once per
+ * changed tile. Sets returned by getters are only read, changes made to them directly aren't published.
+ */
+public class Board implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Ruleset ruleset;
+    private BitBoard shipTiles;
+    private BitBoard templateShipBeginningTiles;
+    private BitBoard templateShipEndTiles;
+    // Symbols of player attacks on the ai
+    private BitBoard playerHitTiles;
+    private BitBoard playerMissTiles;
+    private BitBoard playerDestroyedTiles;
+    // Symbols of ai attacks on the player
+    private BitBoard aiHitTiles;
+    private BitBoard aiMissTiles;
+    // Subscribers notified about changed tiles, null until the first one is added
+    private transient List<TileChangeListener> tileChangeListeners;
+
+    /**
+     * @param ruleset rules of the game played on this board
+     */
+    public Board(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.shipTiles = new BitBoard(ruleset);
+        this.templateShipBeginningTiles = new BitBoard(ruleset);
+        this.templateShipEndTiles = new BitBoard(ruleset);
+        this.playerHitTiles = new BitBoard(ruleset);
+        this.playerMissTiles = new BitBoard(ruleset);
+        this.playerDestroyedTiles = new BitBoard(ruleset);
+        this.aiHitTiles = new BitBoard(ruleset);
+        this.aiMissTiles = new BitBoard(ruleset);
+    }
+
+    public Ruleset getRuleset() {
+        return ruleset;
+    }
+
+    public BitBoard getShipTiles() {
+        return shipTiles;
+    }
+
+    public void addTileChangeListener(TileChangeListener tileChangeListener) {
+        if (tileChangeListeners == null) {
+            tileChangeListeners = new ArrayList<>();
+        }
+        tileChangeListeners.add(tileChangeListener);
+    }
+
+    public void removeTileChangeListener(TileChangeListener tileChangeListener) {
+        if (tileChangeListeners != null) {
+            tileChangeListeners.remove(tileChangeListener);
+        }
+    }
+
+    public TileType getTileType(int index) {
+        if (shipTiles.get(index)) {
+            return TileType.SHIP;
+        } else if (templateShipBeginningTiles.get(index)) {
+            return TileType.TEMPLATE_SHIP_BEGINNING;
+        } else if (templateShipEndTiles.get(index)) {
+            return TileType.TEMPLATE_SHIP_END;
+        }
+        return TileType.EMPTY;
+    }
+
+    public void setTileType(int index, TileType tileType) {
+        if (getTileType(index) == tileType) {
+            return;
+        }
+        shipTiles.clear(index);
+        templateShipBeginningTiles.clear(index);
+        templateShipEndTiles.clear(index);
+        if (tileType == TileType.SHIP) {
+            shipTiles.set(index);
+        } else if (tileType == TileType.TEMPLATE_SHIP_BEGINNING) {
+            templateShipBeginningTiles.set(index);
+        } else if (tileType == TileType.TEMPLATE_SHIP_END) {
+            templateShipEndTiles.set(index);
+        }
+        publishTileChange(index);
+    }
+
+    /**
+     * Change all tiles of the ship to TileType SHIP.
+     */
+    public void markShip(Ship ship) {
+        for (int i = 0; i < ship.getShipSize(); i++) {
+            setTileType(ship.getTileIndex(i, ruleset), TileType.SHIP);
+        }
+    }
+
+    public Symbol getPlayerInfoSymbol(int index) {
+        return getSymbol(index, playerHitTiles, playerMissTiles, playerDestroyedTiles);
+    }
+
+    public void setPlayerInfoSymbol(int index, Symbol symbol) {
+        if (getPlayerInfoSymbol(index) == symbol) {
+            return;
+        }
+        setSymbol(index, symbol, playerHitTiles, playerMissTiles, playerDestroyedTiles);
+        publishTileChange(index);
+    }
+
+    public Symbol getAiInfoSymbol(int index) {
+        return getSymbol(index, aiHitTiles, aiMissTiles, null);
+    }
+
+    public void setAiInfoSymbol(int index, Symbol symbol) {
+        if (getAiInfoSymbol(index) == symbol) {
+            return;
+        }
+        setSymbol(index, symbol, aiHitTiles, aiMissTiles, null);
+        publishTileChange(index);
+    }
+
+    /**
+     * Remove all FAILED_HIT symbols of ai attacks.
+     */
+    public void clearAiMissSymbols() {
+        clearTiles(aiMissTiles);
+    }
+
+    /**
+     * Transform all tiles to TileType EMPTY.
+     */
+    public void clearTileTypes() {
+        clearTiles(shipTiles);
+        clearTemplates();
+    }
+
+    /**
+     * Transform all template tiles (TileType.TEMPLATE_SHIP_BEGINNING or TileType.TEMPLATE_SHIP_END) to empty tiles.
+     */
+    public void clearTemplates() {
+        clearTiles(templateShipBeginningTiles);
+        clearTiles(templateShipEndTiles);
+    }
+
+    /**
+     * Make this board describe the same tiles as the other one, played with the same ruleset.
+     */
+    public void copyFrom(Board other) {
+        BitBoard changedTiles = null;
+        if (tileChangeListeners != null && !tileChangeListeners.isEmpty()) {
+            changedTiles = new BitBoard(ruleset);
+            collectChangedTiles(other, changedTiles);
+        }
+        shipTiles.copyFrom(other.shipTiles);
+        templateShipBeginningTiles.copyFrom(other.templateShipBeginningTiles);
+        templateShipEndTiles.copyFrom(other.templateShipEndTiles);
+        playerHitTiles.copyFrom(other.playerHitTiles);
+        playerMissTiles.copyFrom(other.playerMissTiles);
+        playerDestroyedTiles.copyFrom(other.playerDestroyedTiles);
+        aiHitTiles.copyFrom(other.aiHitTiles);
+        aiMissTiles.copyFrom(other.aiMissTiles);
+        if (changedTiles != null) {
+            for (int i = changedTiles.nextTile(0); i >= 0; i = changedTiles.nextTile(i + 1)) {
+                publishTileChange(i);
+            }
+        }
+    }
+
+    /**
+     * Add tiles whose tile type or any symbol differs between this and the other board to given set. Both boards
+     * and the set must use the same ruleset.
+     *
+     * @param other        board compared with this one
+     * @param changedTiles set to which differing tiles are added
+     */
+    public void collectChangedTiles(Board other, BitBoard changedTiles) {
+        changedTiles.orDifference(shipTiles, other.shipTiles);
+        changedTiles.orDifference(templateShipBeginningTiles, other.templateShipBeginningTiles);
+        changedTiles.orDifference(templateShipEndTiles, other.templateShipEndTiles);
+        changedTiles.orDifference(playerHitTiles, other.playerHitTiles);
+        changedTiles.orDifference(playerMissTiles, other.playerMissTiles);
+        changedTiles.orDifference(playerDestroyedTiles, other.playerDestroyedTiles);
+        changedTiles.orDifference(aiHitTiles, other.aiHitTiles);
+        changedTiles.orDifference(aiMissTiles, other.aiMissTiles);
+    }
+
+    /**
+     * Transform all tiles to TileType EMPTY and remove all symbols.
+     */
+    public void clear() {
+        clearTileTypes();
+        clearTiles(playerHitTiles);
+        clearTiles(playerMissTiles);
+        clearTiles(playerDestroyedTiles);
+        clearTiles(aiHitTiles);
+        clearTiles(aiMissTiles);
+    }
+
+    /**
+     * Remove all tiles from the set, publishing change of every removed tile.
+     */
+    private void clearTiles(BitBoard tiles) {
+        if (tileChangeListeners != null && !tileChangeListeners.isEmpty()) {
+            for (int i = tiles.nextTile(0); i >= 0; i = tiles.nextTile(i + 1)) {
+                tiles.clear(i);
+                publishTileChange(i);
+            }
+        }
+        tiles.clear();
+    }
+
+    private void publishTileChange(int index) {
+        if (tileChangeListeners != null) {
+            for (TileChangeListener tileChangeListener : tileChangeListeners) {
+                tileChangeListener.tileChanged(index);
+            }
+        }
+    }
+
+    private static Symbol getSymbol(int index, BitBoard hitTiles, BitBoard missTiles, BitBoard destroyedTiles) {
+        if (hitTiles.get(index)) {
+            return Symbol.SUCCESSFUL_HIT;
+        } else if (missTiles.get(index)) {
+            return Symbol.FAILED_HIT;
+        } else if (destroyedTiles != null && destroyedTiles.get(index)) {
+            return Symbol.DESTROYED;
+        }
+        return Symbol.EMPTY;
+    }
+
+    private static void setSymbol(int index, Symbol symbol, BitBoard hitTiles, BitBoard missTiles, BitBoard destroyedTiles) {
+        hitTiles.clear(index);
+        missTiles.clear(index);
+        if (destroyedTiles != null) {
+            destroyedTiles.clear(index);
+        }
+        if (symbol == Symbol.SUCCESSFUL_HIT) {
+            hitTiles.set(index);
+        } else if (symbol == Symbol.FAILED_HIT) {
+            missTiles.set(index);
+        } else if (symbol == Symbol.DESTROYED && destroyedTiles != null) {
+            destroyedTiles.set(index);
+        }
+    }
+}
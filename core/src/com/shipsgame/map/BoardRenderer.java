@@ -0,0 +1,270 @@
+package com.shipsgame.map;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.shipsgame.Ruleset;
+import com.shipsgame.metrics.LatencyMetric;
+import com.shipsgame.metrics.LatencyMetrics;
+
+/**
+ * Draws boards of both the game and the replayer. The board is kept drawn in a frame buffer and only tiles which
+ * changed since the previous frame are drawn again, so a frame in which nothing changed costs a single textured quad.
+ * Changed tiles are collected as {@link TileChangeListener} of the drawn board, so finding them doesn't depend on
+ * the size of the board. Whole board is drawn when another board starts being drawn.
+ * Tiles are drawn with a sprite batch using white sprites tinted with colors of the palette. Sprites are baked into
+ * a single texture atlas when the renderer is created and never exceed bounds of their tile, so changed tiles are
+ * drawn in one draw call and drawing a tile never damages its neighbours.
+ * The frame buffer is created for the ruleset of the drawn board and created again when a board of another ruleset
+ * is drawn. On big boards tiles take less than TILE_PIXELS pixels of the frame buffer, so it stays within
+ * MAX_FRAME_BUFFER_SIZE pixels.
+ */
+public class BoardRenderer implements Disposable, TileChangeListener {
+
+    // Size of a single tile in the frame buffer and in the atlas, in pixels
+    private static final int TILE_PIXELS = 64;
+    private static final int MAX_FRAME_BUFFER_SIZE = 2048;
+    private static final int ATLAS_PAGE_SIZE = 256;
+    private static final int ATLAS_PADDING = 2;
+    private static final String FILL_SPRITE = "fill";
+    private static final String BORDER_SPRITE = "border";
+    private static final String CROSS_SPRITE = "cross";
+    private static final String BIG_CIRCLE_SPRITE = "bigCircle";
+    private static final String SMALL_CIRCLE_SPRITE = "smallCircle";
+    // Palette
+    private static final Color EMPTY_TILE_COLOR = new Color(0.004f, 0.569f, 0.784f, 1);
+    private static final Color SHIP_TILE_COLOR = Color.DARK_GRAY;
+    private static final Color TEMPLATE_SHIP_BEGINNING_TILE_COLOR = Color.YELLOW;
+    private static final Color TEMPLATE_SHIP_END_TILE_COLOR = Color.GREEN;
+    private static final Color TILE_BORDER_COLOR = new Color(0, 0, 0, 0.1f);
+    private static final Color AI_HIT_COLOR = new Color(0.929f, 0.741f, 0.243f, 1);
+    private static final Color AI_MISS_COLOR = Color.DARK_GRAY;
+    private static final Color PLAYER_HIT_COLOR = Color.RED;
+    private static final Color PLAYER_MISS_COLOR = Color.GREEN;
+    private static final Color PLAYER_DESTROYED_COLOR = Color.BLACK;
+
+    private final SpriteBatch spriteBatch;
+    // Keeps baked sprites, so the atlas can be reloaded if its texture is lost
+    private final PixmapPacker pixmapPacker;
+    private final TextureAtlas textureAtlas;
+    private final TextureRegion fillSprite;
+    private final TextureRegion borderSprite;
+    private final TextureRegion crossSprite;
+    private final TextureRegion bigCircleSprite;
+    private final TextureRegion smallCircleSprite;
+    private FrameBuffer frameBuffer;
+    private final OrthographicCamera frameBufferCamera;
+    // Ruleset of boards drawn in the frame buffer
+    private Ruleset drawnRuleset;
+    // Board drawn in the frame buffer, this renderer listens to its changes
+    private Board drawnBoard;
+    // Tiles changed since the frame buffer was drawn
+    private BitBoard changedTiles;
+    private boolean frameBufferValid;
+
+    public BoardRenderer() {
+        this.spriteBatch = new SpriteBatch();
+        this.pixmapPacker = new PixmapPacker(ATLAS_PAGE_SIZE, ATLAS_PAGE_SIZE, Pixmap.Format.RGBA8888, ATLAS_PADDING, false);
+        bakeSprites();
+        this.textureAtlas = pixmapPacker.generateTextureAtlas(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        this.fillSprite = textureAtlas.findRegion(FILL_SPRITE);
+        this.borderSprite = textureAtlas.findRegion(BORDER_SPRITE);
+        this.crossSprite = textureAtlas.findRegion(CROSS_SPRITE);
+        this.bigCircleSprite = textureAtlas.findRegion(BIG_CIRCLE_SPRITE);
+        this.smallCircleSprite = textureAtlas.findRegion(SMALL_CIRCLE_SPRITE);
+
+        this.frameBufferCamera = new OrthographicCamera();
+        createFrameBuffer(Ruleset.DEFAULT);
+    }
+
+    /**
+     * Create the frame buffer and the set of changed tiles for boards of given ruleset.
+     */
+    private void createFrameBuffer(Ruleset ruleset) {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+        }
+        int maxSideLength = Math.max(ruleset.getColumnsAmount(), ruleset.getRowsAmount());
+        int tilePixels = Math.max(1, Math.min(TILE_PIXELS, MAX_FRAME_BUFFER_SIZE / maxSideLength));
+        this.frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, ruleset.getColumnsAmount() * tilePixels,
+                ruleset.getRowsAmount() * tilePixels, false);
+        // Same orientation as cameras of game screens, so the frame buffer texture doesn't have to be flipped
+        frameBufferCamera.setToOrtho(true, ruleset.getColumnsAmount() * Map.TILE_WIDTH, ruleset.getRowsAmount() * Map.TILE_HEIGHT);
+        frameBufferCamera.update();
+        this.drawnRuleset = ruleset;
+        this.changedTiles = new BitBoard(ruleset);
+        this.frameBufferValid = false;
+    }
+
+    /**
+     * Draw all tiles again in the next frame, for example after the frame buffer content was lost.
+     */
+    public void invalidate() {
+        this.frameBufferValid = false;
+    }
+
+    /**
+     * Draw the board so it covers area from (0, 0) to (columnsAmount * Map.TILE_WIDTH, rowsAmount * Map.TILE_HEIGHT)
+     * of its ruleset.
+     *
+     * @param board            board to be drawn
+     * @param projectionMatrix projection matrix of the camera looking at the board
+     */
+    public void render(Board board, Matrix4 projectionMatrix) {
+        long startTime = LatencyMetrics.startTime();
+        Ruleset ruleset = board.getRuleset();
+        if (!ruleset.equals(drawnRuleset)) {
+            createFrameBuffer(ruleset);
+        }
+        if (board != drawnBoard) {
+            if (drawnBoard != null) {
+                drawnBoard.removeTileChangeListener(this);
+            }
+            board.addTileChangeListener(this);
+            this.drawnBoard = board;
+            this.frameBufferValid = false;
+        }
+        if (!frameBufferValid) {
+            changedTiles.fill();
+        }
+        if (!changedTiles.isEmpty()) {
+            drawChangedTiles(board);
+            changedTiles.clear();
+            frameBufferValid = true;
+        }
+
+        spriteBatch.setProjectionMatrix(projectionMatrix);
+        // Frame buffer is fully covered with opaque tiles, its alpha doesn't matter
+        spriteBatch.disableBlending();
+        spriteBatch.begin();
+        spriteBatch.draw(frameBuffer.getColorBufferTexture(), 0, 0, ruleset.getColumnsAmount() * Map.TILE_WIDTH,
+                ruleset.getRowsAmount() * Map.TILE_HEIGHT);
+        spriteBatch.end();
+        LatencyMetric.BOARD_RENDER.record(startTime);
+    }
+
+    /**
+     * Draw changed tiles layer by layer. All sprites come from the same texture, so they are drawn in one draw call.
+     */
+    private void drawChangedTiles(Board board) {
+        frameBuffer.begin();
+        spriteBatch.setProjectionMatrix(frameBufferCamera.combined);
+        spriteBatch.enableBlending();
+        spriteBatch.begin();
+        // Backgrounds are opaque and cover everything drawn in changed tiles before
+        for (int tileIndex = changedTiles.nextTile(0); tileIndex >= 0; tileIndex = changedTiles.nextTile(tileIndex + 1)) {
+            TileType tileType = board.getTileType(tileIndex);
+            if (tileType == TileType.SHIP) {
+                drawSprite(fillSprite, SHIP_TILE_COLOR, tileIndex);
+            } else if (tileType == TileType.TEMPLATE_SHIP_BEGINNING) {
+                drawSprite(fillSprite, TEMPLATE_SHIP_BEGINNING_TILE_COLOR, tileIndex);
+            } else if (tileType == TileType.TEMPLATE_SHIP_END) {
+                drawSprite(fillSprite, TEMPLATE_SHIP_END_TILE_COLOR, tileIndex);
+            } else {
+                drawSprite(fillSprite, EMPTY_TILE_COLOR, tileIndex);
+            }
+        }
+        for (int tileIndex = changedTiles.nextTile(0); tileIndex >= 0; tileIndex = changedTiles.nextTile(tileIndex + 1)) {
+            drawSprite(borderSprite, TILE_BORDER_COLOR, tileIndex);
+        }
+        // Draw ai actions symbols
+        for (int tileIndex = changedTiles.nextTile(0); tileIndex >= 0; tileIndex = changedTiles.nextTile(tileIndex + 1)) {
+            Symbol aiInfoSymbol = board.getAiInfoSymbol(tileIndex);
+            if (aiInfoSymbol == Symbol.SUCCESSFUL_HIT) {
+                drawSprite(crossSprite, AI_HIT_COLOR, tileIndex);
+            } else if (aiInfoSymbol == Symbol.FAILED_HIT) {
+                drawSprite(crossSprite, AI_MISS_COLOR, tileIndex);
+            }
+        }
+        // Draw player actions symbols
+        for (int tileIndex = changedTiles.nextTile(0); tileIndex >= 0; tileIndex = changedTiles.nextTile(tileIndex + 1)) {
+            Symbol playerInfoSymbol = board.getPlayerInfoSymbol(tileIndex);
+            if (playerInfoSymbol == Symbol.SUCCESSFUL_HIT) {
+                drawSprite(bigCircleSprite, PLAYER_HIT_COLOR, tileIndex);
+            } else if (playerInfoSymbol == Symbol.FAILED_HIT) {
+                drawSprite(smallCircleSprite, PLAYER_MISS_COLOR, tileIndex);
+            } else if (playerInfoSymbol == Symbol.DESTROYED) {
+                drawSprite(smallCircleSprite, PLAYER_DESTROYED_COLOR, tileIndex);
+            }
+        }
+        spriteBatch.end();
+        spriteBatch.setColor(Color.WHITE);
+        frameBuffer.end();
+    }
+
+    private void drawSprite(TextureRegion sprite, Color color, int tileIndex) {
+        spriteBatch.setColor(color);
+        spriteBatch.draw(sprite, drawnRuleset.toIndexX(tileIndex) * Map.TILE_WIDTH, drawnRuleset.toIndexY(tileIndex) * Map.TILE_HEIGHT,
+                Map.TILE_WIDTH, Map.TILE_HEIGHT);
+    }
+
+    /**
+     * Draw white sprites of a single tile size and add them to the atlas packer.
+     */
+    private void bakeSprites() {
+        Pixmap pixmap = new Pixmap(TILE_PIXELS, TILE_PIXELS, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        pixmapPacker.pack(FILL_SPRITE, pixmap);
+
+        clearPixmap(pixmap);
+        pixmap.drawRectangle(0, 0, TILE_PIXELS, TILE_PIXELS);
+        pixmapPacker.pack(BORDER_SPRITE, pixmap);
+
+        // Diagonals are a tenth of a tile wide, each one is a hexagon drawn as a fan of triangles
+        clearPixmap(pixmap);
+        int halfWidth = Math.round(TILE_PIXELS / 10f / 2 * (float) Math.sqrt(2));
+        int end = TILE_PIXELS;
+        pixmap.fillTriangle(0, 0, halfWidth, 0, end, end - halfWidth);
+        pixmap.fillTriangle(0, 0, end, end - halfWidth, end, end);
+        pixmap.fillTriangle(0, 0, end, end, end - halfWidth, end);
+        pixmap.fillTriangle(0, 0, end - halfWidth, end, 0, halfWidth);
+        pixmap.fillTriangle(end, 0, end, halfWidth, halfWidth, end);
+        pixmap.fillTriangle(end, 0, halfWidth, end, 0, end);
+        pixmap.fillTriangle(end, 0, 0, end, 0, end - halfWidth);
+        pixmap.fillTriangle(end, 0, 0, end - halfWidth, end - halfWidth, 0);
+        pixmapPacker.pack(CROSS_SPRITE, pixmap);
+
+        clearPixmap(pixmap);
+        pixmap.fillCircle(TILE_PIXELS / 2, TILE_PIXELS / 2, TILE_PIXELS / 4);
+        pixmapPacker.pack(BIG_CIRCLE_SPRITE, pixmap);
+
+        clearPixmap(pixmap);
+        pixmap.fillCircle(TILE_PIXELS / 2, TILE_PIXELS / 2, TILE_PIXELS / 6);
+        pixmapPacker.pack(SMALL_CIRCLE_SPRITE, pixmap);
+
+        pixmap.dispose();
+    }
+
+    private static void clearPixmap(Pixmap pixmap) {
+        pixmap.setColor(Color.CLEAR);
+        pixmap.fill();
+        pixmap.setColor(Color.WHITE);
+    }
+
+    @Override
+    public void tileChanged(int tileIndex) {
+        changedTiles.set(tileIndex);
+    }
+
+    @Override
+    public void dispose() {
+        if (drawnBoard != null) {
+            drawnBoard.removeTileChangeListener(this);
+        }
+        frameBuffer.dispose();
+        textureAtlas.dispose();
+        pixmapPacker.dispose();
+        spriteBatch.dispose();
+    }
+}
@@ -1,61 +1,118 @@
 package com.shipsgame.map;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.shipsgame.Ai;
+import com.shipsgame.AiMode;
+import com.shipsgame.Fleet;
+import com.shipsgame.GameJournal;
 import com.shipsgame.PlayerProfile;
+import com.shipsgame.Ruleset;
 import com.shipsgame.Ship;
-import com.shipsgame.replays.Replay;
+import com.shipsgame.replays.ReplayRecorder;
 import com.shipsgame.screens.ScreenGame;
+import com.shipsgame.utilities.GameRandom;
 import com.shipsgame.utilities.Pair;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 public class Map implements Serializable {
 
-    public static final int ROWS_AMOUNT = 10;
-    public static final int COLUMNS_AMOUNT = 10;
+    private static final long serialVersionUID = -3938830888250047138L;
     public static final int TILE_WIDTH = 1;
     public static final int TILE_HEIGHT = 1;
-    // Const value used internally for drawing smooth circles
-    public static final int CIRCLE_EDGES = 50;
     private static final boolean SHOW_ONLY_RECENT_AI_MOVE = true;
+    private static final AiMode AI_MODE = AiMode.PROBABILITY_DENSITY;
 
-    private int rowsAmount;
-    private int columnsAmount;
-    private Tile[][] mapArray;
+    private Ruleset ruleset;
+    private Board board;
     private MapCreator mapCreator;
-    private ArrayList<Ship> ships;
+    // Player ships
+    private Fleet fleet;
     private Ai ai;
-    private Replay replayInConstruction;
+    // Journal to which moves are appended, null if moves aren't journaled
+    private transient GameJournal gameJournal;
 
     public Map() {
-        this.rowsAmount = ROWS_AMOUNT;
-        this.columnsAmount = COLUMNS_AMOUNT;
-        this.mapArray = new Tile[rowsAmount][columnsAmount];
-        this.ships = new ArrayList<>();
-        this.mapCreator = new MapCreator(this);
-        this.ai = new Ai(this);
-        this.replayInConstruction = new Replay();
+        this(GameRandom.generateSeed());
+    }
+
+    /**
+     * @param seed seed of the game, the same seed and the same player moves always lead to the same game
+     */
+    public Map(long seed) {
+        this(seed, Ruleset.DEFAULT);
+    }
 
-        // Initialize empty tiles for mapArray
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                this.mapArray[i][j] = new Tile();
+    /**
+     * @param seed    seed of the game, the same seed and the same player moves always lead to the same game
+     * @param ruleset size of the board and composition of fleets
+     */
+    public Map(long seed, Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.board = new Board(ruleset);
+        this.fleet = new Fleet(ruleset);
+        // Every part of the game gets its own generator, so using one of them doesn't change numbers of the others
+        GameRandom gameRandom = new GameRandom(seed);
+        this.mapCreator = new MapCreator(this, gameRandom.split());
+        this.ai = new Ai(new ReplayRecorder(seed, ruleset), AI_MODE, ruleset, gameRandom.split());
+    }
+
+    /**
+     * Restore a game from its seed and moves of the player. The game is played again, so it ends up in the same state
+     * as when it was saved.
+     *
+     * @param seed                  seed of the game
+     * @param ruleset               size of the board and composition of fleets
+     * @param ships                 ships placed by the player so far
+     * @param playerShotTileIndices indices of tiles shot by the player, as used by {@link Ruleset}, in order of shots
+     * @throws IllegalArgumentException if the ships or the shots couldn't be made in a game
+     */
+    public Map(long seed, Ruleset ruleset, List<Ship> ships, int[] playerShotTileIndices) {
+        this(seed, ruleset);
+        for (Ship ship : ships) {
+            if (!mapCreator.placeShip(ship)) {
+                throw new IllegalArgumentException("Ship of size " + ship.getShipSize() + " can't be placed");
             }
         }
+        if (playerShotTileIndices.length > 0 && !mapCreator.isFinished()) {
+            throw new IllegalArgumentException("Shots made before all ships were placed");
+        }
+        for (int tileIndex : playerShotTileIndices) {
+            if (tileIndex < 0 || tileIndex >= ruleset.getTilesAmount() || board.getPlayerInfoSymbol(tileIndex) != Symbol.EMPTY
+                    || isGameOver()) {
+                throw new IllegalArgumentException("Invalid shot at tile " + tileIndex);
+            }
+            processPlayerShot(ruleset.toIndexX(tileIndex), ruleset.toIndexY(tileIndex));
+        }
+    }
+
+    /**
+     * @return size of the board and composition of fleets of this game
+     */
+    public Ruleset getRuleset() {
+        return ruleset;
     }
 
-    public Replay getReplayInConstruction() {
-        return replayInConstruction;
+    /**
+     * @param gameJournal journal to which all following moves of this game are appended
+     */
+    public void setGameJournal(GameJournal gameJournal) {
+        this.gameJournal = gameJournal;
     }
 
-    public ArrayList<Ship> getShips() {
-        return ships;
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @return recorder of the game played on this map
+     */
+    public ReplayRecorder getReplayRecorder() {
+        return ai.getReplayRecorder();
+    }
+
+    public List<Ship> getShips() {
+        return fleet.getShips();
     }
 
     /**
@@ -67,6 +124,13 @@ public class Map implements Serializable {
         return mapCreator.isFinished();
     }
 
+    /**
+     * @return true if fleet of the player or of the ai is destroyed
+     */
+    public boolean isGameOver() {
+        return ai.didAiLose() || fleet.isDestroyed();
+    }
+
     /**
      * Update logic and state of map after handling user mouse click
      *
@@ -74,36 +138,24 @@ public class Map implements Serializable {
      * @param tileIndexY vertical index of tile clicked
      */
     public void update(int tileIndexX, int tileIndexY, ScreenGame screenGame, PlayerProfile playerProfile) {
+        if (!ruleset.isOnMap(tileIndexX, tileIndexY)) {
+            return;
+        }
         // Update mapCreator until it fully finished placing ships on the map
         if (!mapCreator.isFinished()) {
             mapCreator.update(new Pair(tileIndexX, tileIndexY), screenGame);
         } else {
             // Process player click input if it chosen tile wasn't used in the past
-            if (this.mapArray[tileIndexY][tileIndexX].getPlayerInfoSymbol() == Symbol.EMPTY) {
-                // Clean map from previous, failed ai hits
-                if (SHOW_ONLY_RECENT_AI_MOVE) {
-                    cleanMapFromAiHits();
-                }
-                Pair attackedTileIndices = ai.update(new Pair(tileIndexX, tileIndexY));
-
-                // Process tile attacked by ai
-                for (Ship currentShip : this.ships) {
-                    if (currentShip.damageShipPart(attackedTileIndices)) {
-                        this.getTile(attackedTileIndices).setAiInfoSymbol(Symbol.SUCCESSFUL_HIT);
-                        break;
-                    } else {
-                        this.getTile(attackedTileIndices).setAiInfoSymbol(Symbol.FAILED_HIT);
-                    }
-                }
+            if (board.getPlayerInfoSymbol(ruleset.toIndex(tileIndexX, tileIndexY)) == Symbol.EMPTY) {
+                processPlayerShot(tileIndexX, tileIndexY);
 
                 // Check if ai lost the game
                 if (ai.didAiLose()) {
                     playerProfile.addWin();
                     screenGame.setMapInitialized(false);
                     screenGame.displayGameOver(true);
-                }
-                // Check if player lost the game
-                if (areAllShipsDestroyed()) {
+                } else if (fleet.isDestroyed()) {
+                    // Check if player lost the game, a turn destroying both fleets ends the game once, as a win
                     playerProfile.addLoss();
                     screenGame.setMapInitialized(false);
                     screenGame.displayGameOver(false);
@@ -113,117 +165,50 @@ public class Map implements Serializable {
     }
 
     /**
-     * Render map to the screen
+     * Process a shot of the player at the tile which wasn't shot yet and the answering shot of the ai.
      *
-     * @param shapeRenderer used to draw shapes on the screen
+     * @param tileIndexX horizontal index of tile shot by the player
+     * @param tileIndexY vertical index of tile shot by the player
      */
-    public void render(ShapeRenderer shapeRenderer) {
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        // Draw all tiles of the map
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                if (mapArray[i][j].getTileType() == TileType.SHIP) {
-                    shapeRenderer.setColor(Color.DARK_GRAY);
-                } else if (mapArray[i][j].getTileType() == TileType.EMPTY) {
-                    // Light blue color
-                    shapeRenderer.setColor(new Color(0.004f, 0.569f, 0.784f, 1));
-                } else if (mapArray[i][j].getTileType() == TileType.TEMPLATE_SHIP_BEGINNING) {
-                    shapeRenderer.setColor(Color.YELLOW);
-                } else if (mapArray[i][j].getTileType() == TileType.TEMPLATE_SHIP_END) {
-                    shapeRenderer.setColor(Color.GREEN);
-                }
-                shapeRenderer.rect(j * TILE_WIDTH, i * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
-            }
+    private void processPlayerShot(int tileIndexX, int tileIndexY) {
+        // Clean map from previous, failed ai hits
+        if (SHOW_ONLY_RECENT_AI_MOVE) {
+            cleanMapFromAiHits();
         }
-        shapeRenderer.end();
-
-        // Draw black lines to separate tiles from each other
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                shapeRenderer.setColor(new Color(0, 0, 0, 0.1f));
-                shapeRenderer.rect(j * TILE_WIDTH, i * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
+        // Process player shot
+        Pair playerTileIndices = new Pair(tileIndexX, tileIndexY);
+        Symbol playerShotStatus = ai.processEnemyShot(playerTileIndices);
+        if (playerShotStatus == Symbol.DESTROYED) {
+            for (Pair currentShipTileIndices : ai.getFleet().getShipAt(playerTileIndices).calculateShipTileIndices()) {
+                board.setPlayerInfoSymbol(toIndex(currentShipTileIndices), Symbol.DESTROYED);
             }
+        } else {
+            board.setPlayerInfoSymbol(toIndex(playerTileIndices), playerShotStatus);
         }
-        shapeRenderer.end();
 
-        // Draw symbols on the map
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                // Draw ai actions symbols
-                if (mapArray[i][j].getAiInfoSymbol() == Symbol.SUCCESSFUL_HIT) {
-                    shapeRenderer.setColor(new Color(0.929f, 0.741f, 0.243f, 1));
-                    shapeRenderer.rectLine(j * TILE_WIDTH, i * TILE_HEIGHT, (j + 1) * TILE_WIDTH, (i + 1) * TILE_HEIGHT, TILE_WIDTH / 10f);
-                    shapeRenderer.rectLine((j + 1) * TILE_WIDTH, i * TILE_HEIGHT, j * TILE_WIDTH, (i + 1) * TILE_HEIGHT, TILE_WIDTH / 10f);
-                } else if (mapArray[i][j].getAiInfoSymbol() == Symbol.FAILED_HIT) {
-                    shapeRenderer.setColor(Color.DARK_GRAY);
-                    shapeRenderer.rectLine(j * TILE_WIDTH, i * TILE_HEIGHT, (j + 1) * TILE_WIDTH, (i + 1) * TILE_HEIGHT, TILE_WIDTH / 10f);
-                    shapeRenderer.rectLine((j + 1) * TILE_WIDTH, i * TILE_HEIGHT, j * TILE_WIDTH, (i + 1) * TILE_HEIGHT, TILE_WIDTH / 10f);
-                }
-                // Draw player actions symbols
-                if (mapArray[i][j].getPlayerInfoSymbol() == Symbol.SUCCESSFUL_HIT) {
-                    shapeRenderer.setColor(Color.RED);
-                    shapeRenderer.circle(j * TILE_WIDTH + TILE_WIDTH / 2f, i * TILE_HEIGHT + TILE_HEIGHT / 2f, TILE_WIDTH / 4f, CIRCLE_EDGES);
-                } else if (mapArray[i][j].getPlayerInfoSymbol() == Symbol.FAILED_HIT) {
-                    shapeRenderer.setColor(Color.GREEN);
-                    shapeRenderer.circle(j * TILE_WIDTH + TILE_WIDTH / 2f, i * TILE_HEIGHT + TILE_HEIGHT / 2f, TILE_WIDTH / 6f, CIRCLE_EDGES);
-                } else if (mapArray[i][j].getPlayerInfoSymbol() == Symbol.DESTROYED) {
-                    shapeRenderer.setColor(new Color(0, 0, 0, 1f));
-                    shapeRenderer.circle(j * TILE_WIDTH + TILE_WIDTH / 2f, i * TILE_HEIGHT + TILE_HEIGHT / 2f, TILE_WIDTH / 6f, CIRCLE_EDGES);
-                }
-            }
+        // Process tile attacked by ai
+        Pair attackedTileIndices = ai.attack(this.fleet);
+        if (this.fleet.getShipAt(attackedTileIndices) != null) {
+            board.setAiInfoSymbol(toIndex(attackedTileIndices), Symbol.SUCCESSFUL_HIT);
+        } else {
+            board.setAiInfoSymbol(toIndex(attackedTileIndices), Symbol.FAILED_HIT);
         }
-        shapeRenderer.end();
-    }
-
-    /**
-     * Updates map tiles TileTypes values using the list of all ships that exist on the map.
-     */
-    private void updateTilesFromShips() {
-        for (Ship currentShip : ships) {
-            List<Pair> shipTileIndices = currentShip.calculateShipTileIndices();
-            for (Pair currentPair : shipTileIndices) {
-                mapArray[currentPair.getIndexY()][currentPair.getIndexX()].setTileType(TileType.SHIP);
-            }
+        if (gameJournal != null) {
+            gameJournal.appendShots(toIndex(playerTileIndices), toIndex(attackedTileIndices));
         }
     }
 
     /**
-     * Return tile from map located at indexX and indexY.
-     *
-     * @param indexX horizontal index of tile
-     * @param indexY vertical index of tile
-     * @return Tile at given index or null if no tile exists there
+     * Place remaining player ships on random positions, if player is still placing ships.
      */
-    public Tile getTile(int indexX, int indexY) {
-        if (indexX >= this.columnsAmount || indexX < 0 ||
-                indexY >= this.rowsAmount || indexY < 0) {
-            return null;
+    public void autoPlaceShips(ScreenGame screenGame) {
+        if (!mapCreator.isFinished()) {
+            mapCreator.autoPlaceShips(screenGame);
         }
-        return mapArray[indexY][indexX];
-    }
-
-    /**
-     * Return tile from map located at tileIndices
-     *
-     * @param tileIndices indices of tile
-     * @return Tile at given index or null if no tile exists there
-     */
-    public Tile getTile(Pair tileIndices) {
-        return getTile(tileIndices.getIndexX(), tileIndices.getIndexY());
     }
 
-    /**
-     * Transform all map tiles in mapArray to TileType EMPTY.
-     */
-    private void cleanMap() {
-        for (int i = 0; i < Map.ROWS_AMOUNT; i++) {
-            for (int j = 0; j < Map.COLUMNS_AMOUNT; j++) {
-                mapArray[i][j].setTileType(TileType.EMPTY);
-            }
-        }
+    private int toIndex(Pair tileIndices) {
+        return ruleset.toIndex(tileIndices.getIndexX(), tileIndices.getIndexY());
     }
 
     /**
@@ -232,36 +217,20 @@ public class Map implements Serializable {
      * @param ship ship added to ships
      */
     public void addShip(Ship ship) {
-        this.ships.add(ship);
-        cleanMap();
-        updateTilesFromShips();
-    }
-
-    /**
-     * Changes aiInfoSymbols in all map tiles to Symbol.EMPTY.
-     */
-    private void cleanMapFromAiHits() {
-        for (int i = 0; i < Map.ROWS_AMOUNT; i++) {
-            for (int j = 0; j < Map.COLUMNS_AMOUNT; j++) {
-                if (mapArray[i][j].getAiInfoSymbol() == Symbol.FAILED_HIT) {
-                    mapArray[i][j].setAiInfoSymbol(Symbol.EMPTY);
-                }
-            }
+        this.fleet.addShip(ship);
+        // Ships are never removed, so only tiles of the new ship and templates left after placing it change
+        board.clearTemplates();
+        board.markShip(ship);
+        if (gameJournal != null) {
+            gameJournal.appendShip(ship);
         }
     }
 
     /**
-     * Check if player lost the game by losing all his ships.
-     *
-     * @return true if all ships are destroyed
+     * Changes aiInfoSymbols FAILED_HIT in all map tiles to Symbol.EMPTY.
      */
-    private boolean areAllShipsDestroyed() {
-        for (Ship currentShip : this.ships) {
-            if (!currentShip.isShipFullyDestroyed()) {
-                return false;
-            }
-        }
-        return true;
+    private void cleanMapFromAiHits() {
+        board.clearAiMissSymbols();
     }
 
     /**
@@ -273,17 +242,22 @@ public class Map implements Serializable {
      * DESTROYED if after attack a ship was completely destroyed
      */
     public Symbol getStatusInfoFromTile(Pair attackedTileIndices) {
-        for (Ship currentShip : ships) {
-            // Create deep copy of currentShip to test damaging it without modifying original ship
-            Ship shipForStatusTest = new Ship(currentShip);
-            if (shipForStatusTest.damageShipPart(attackedTileIndices)) {
-                if (shipForStatusTest.isShipFullyDestroyed()) {
-                    return Symbol.DESTROYED;
-                } else {
-                    return Symbol.SUCCESSFUL_HIT;
-                }
-            }
+        return fleet.getStatusInfoFromTile(attackedTileIndices);
+    }
+
+    /**
+     * Games saved in an older format, before the game state was moved to {@link Fleet} and {@link Board}, can't be resumed,
+     * so they are dropped. Games saved before rulesets were introduced were played with the default one.
+     *
+     * @return this map or null if it was saved in an old format
+     */
+    private Object readResolve() {
+        if (fleet == null || board == null) {
+            return null;
+        }
+        if (ruleset == null) {
+            ruleset = Ruleset.DEFAULT;
         }
-        return Symbol.FAILED_HIT;
+        return this;
     }
-}
\ No newline at end of file
+}
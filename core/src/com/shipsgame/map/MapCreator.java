@@ -2,27 +2,39 @@ package com.shipsgame.map;
 
 import com.shipsgame.Ship;
 import com.shipsgame.screens.ScreenGame;
+import com.shipsgame.utilities.GameRandom;
 import com.shipsgame.utilities.Pair;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public class MapCreator implements Serializable {
 
+    private static final long serialVersionUID = 9184819023402070501L;
+
     private Map map;
     private List<Integer> availableShipsSizes;
     private boolean finished;
     private boolean shipBeginningPlaced;
     private Pair currentShipBeginningTileIndices;
+    // Used to place ships automatically
+    private GameRandom random;
 
-    public MapCreator(Map map) {
+    /**
+     * @param map    map on which player places ships
+     * @param random random number generator used to place ships automatically
+     */
+    public MapCreator(Map map, GameRandom random) {
         this.map = map;
+        this.random = random;
         this.finished = false;
         this.shipBeginningPlaced = false;
-        // Ship sizes and their amount to be used in a game
-        this.availableShipsSizes = new ArrayList<>(Arrays.asList(1, 1, 1, 1, 2, 2, 2, 3, 3, 4));
+        // Ship sizes and their amount to be used in a game, the biggest ship is placed first
+        this.availableShipsSizes = new ArrayList<>();
+        for (int shipSize : map.getRuleset().getFleetComposition().getShipSizes()) {
+            availableShipsSizes.add(shipSize);
+        }
     }
 
     public boolean isFinished() {
@@ -38,7 +50,7 @@ public class MapCreator implements Serializable {
     public void update(Pair tileIndices, ScreenGame screenGame) {
         if (shipBeginningPlaced) {
             // Create real ship and place it on the map
-            if (map.getTile(tileIndices).getTileType() == TileType.TEMPLATE_SHIP_END) {
+            if (map.getBoard().getTileType(toIndex(tileIndices)) == TileType.TEMPLATE_SHIP_END) {
                 int startIndexX = Math.min(currentShipBeginningTileIndices.getIndexX(), tileIndices.getIndexX());
                 int startIndexY = Math.min(currentShipBeginningTileIndices.getIndexY(), tileIndices.getIndexY());
                 int endIndexX = Math.max(currentShipBeginningTileIndices.getIndexX(), tileIndices.getIndexX());
@@ -49,13 +61,74 @@ public class MapCreator implements Serializable {
                 finalizeCreatingShip();
             }
         } else {
-            if (map.getTile(tileIndices).getTileType() == TileType.EMPTY && checkIfSurroundingTilesAreEmpty(tileIndices)) {
+            if (map.getBoard().getTileType(toIndex(tileIndices)) == TileType.EMPTY && checkIfSurroundingTilesAreEmpty(tileIndices)) {
                 placeShipBeginning(tileIndices);
             }
         }
 
+        checkIfFinished(screenGame);
+    }
+
+    /**
+     * Place all ships that weren't placed yet on random, valid positions.
+     *
+     * @param screenGame screen witch holds your map and is the main game screen
+     */
+    public void autoPlaceShips(ScreenGame screenGame) {
+        int[] shipSizes = new int[availableShipsSizes.size()];
+        for (int i = 0; i < shipSizes.length; i++) {
+            shipSizes[i] = availableShipsSizes.get(i);
+        }
+        List<Ship> generatedShips = ShipPlacementGenerator.generateShips(shipSizes, map.getBoard().getShipTiles(), random);
+        if (generatedShips == null) {
+            screenGame.displayMessage("Remaining ships couldn't be placed on the map.");
+            return;
+        }
+
+        cleanTemplatesOnMap();
+        this.shipBeginningPlaced = false;
+        for (Ship currentShip : generatedShips) {
+            map.addShip(currentShip);
+        }
+        availableShipsSizes.clear();
+        this.finished = true;
+        checkIfFinished(screenGame);
+    }
+
+    /**
+     * Place a ship of one of the sizes which weren't placed yet, if it lies on the map and doesn't overlap or touch
+     * ships placed before. Used to restore ships of saved games, which could be damaged.
+     *
+     * @param ship ship placed on the map
+     * @return false if no ship of the size is left to place or the ship can't be placed at its position
+     */
+    boolean placeShip(Ship ship) {
+        for (Pair shipTileIndices : ship.calculateShipTileIndices()) {
+            if (!map.getRuleset().isOnMap(shipTileIndices.getIndexX(), shipTileIndices.getIndexY())
+                    || map.getBoard().getShipTiles().get(toIndex(shipTileIndices))
+                    || !checkIfSurroundingTilesAreEmpty(shipTileIndices)) {
+                return false;
+            }
+        }
+        if (!availableShipsSizes.remove(Integer.valueOf(ship.getShipSize()))) {
+            return false;
+        }
+        map.addShip(ship);
+        if (availableShipsSizes.isEmpty()) {
+            this.finished = true;
+            map.getReplayRecorder().setPlayerShipsList(map.getShips());
+        }
+        return true;
+    }
+
+    /**
+     * Start the game if all ships were placed on the map.
+     *
+     * @param screenGame screen witch holds your map and is the main game screen
+     */
+    private void checkIfFinished(ScreenGame screenGame) {
         if (this.finished) {
-            map.getReplayInConstruction().setPlayerShipsList(map.getShips());
+            map.getReplayRecorder().setPlayerShipsList(map.getShips());
             screenGame.displayMessage("Game started. Click mouse to attack chosen tile.\nPress h for help.");
         }
     }
@@ -73,8 +146,7 @@ public class MapCreator implements Serializable {
         } else {
             currentShipBeginningTileIndices = tileIndices;
             if (placePossibleShipsEndings(tileIndices) > 0) {
-                Tile selectedTile = map.getTile(tileIndices.getIndexX(), tileIndices.getIndexY());
-                selectedTile.setTileType(TileType.TEMPLATE_SHIP_BEGINNING);
+                map.getBoard().setTileType(toIndex(tileIndices), TileType.TEMPLATE_SHIP_BEGINNING);
                 shipBeginningPlaced = true;
             }
         }
@@ -94,15 +166,15 @@ public class MapCreator implements Serializable {
         List<Pair> shipsEndingsIndices = new ArrayList<>();
         int endIndexX, endIndexY;
         if ((endIndexX = startIndexX - getCurrentShipSize() + 1) >= 0) {
-            if (map.getTile(endIndexX, startIndexY).getTileType() == TileType.EMPTY
+            if (map.getBoard().getTileType(map.getRuleset().toIndex(endIndexX, startIndexY)) == TileType.EMPTY
                     && checkIfSurroundingTilesAreEmpty(new Pair(endIndexX, startIndexY))
                     && checkIfLineBetweenTilesIsEmpty(new Pair(endIndexX, startIndexY), currentShipBeginningTileIndices)) {
                 shipsEndingsIndices.add(new Pair(endIndexX, startIndexY));
                 amountOfEndingsPossible++;
             }
         }
-        if ((endIndexX = startIndexX + getCurrentShipSize() - 1) < Map.COLUMNS_AMOUNT) {
-            if (map.getTile(endIndexX, startIndexY).getTileType() == TileType.EMPTY
+        if ((endIndexX = startIndexX + getCurrentShipSize() - 1) < map.getRuleset().getColumnsAmount()) {
+            if (map.getBoard().getTileType(map.getRuleset().toIndex(endIndexX, startIndexY)) == TileType.EMPTY
                     && checkIfSurroundingTilesAreEmpty(new Pair(endIndexX, startIndexY))
                     && checkIfLineBetweenTilesIsEmpty(new Pair(endIndexX, startIndexY), currentShipBeginningTileIndices)) {
                 shipsEndingsIndices.add(new Pair(endIndexX, startIndexY));
@@ -110,15 +182,15 @@ public class MapCreator implements Serializable {
             }
         }
         if ((endIndexY = startIndexY - getCurrentShipSize() + 1) >= 0) {
-            if (map.getTile(startIndexX, endIndexY).getTileType() == TileType.EMPTY
+            if (map.getBoard().getTileType(map.getRuleset().toIndex(startIndexX, endIndexY)) == TileType.EMPTY
                     && checkIfSurroundingTilesAreEmpty(new Pair(startIndexX, endIndexY))
                     && checkIfLineBetweenTilesIsEmpty(new Pair(startIndexX, endIndexY), currentShipBeginningTileIndices)) {
                 shipsEndingsIndices.add(new Pair(startIndexX, endIndexY));
                 amountOfEndingsPossible++;
             }
         }
-        if ((endIndexY = startIndexY + getCurrentShipSize() - 1) < Map.ROWS_AMOUNT) {
-            if (map.getTile(startIndexX, endIndexY).getTileType() == TileType.EMPTY
+        if ((endIndexY = startIndexY + getCurrentShipSize() - 1) < map.getRuleset().getRowsAmount()) {
+            if (map.getBoard().getTileType(map.getRuleset().toIndex(startIndexX, endIndexY)) == TileType.EMPTY
                     && checkIfSurroundingTilesAreEmpty(new Pair(startIndexX, endIndexY))
                     && checkIfLineBetweenTilesIsEmpty(new Pair(startIndexX, endIndexY), currentShipBeginningTileIndices)) {
                 shipsEndingsIndices.add(new Pair(startIndexX, endIndexY));
@@ -127,7 +199,7 @@ public class MapCreator implements Serializable {
         }
 
         for (Pair currentPair : shipsEndingsIndices) {
-            map.getTile(currentPair.getIndexX(), currentPair.getIndexY()).setTileType(TileType.TEMPLATE_SHIP_END);
+            map.getBoard().setTileType(toIndex(currentPair), TileType.TEMPLATE_SHIP_END);
         }
         return amountOfEndingsPossible;
     }
@@ -143,14 +215,7 @@ public class MapCreator implements Serializable {
      * Transforms all template tiles (TileType.TEMPLATE_SHIP_BEGINNING or TileType.TEMPLATE_SHIP_END) left after building ship to empty tiles.
      */
     private void cleanTemplatesOnMap() {
-        for (int i = 0; i < Map.ROWS_AMOUNT; i++) {
-            for (int j = 0; j < Map.COLUMNS_AMOUNT; j++) {
-                if (map.getTile(j, i).getTileType() == TileType.TEMPLATE_SHIP_END
-                        || map.getTile(j, i).getTileType() == TileType.TEMPLATE_SHIP_BEGINNING) {
-                    map.getTile(j, i).setTileType(TileType.EMPTY);
-                }
-            }
-        }
+        map.getBoard().clearTemplates();
     }
 
     /**
@@ -177,20 +242,7 @@ public class MapCreator implements Serializable {
      * @return true if the tile is not touching any ships or false otherwise
      */
     private boolean checkIfSurroundingTilesAreEmpty(Pair tileIndices) {
-        int indexX = tileIndices.getIndexX();
-        int indexY = tileIndices.getIndexY();
-        //noinspection RedundantIfStatement
-        if ((map.getTile(indexX + 1, indexY) != null && map.getTile(indexX + 1, indexY).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX + 1, indexY + 1) != null && map.getTile(indexX + 1, indexY + 1).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX, indexY + 1) != null && map.getTile(indexX, indexY + 1).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX - 1, indexY + 1) != null && map.getTile(indexX - 1, indexY + 1).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX - 1, indexY) != null && map.getTile(indexX - 1, indexY).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX - 1, indexY - 1) != null && map.getTile(indexX - 1, indexY - 1).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX, indexY - 1) != null && map.getTile(indexX, indexY - 1).getTileType() == TileType.SHIP)
-                || (map.getTile(indexX + 1, indexY - 1) != null && map.getTile(indexX + 1, indexY - 1).getTileType() == TileType.SHIP)) {
-            return false;
-        }
-        return true;
+        return !map.getBoard().getShipTiles().intersectsNeighbourhood(toIndex(tileIndices));
     }
 
     /**
@@ -219,4 +271,8 @@ public class MapCreator implements Serializable {
         }
         return true;
     }
-}
\ No newline at end of file
+
+    private int toIndex(Pair tileIndices) {
+        return map.getRuleset().toIndex(tileIndices.getIndexX(), tileIndices.getIndexY());
+    }
+}
@@ -0,0 +1,341 @@
+package com.shipsgame.map;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+import com.shipsgame.flightrecorder.ShipPlacementEvent;
+import com.shipsgame.utilities.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generates random, valid positions of ships on the board. On boards with up to EXHAUSTIVE_TILES_LIMIT tiles all
+ * positions valid at the moment are listed and every ship is placed on one of them, chosen uniformly. If ship can't be
+ * placed, previous ships are moved (backtracking), so generating ends successfully whenever ships can fit on the board,
+ * unless MAX_CHECKED_PLACEMENTS positions were checked without finding such arrangement.
+ * Listing positions costs time proportional to the area of the board, so on bigger boards positions are drawn uniformly
+ * from all positions until a valid one is found, which is still uniform among valid positions. Ships which aren't placed
+ * in MAX_DRAWS draws, because the board is crowded, are placed by listing positions.
+ */
+public final class ShipPlacementGenerator {
+
+    private static final int EXHAUSTIVE_TILES_LIMIT = 4096;
+    private static final int MAX_DRAWS = 1000;
+    // Positions checked by backtracking before generating gives up, so fleets which don't fit, or fit only
+    // in a few arrangements, fail in bounded time instead of trying exponentially many arrangements
+    private static final long MAX_CHECKED_PLACEMENTS = 10L * 1000 * 1000;
+    // Placements listed by backtracking, the buffer is reused by following generations on the same thread
+    private static final ThreadLocal<int[]> LISTED_PLACEMENTS = ThreadLocal.withInitial(() -> new int[0]);
+
+    private ShipPlacementGenerator() {
+    }
+
+    /**
+     * Generate positions for ships of given sizes, so they don't touch each other or any of occupiedTiles.
+     *
+     * @param shipSizes     sizes of ships to place
+     * @param occupiedTiles tiles of ships already placed on the board, ships are placed on the board of this set
+     * @param random        random number generator used to choose ships positions
+     * @return list of placed ships or null if ships can't fit on the board
+     */
+    public static List<Ship> generateShips(int[] shipSizes, BitBoard occupiedTiles, GameRandom random) {
+        ShipPlacementEvent shipPlacementEvent = new ShipPlacementEvent();
+        shipPlacementEvent.begin();
+        PlacementAttempts placementAttempts = new PlacementAttempts();
+        List<Ship> ships = generateShips(shipSizes, occupiedTiles, random, placementAttempts);
+        shipPlacementEvent.end();
+        if (shipPlacementEvent.shouldCommit()) {
+            Ruleset ruleset = occupiedTiles.getRuleset();
+            shipPlacementEvent.columnsAmount = ruleset.getColumnsAmount();
+            shipPlacementEvent.rowsAmount = ruleset.getRowsAmount();
+            shipPlacementEvent.shipsAmount = shipSizes.length;
+            shipPlacementEvent.attemptsAmount = placementAttempts.amount;
+            shipPlacementEvent.placed = ships != null;
+            shipPlacementEvent.commit();
+        }
+        return ships;
+    }
+
+    private static List<Ship> generateShips(int[] shipSizes, BitBoard occupiedTiles, GameRandom random,
+                                            PlacementAttempts placementAttempts) {
+        Ruleset ruleset = occupiedTiles.getRuleset();
+        // Placing the biggest ships first needs the least backtracking
+        int[] sortedShipSizes = Arrays.copyOf(shipSizes, shipSizes.length);
+        Arrays.sort(sortedShipSizes);
+        for (int i = 0; i < sortedShipSizes.length / 2; i++) {
+            int temp = sortedShipSizes[i];
+            sortedShipSizes[i] = sortedShipSizes[sortedShipSizes.length - 1 - i];
+            sortedShipSizes[sortedShipSizes.length - 1 - i] = temp;
+        }
+        for (int shipSize : sortedShipSizes) {
+            if (shipSize < 1 || shipSize > Math.max(ruleset.getColumnsAmount(), ruleset.getRowsAmount())) {
+                return null;
+            }
+        }
+
+        // Tiles which can't be covered by placed ships, because they touch ships already placed
+        BitBoard blockedTiles = new BitBoard(ruleset);
+        for (int i = occupiedTiles.nextTile(0); i >= 0; i = occupiedTiles.nextTile(i + 1)) {
+            blockedTiles.setWithNeighbourhood(i);
+        }
+        // Placements of ships, encoded by encodePlacement
+        int[] chosenPlacements = new int[sortedShipSizes.length];
+        int drawnShipsAmount = 0;
+        if (ruleset.getTilesAmount() > EXHAUSTIVE_TILES_LIMIT) {
+            drawnShipsAmount = drawPlacements(sortedShipSizes, blockedTiles, chosenPlacements, random, placementAttempts);
+        }
+        if (drawnShipsAmount < sortedShipSizes.length
+                && !listPlacements(sortedShipSizes, drawnShipsAmount, blockedTiles, chosenPlacements, random, placementAttempts)) {
+            return null;
+        }
+
+        List<Ship> ships = new ArrayList<>(chosenPlacements.length);
+        for (int i = 0; i < chosenPlacements.length; i++) {
+            int startTileIndex = chosenPlacements[i] >>> 1;
+            int startX = ruleset.toIndexX(startTileIndex);
+            int startY = ruleset.toIndexY(startTileIndex);
+            if (isVertical(chosenPlacements[i])) {
+                ships.add(new Ship(startX, startY, startX, startY + sortedShipSizes[i] - 1));
+            } else {
+                ships.add(new Ship(startX, startY, startX + sortedShipSizes[i] - 1, startY));
+            }
+        }
+        return ships;
+    }
+
+    /**
+     * Place ships one after another on positions drawn from all positions on the board, without backtracking.
+     *
+     * @return amount of placed ships, placing stops at the first ship which wasn't placed in MAX_DRAWS draws
+     */
+    private static int drawPlacements(int[] shipSizes, BitBoard blockedTiles, int[] chosenPlacements, GameRandom random,
+                                      PlacementAttempts placementAttempts) {
+        Ruleset ruleset = blockedTiles.getRuleset();
+        int columnsAmount = ruleset.getColumnsAmount();
+        int rowsAmount = ruleset.getRowsAmount();
+        for (int shipNumber = 0; shipNumber < shipSizes.length; shipNumber++) {
+            int shipSize = shipSizes[shipNumber];
+            int horizontalStartsInRow = Math.max(columnsAmount - shipSize + 1, 0);
+            int horizontalPositionsAmount = horizontalStartsInRow * rowsAmount;
+            // Ships with size 1 have only one orientation
+            int verticalPositionsAmount = shipSize > 1 ? Math.max(rowsAmount - shipSize + 1, 0) * columnsAmount : 0;
+
+            boolean placed = false;
+            for (int i = 0; i < MAX_DRAWS && !placed; i++) {
+                placementAttempts.amount++;
+                int position = random.nextInt(horizontalPositionsAmount + verticalPositionsAmount);
+                int placement;
+                if (position < horizontalPositionsAmount) {
+                    placement = encodePlacement(ruleset.toIndex(position % horizontalStartsInRow, position / horizontalStartsInRow), false);
+                } else {
+                    placement = encodePlacement(position - horizontalPositionsAmount, true);
+                }
+                if (isPlacementFree(placement, shipSize, blockedTiles)) {
+                    blockPlacement(placement, shipSize, blockedTiles);
+                    chosenPlacements[shipNumber] = placement;
+                    placed = true;
+                }
+            }
+            if (!placed) {
+                return shipNumber;
+            }
+        }
+        return shipSizes.length;
+    }
+
+    /**
+     * Place ships with number firstShipNumber and all following ones on listed valid positions, backtracking when they
+     * can't be placed.
+     *
+     * @return true if all ships were placed
+     */
+    private static boolean listPlacements(int[] shipSizes, int firstShipNumber, BitBoard blockedTiles, int[] chosenPlacements,
+                                          GameRandom random, PlacementAttempts placementAttempts) {
+        PlacementSearch placementSearch = new PlacementSearch(shipSizes, firstShipNumber, blockedTiles, chosenPlacements,
+                random, placementAttempts);
+        boolean placed = placementSearch.placeShips(firstShipNumber, 0);
+        LISTED_PLACEMENTS.set(placementSearch.listedPlacements);
+        return placed;
+    }
+
+    /**
+     * Backtracking search for positions of ships. Valid placements of all ships are listed in a single buffer,
+     * placements of every ship after those of the previous one, and the buffer grows only when it is full.
+     * Ships of the same size are interchangeable, so a placement with which the following ships couldn't be placed
+     * is excluded for the following ships of the same size, which would only try the same arrangements again.
+     * Placements are excluded only after backtracking, so ships placed without backtracking are chosen the same way
+     * as without exclusions.
+     */
+    private static final class PlacementSearch {
+
+        private final int[] shipSizes;
+        private final int firstShipNumber;
+        private final Ruleset ruleset;
+        // Blocked tiles after placing every ship, blockedTilesAfterShips[firstShipNumber] are tiles blocked before
+        // placing any of listed ships
+        private final BitBoard[] blockedTilesAfterShips;
+        // Sum of sizes of the ship with given number and all following ships
+        private final int[] remainingShipTilesAmounts;
+        // Start tiles of horizontal and vertical placements excluded for the following ships of the same size,
+        // indexed by number of the first listed ship of that size, null until a placement of that size is excluded
+        private final BitBoard[] failedHorizontalPlacements;
+        private final BitBoard[] failedVerticalPlacements;
+        private final int[] chosenPlacements;
+        private final GameRandom random;
+        private final PlacementAttempts placementAttempts;
+        private int[] listedPlacements;
+
+        PlacementSearch(int[] shipSizes, int firstShipNumber, BitBoard blockedTiles, int[] chosenPlacements,
+                        GameRandom random, PlacementAttempts placementAttempts) {
+            this.shipSizes = shipSizes;
+            this.firstShipNumber = firstShipNumber;
+            this.ruleset = blockedTiles.getRuleset();
+            this.blockedTilesAfterShips = new BitBoard[shipSizes.length + 1];
+            this.remainingShipTilesAmounts = new int[shipSizes.length + 1];
+            this.failedHorizontalPlacements = new BitBoard[shipSizes.length];
+            this.failedVerticalPlacements = new BitBoard[shipSizes.length];
+            this.chosenPlacements = chosenPlacements;
+            this.random = random;
+            this.placementAttempts = placementAttempts;
+            this.listedPlacements = LISTED_PLACEMENTS.get();
+
+            blockedTilesAfterShips[firstShipNumber] = blockedTiles;
+            for (int i = shipSizes.length - 1; i >= firstShipNumber; i--) {
+                blockedTilesAfterShips[i + 1] = new BitBoard(ruleset);
+                remainingShipTilesAmounts[i] = remainingShipTilesAmounts[i + 1] + shipSizes[i];
+            }
+        }
+
+        /**
+         * Place ship with index shipNumber and all following ships, backtracking when they can't be placed.
+         *
+         * @param listStart index in listedPlacements from which placements of the ship are listed
+         * @return true if all ships were placed
+         */
+        boolean placeShips(int shipNumber, int listStart) {
+            if (shipNumber == shipSizes.length) {
+                return true;
+            }
+            BitBoard currentBlockedTiles = blockedTilesAfterShips[shipNumber];
+            // Ships cover separate tiles, so they can't be placed if there are less free tiles than tiles of the ships
+            if (placementAttempts.checkedAmount > MAX_CHECKED_PLACEMENTS
+                    || ruleset.getTilesAmount() - currentBlockedTiles.cardinality() < remainingShipTilesAmounts[shipNumber]) {
+                return false;
+            }
+            int shipSize = shipSizes[shipNumber];
+            int sameSizeShipNumber = shipNumber;
+            while (sameSizeShipNumber > firstShipNumber && shipSizes[sameSizeShipNumber - 1] == shipSize) {
+                sameSizeShipNumber--;
+            }
+            BitBoard failedHorizontal = failedHorizontalPlacements[sameSizeShipNumber];
+            BitBoard failedVertical = failedVerticalPlacements[sameSizeShipNumber];
+            // Failed placements are marked only if a following ship of the same size can use them
+            boolean markFailed = shipNumber + 1 < shipSizes.length && shipSizes[shipNumber + 1] == shipSize;
+
+            int listedAmount = 0;
+            for (int i = 0; i < ruleset.getRowsAmount(); i++) {
+                for (int j = 0; j < ruleset.getColumnsAmount(); j++) {
+                    int tileIndex = ruleset.toIndex(j, i);
+                    int horizontalPlacement = encodePlacement(tileIndex, false);
+                    if (j + shipSize <= ruleset.getColumnsAmount() && isPlacementFree(horizontalPlacement, shipSize, currentBlockedTiles)
+                            && (failedHorizontal == null || !failedHorizontal.get(tileIndex))) {
+                        listPlacement(listStart + listedAmount++, horizontalPlacement);
+                    }
+                    // Ships with size 1 have only one orientation
+                    int verticalPlacement = encodePlacement(tileIndex, true);
+                    if (shipSize > 1 && i + shipSize <= ruleset.getRowsAmount() && isPlacementFree(verticalPlacement, shipSize, currentBlockedTiles)
+                            && (failedVertical == null || !failedVertical.get(tileIndex))) {
+                        listPlacement(listStart + listedAmount++, verticalPlacement);
+                    }
+                }
+            }
+            placementAttempts.checkedAmount += shipSize > 1 ? 2 * ruleset.getTilesAmount() : ruleset.getTilesAmount();
+
+            int validPlacementsAmount = listedAmount;
+            while (validPlacementsAmount > 0 && placementAttempts.checkedAmount <= MAX_CHECKED_PLACEMENTS) {
+                // Choose random placement and move it after valid ones, in case following ships can't be placed with it
+                placementAttempts.amount++;
+                int chosenIndex = listStart + random.nextInt(validPlacementsAmount);
+                int chosenPlacement = listedPlacements[chosenIndex];
+                validPlacementsAmount--;
+                listedPlacements[chosenIndex] = listedPlacements[listStart + validPlacementsAmount];
+                listedPlacements[listStart + validPlacementsAmount] = chosenPlacement;
+
+                BitBoard nextBlockedTiles = blockedTilesAfterShips[shipNumber + 1];
+                nextBlockedTiles.copyFrom(currentBlockedTiles);
+                blockPlacement(chosenPlacement, shipSize, nextBlockedTiles);
+                chosenPlacements[shipNumber] = chosenPlacement;
+                if (placeShips(shipNumber + 1, listStart + listedAmount)) {
+                    return true;
+                }
+                if (markFailed) {
+                    if (failedHorizontal == null) {
+                        failedHorizontal = failedHorizontalPlacements[sameSizeShipNumber] = new BitBoard(ruleset);
+                        failedVertical = failedVerticalPlacements[sameSizeShipNumber] = new BitBoard(ruleset);
+                    }
+                    (isVertical(chosenPlacement) ? failedVertical : failedHorizontal).set(chosenPlacement >>> 1);
+                }
+            }
+            if (failedHorizontal != null && markFailed) {
+                // Placements are excluded only while previous ships stay where they are
+                for (int i = listStart + validPlacementsAmount; i < listStart + listedAmount; i++) {
+                    (isVertical(listedPlacements[i]) ? failedVertical : failedHorizontal).clear(listedPlacements[i] >>> 1);
+                }
+            }
+            return false;
+        }
+
+        private void listPlacement(int index, int placement) {
+            if (index == listedPlacements.length) {
+                listedPlacements = Arrays.copyOf(listedPlacements, Math.max(2 * index, 2 * ruleset.getTilesAmount()));
+            }
+            listedPlacements[index] = placement;
+        }
+    }
+
+    /**
+     * Amount of positions tried while generating ships, reported to the flight recorder, and amount of positions
+     * checked by backtracking, limited by MAX_CHECKED_PLACEMENTS.
+     */
+    private static final class PlacementAttempts {
+        int amount;
+        long checkedAmount;
+    }
+
+    /**
+     * @param startTileIndex index of the top left tile of the ship
+     * @param vertical       true if the ship is vertical, false if it is horizontal
+     * @return placement encoded in a single number
+     */
+    private static int encodePlacement(int startTileIndex, boolean vertical) {
+        return startTileIndex << 1 | (vertical ? 1 : 0);
+    }
+
+    private static boolean isVertical(int placement) {
+        return (placement & 1) != 0;
+    }
+
+    /**
+     * @return true if none of tiles covered by the ship is blocked
+     */
+    private static boolean isPlacementFree(int placement, int shipSize, BitBoard blockedTiles) {
+        int step = isVertical(placement) ? blockedTiles.getRuleset().getColumnsAmount() : 1;
+        for (int i = 0, tileIndex = placement >>> 1; i < shipSize; i++, tileIndex += step) {
+            if (blockedTiles.get(tileIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Block tiles covered by the ship and all tiles touching them.
+     */
+    private static void blockPlacement(int placement, int shipSize, BitBoard blockedTiles) {
+        int step = isVertical(placement) ? blockedTiles.getRuleset().getColumnsAmount() : 1;
+        for (int i = 0, tileIndex = placement >>> 1; i < shipSize; i++, tileIndex += step) {
+            blockedTiles.setWithNeighbourhood(tileIndex);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.shipsgame.map;
+
+/**
+ * Receives changes of single tiles of a {@link Board}, so its subscribers do work proportional to the amount of changed
+ * tiles instead of checking the whole board.
+ */
+public interface TileChangeListener {
+
+    /**
+     * Called after the tile type or any symbol of the tile changed.
+     *
+     * @param tileIndex index of the changed tile, as used by the ruleset of the board
+     */
+    void tileChanged(int tileIndex);
+}
@@ -0,0 +1,124 @@
+package com.shipsgame.map;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.utilities.GameRandom;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Pool of map tiles supporting constant time membership checks, removal and random selection, without allocating.
+ * Tiles are kept both in a {@link BitBoard} and in a dense array, from which tiles are removed by swapping
+ * them with the last tile of the array.
+ */
+public class TilePool implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int NOT_IN_POOL = -1;
+
+    private Ruleset ruleset;
+    private BitBoard tiles;
+    private int[] poolTiles;
+    // Position of every map tile in poolTiles or NOT_IN_POOL
+    private int[] positionsInPool;
+    private int size;
+
+    /**
+     * Create pool containing all tiles of the map.
+     *
+     * @param ruleset rules of the game played on the map
+     */
+    public TilePool(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.tiles = new BitBoard(ruleset);
+        this.poolTiles = new int[ruleset.getTilesAmount()];
+        this.positionsInPool = new int[ruleset.getTilesAmount()];
+        reset();
+    }
+
+    /**
+     * Add back all tiles of the map to this pool.
+     */
+    public void reset() {
+        tiles.clear();
+        size = 0;
+        Arrays.fill(positionsInPool, NOT_IN_POOL);
+        for (int i = 0; i < poolTiles.length; i++) {
+            add(i);
+        }
+    }
+
+    /**
+     * @return tiles of this pool, must not be modified
+     */
+    public BitBoard getTiles() {
+        return tiles;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int tileIndex) {
+        return tiles.get(tileIndex);
+    }
+
+    private void add(int tileIndex) {
+        tiles.set(tileIndex);
+        poolTiles[size] = tileIndex;
+        positionsInPool[tileIndex] = size;
+        size++;
+    }
+
+    /**
+     * @param tileIndex index of the tile to remove
+     * @return true if the tile was in the pool
+     */
+    public boolean remove(int tileIndex) {
+        int position = positionsInPool[tileIndex];
+        if (position == NOT_IN_POOL) {
+            return false;
+        }
+        // Move last tile of the pool to the place of removed tile
+        int lastTileIndex = poolTiles[size - 1];
+        poolTiles[position] = lastTileIndex;
+        positionsInPool[lastTileIndex] = position;
+        positionsInPool[tileIndex] = NOT_IN_POOL;
+        tiles.clear(tileIndex);
+        size--;
+        return true;
+    }
+
+    /**
+     * Remove a random tile from the pool.
+     *
+     * @param random random number generator used to choose the tile
+     * @return index of removed tile
+     */
+    public int removeRandom(GameRandom random) {
+        int tileIndex = poolTiles[random.nextInt(size)];
+        remove(tileIndex);
+        return tileIndex;
+    }
+
+    /**
+     * Remove from the pool all 8 tiles surrounding given tile.
+     *
+     * @param tileIndex index of the tile which neighbours are removed
+     */
+    public void removeNeighbourhood(int tileIndex) {
+        int indexX = ruleset.toIndexX(tileIndex);
+        int indexY = ruleset.toIndexY(tileIndex);
+        for (int i = indexY - 1; i <= indexY + 1; i++) {
+            for (int j = indexX - 1; j <= indexX + 1; j++) {
+                if ((i != indexY || j != indexX) && ruleset.isOnMap(j, i)) {
+                    remove(ruleset.toIndex(j, i));
+                }
+            }
+        }
+    }
+}
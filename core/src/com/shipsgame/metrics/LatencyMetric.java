@@ -0,0 +1,111 @@
+package com.shipsgame.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Locale;
+
+/**
+ * Latency histogram of a single measured operation. Measurements are recorded without locking, from any thread, and
+ * collected into histograms of all measurements and of measurements since the last log line when metrics are read.
+ * When metrics are disabled nothing is allocated and recording does nothing.
+ */
+public enum LatencyMetric implements LatencyMetricMXBean {
+    AI_MOVE("ai move"),
+    AI_SHIPS_PLACEMENT("ai ships placement"),
+    BOARD_RENDER("board render"),
+    GAME_UPDATE("game update"),
+    PROFILE_LOAD("profile load"),
+    PROFILE_SAVE("profile save"),
+    PROFILE_WRITE("profile write");
+
+    // One minute in nanoseconds, longer measurements are recorded as this value. Constants are the only static fields
+    // which constructors of enum constants can use.
+    private static final long HIGHEST_TRACKABLE_LATENCY = 60L * 1000 * 1000 * 1000;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String description;
+    private final Recorder recorder;
+    private final Histogram totalHistogram;
+    private final Histogram logHistogram;
+    // Reused by the recorder for measurements of the next interval
+    private Histogram intervalHistogram;
+
+    LatencyMetric(String description) {
+        this.description = description;
+        if (LatencyMetrics.ENABLED) {
+            this.recorder = new Recorder(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+            this.totalHistogram = new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+            this.logHistogram = new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+        } else {
+            this.recorder = null;
+            this.totalHistogram = null;
+            this.logHistogram = null;
+        }
+    }
+
+    /**
+     * Record latency of an operation which started at given time.
+     *
+     * @param startTime value returned by {@link LatencyMetrics#startTime()} when the operation started
+     */
+    public void record(long startTime) {
+        if (LatencyMetrics.ENABLED) {
+            recorder.recordValue(Math.min(System.nanoTime() - startTime, HIGHEST_TRACKABLE_LATENCY));
+        }
+    }
+
+    @Override
+    public synchronized long getCount() {
+        collect();
+        return totalHistogram.getTotalCount();
+    }
+
+    @Override
+    public synchronized double getP50Micros() {
+        collect();
+        return toMicros(totalHistogram.getValueAtPercentile(50));
+    }
+
+    @Override
+    public synchronized double getP99Micros() {
+        collect();
+        return toMicros(totalHistogram.getValueAtPercentile(99));
+    }
+
+    @Override
+    public synchronized double getMaxMicros() {
+        collect();
+        return toMicros(totalHistogram.getMaxValue());
+    }
+
+    /**
+     * Describe measurements since the previous call and start a new log interval.
+     *
+     * @return description of measurements or null if there weren't any
+     */
+    synchronized String takeLogEntry() {
+        collect();
+        if (logHistogram.getTotalCount() == 0) {
+            return null;
+        }
+        String logEntry = String.format(Locale.US, "%s n=%d p50=%.1fus p99=%.1fus max=%.1fus", description,
+                logHistogram.getTotalCount(), toMicros(logHistogram.getValueAtPercentile(50)),
+                toMicros(logHistogram.getValueAtPercentile(99)), toMicros(logHistogram.getMaxValue()));
+        logHistogram.reset();
+        return logEntry;
+    }
+
+    /**
+     * Move measurements recorded since the previous call to both histograms.
+     */
+    private void collect() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        totalHistogram.add(intervalHistogram);
+        logHistogram.add(intervalHistogram);
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
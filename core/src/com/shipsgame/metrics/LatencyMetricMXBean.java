@@ -0,0 +1,18 @@
+package com.shipsgame.metrics;
+
+/**
+ * Latency of a measured operation, exported through JMX. Values describe all measurements since metrics were enabled.
+ */
+public interface LatencyMetricMXBean {
+
+    /**
+     * @return amount of measured operations
+     */
+    long getCount();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+}
@@ -0,0 +1,104 @@
+package com.shipsgame.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Switch and export of {@link LatencyMetric}s. Metrics are enabled with system property {@value #ENABLED_PROPERTY}
+ * set to true when the game starts. Measured code calls:
+ * <pre>
+ * long startTime = LatencyMetrics.startTime();
+ * ...
+ * LatencyMetric.AI_MOVE.record(startTime);
+ * </pre>
+ * ENABLED is a constant, so when metrics are disabled the JIT compiler removes both calls and measured code runs
+ * as if it wasn't measured.
+ * Enabled metrics are exported as MBeans named {@value #OBJECT_NAME_PREFIX}&lt;metric&gt; and logged every
+ * {@value #LOG_INTERVAL_PROPERTY} seconds, {@value #DEFAULT_LOG_INTERVAL_SECONDS} by default.
+ */
+public final class LatencyMetrics {
+
+    public static final String ENABLED_PROPERTY = "shipsgame.metrics";
+    public static final String LOG_INTERVAL_PROPERTY = "shipsgame.metrics.logIntervalSeconds";
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final String OBJECT_NAME_PREFIX = "com.shipsgame:type=LatencyMetric,name=";
+    private static final long DEFAULT_LOG_INTERVAL_SECONDS = 60;
+
+    private static ScheduledExecutorService logger;
+
+    private LatencyMetrics() {
+    }
+
+    /**
+     * @return start time of a measured operation, to be passed to {@link LatencyMetric#record(long)}
+     */
+    public static long startTime() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Register MBeans of all metrics and start logging them periodically, if metrics are enabled.
+     */
+    public static synchronized void export() {
+        if (!ENABLED || logger != null) {
+            return;
+        }
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (LatencyMetric latencyMetric : LatencyMetric.values()) {
+            try {
+                ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + latencyMetric.name());
+                if (!mBeanServer.isRegistered(objectName)) {
+                    mBeanServer.registerMBean(new StandardMBean(latencyMetric, LatencyMetricMXBean.class, true), objectName);
+                }
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+
+        long logIntervalSeconds = Long.getLong(LOG_INTERVAL_PROPERTY, DEFAULT_LOG_INTERVAL_SECONDS);
+        logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Latency metrics");
+            // Logging never keeps the game running
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleAtFixedRate(LatencyMetrics::log, logIntervalSeconds, logIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop logging metrics, logging measurements made since the last log line.
+     */
+    public static synchronized void close() {
+        if (logger == null) {
+            return;
+        }
+        logger.shutdownNow();
+        logger = null;
+        log();
+    }
+
+    /**
+     * Print a single line with measurements of all metrics since the previous line.
+     */
+    private static void log() {
+        StringJoiner logLine = new StringJoiner("; ", "Latency: ", "");
+        logLine.setEmptyValue("");
+        for (LatencyMetric latencyMetric : LatencyMetric.values()) {
+            String logEntry = latencyMetric.takeLogEntry();
+            if (logEntry != null) {
+                logLine.add(logEntry);
+            }
+        }
+        if (logLine.length() > 0) {
+            System.out.println(logLine);
+        }
+    }
+}
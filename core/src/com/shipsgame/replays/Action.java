@@ -4,8 +4,13 @@ import com.shipsgame.utilities.Pair;
 
 import java.io.Serializable;
 
+/**
+ * Action of a replay serialized before {@link ReplayCodec} was introduced, replays keep actions packed.
+ */
 public class Action implements Serializable {
 
+    private static final long serialVersionUID = -6235262388601435805L;
+
     private ActionType actionType;
     private Pair actionTileIndices;
 
@@ -15,12 +20,6 @@ public class Action implements Serializable {
         this.actionTileIndices = actionTileIndices;
     }
 
-    @SuppressWarnings("IncompleteCopyConstructor")
-    public Action(Action other) {
-        this.actionType = other.actionType;
-        this.actionTileIndices = new Pair(other.actionTileIndices);
-    }
-
     public ActionType getActionType() {
         return actionType;
     }
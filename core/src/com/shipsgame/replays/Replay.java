@@ -1,82 +1,175 @@
 package com.shipsgame.replays;
 
+import com.shipsgame.Ruleset;
 import com.shipsgame.Ship;
-import com.shipsgame.map.Symbol;
-import com.shipsgame.map.Tile;
+import com.shipsgame.utilities.Pair;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Stack;
 
-public class Replay implements Serializable {
+/**
+ * Recorded game, created by {@link ReplayRecorder} and played with {@link ReplayCursor}. Replays are immutable,
+ * so they can be played any number of times without being copied.
+ * Replays are serialized in the compact format of {@link ReplayCodec}, replays serialized before it was introduced
+ * are still read with default serialization.
+ */
+public final class Replay implements Serializable {
 
-    private static final float TIME_BETWEEN_ACTION_CHANGE = 0.5f;
+    private static final long serialVersionUID = 2477443870959663730L;
+    private static final int ACTION_TYPE_BITS = 2;
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
 
-    private String creationDateString;
-    private List<Ship> playerShipsList;
-    private Stack<Action> actionsStack;
-    private float timer;
+    private final String creationDateString;
+    // Creation time in milliseconds, 0 for replays recorded before it was stored
+    private final long creationTime;
+    private final List<Ship> playerShipsList;
+    // Seed of the recorded game, null for replays recorded before seeds were stored
+    private final Long seed;
+    // Ruleset of the recorded game, null only while a replay recorded before rulesets were stored is read
+    private final Ruleset ruleset;
+    // Actions packed by packAction, in the order in which they were recorded
+    private final transient int[] actions;
+    // Actions of replays serialized before ReplayCodec was introduced, set only while such a replay is read
+    private final Stack<Action> actionsStack;
 
-    public Replay() {
-        this.actionsStack = new Stack<>();
-        this.timer = 0;
+    /**
+     * @param seed               seed of the recorded game or null if it is unknown
+     * @param ruleset            ruleset of the recorded game
+     * @param creationTime       creation time in milliseconds or 0 if it is unknown
+     * @param creationDateString creation date displayed to the player, used only if creation time is unknown
+     * @param playerShipsList    ships of the player, not modified later, or null if they are unknown
+     * @param actions            packed actions, not modified later
+     */
+    Replay(Long seed, Ruleset ruleset, long creationTime, String creationDateString, List<Ship> playerShipsList, int[] actions) {
+        this.seed = seed;
+        this.ruleset = ruleset;
+        this.creationTime = creationTime;
+        this.creationDateString = creationTime != 0 ? new Date(creationTime).toString() : creationDateString;
+        this.playerShipsList = playerShipsList != null ? Collections.unmodifiableList(playerShipsList) : null;
+        this.actions = actions;
+        this.actionsStack = null;
     }
 
-    @SuppressWarnings("IncompleteCopyConstructor")
-    public Replay(Replay other) {
-        this.creationDateString = other.creationDateString;
-        this.playerShipsList = other.playerShipsList;
-        this.actionsStack = new Stack<>();
-        for (int i = other.actionsStack.size() - 1; i >= 0; i--) {
-            this.actionsStack.add(new Action(other.actionsStack.get(i)));
-        }
-        this.timer = 0;
+    /**
+     * @return seed of the recorded game or null if the replay was recorded before seeds were stored
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return size of the board and composition of fleets of the recorded game
+     */
+    public Ruleset getRuleset() {
+        return ruleset;
     }
 
     public String getCreationDateString() {
         return creationDateString;
     }
 
-    public void setCreationDateString(String creationDateString) {
-
-        this.creationDateString = creationDateString;
+    /**
+     * @return creation time in milliseconds or 0 if the replay was recorded before it was stored
+     */
+    public long getCreationTime() {
+        return creationTime;
     }
 
+    /**
+     * @return unmodifiable list of player ships or null if they are unknown
+     */
     public List<Ship> getPlayerShipsList() {
         return playerShipsList;
     }
 
-    public void setPlayerShipsList(List<Ship> playerShipsList) {
-        this.playerShipsList = playerShipsList;
+    public int getActionsAmount() {
+        return actions.length;
+    }
+
+    /**
+     * @param actionIndex index of the action, 0 is the first recorded action
+     */
+    public ActionType getActionType(int actionIndex) {
+        return unpackActionType(actions[actionIndex]);
+    }
+
+    /**
+     * @param actionIndex index of the action, 0 is the first recorded action
+     * @return index of the tile used in the action, as used by the {@link Ruleset} of the replay
+     */
+    public int getActionTileIndex(int actionIndex) {
+        return unpackTileIndex(actions[actionIndex]);
+    }
+
+    static int packAction(ActionType actionType, int tileIndex) {
+        return (tileIndex << ACTION_TYPE_BITS) | actionType.ordinal();
+    }
+
+    static ActionType unpackActionType(int packedAction) {
+        return ACTION_TYPES[packedAction & ((1 << ACTION_TYPE_BITS) - 1)];
     }
 
-    public void addAction(Action action) {
-        this.actionsStack.push(action);
+    static int unpackTileIndex(int packedAction) {
+        return packedAction >>> ACTION_TYPE_BITS;
     }
 
-    public void update(float delta, Tile[][] mapArray) {
-        if (!actionsStack.empty()) {
-            this.timer += delta;
-            if (this.timer >= TIME_BETWEEN_ACTION_CHANGE) {
-                this.timer = 0;
-                Action currentAction = actionsStack.pop();
-                int actionIndexX = currentAction.getActionTileIndices().getIndexX();
-                int actionIndexY = currentAction.getActionTileIndices().getIndexY();
-
-                if (currentAction.getActionType() == ActionType.PLAYER_SHOT || currentAction.getActionType() == ActionType.PLAYER_MISS_SHOT) {
-                    if (currentAction.getActionType() == ActionType.PLAYER_SHOT) {
-                        mapArray[actionIndexY][actionIndexX].setPlayerInfoSymbol(Symbol.SUCCESSFUL_HIT);
-                    } else if (currentAction.getActionType() == ActionType.PLAYER_MISS_SHOT) {
-                        mapArray[actionIndexY][actionIndexX].setPlayerInfoSymbol(Symbol.FAILED_HIT);
-                    }
-                } else {
-                    if (currentAction.getActionType() == ActionType.AI_SHOT) {
-                        mapArray[actionIndexY][actionIndexX].setAiInfoSymbol(Symbol.SUCCESSFUL_HIT);
-                    } else if (currentAction.getActionType() == ActionType.AI_MISS_SHOT) {
-                        mapArray[actionIndexY][actionIndexX].setAiInfoSymbol(Symbol.FAILED_HIT);
-                    }
-                }
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializedReplay(this);
+    }
+
+    /**
+     * Replays serialized before ReplayCodec was introduced kept actions in a stack, with the first action
+     * at the bottom, and were always played with the default ruleset.
+     *
+     * @return replay with packed actions
+     */
+    private Object readResolve() throws ObjectStreamException {
+        List<Action> legacyActions = actionsStack != null ? actionsStack : new ArrayList<>();
+        int[] packedActions = new int[legacyActions.size()];
+        for (int i = 0; i < packedActions.length; i++) {
+            Pair tileIndices = legacyActions.get(i).getActionTileIndices();
+            packedActions[i] = packAction(legacyActions.get(i).getActionType(),
+                    Ruleset.DEFAULT.toIndex(tileIndices.getIndexX(), tileIndices.getIndexY()));
+        }
+        return new Replay(seed, Ruleset.DEFAULT, creationTime, creationDateString, playerShipsList, packedActions);
+    }
+
+    /**
+     * Serialized form of a replay, holding the replay encoded with {@link ReplayCodec}.
+     */
+    private static class SerializedReplay implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] encodedReplay;
+
+        private SerializedReplay(Replay replay) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                ReplayCodec.encode(replay, out);
+            } catch (IOException e) {
+                // Writing to a byte array never fails
+                throw new UncheckedIOException(e);
+            }
+            this.encodedReplay = out.toByteArray();
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            try {
+                return ReplayCodec.decode(new ByteArrayInputStream(encodedReplay));
+            } catch (IOException e) {
+                throw new InvalidObjectException(e.getMessage());
             }
         }
     }
-}
\ No newline at end of file
+}
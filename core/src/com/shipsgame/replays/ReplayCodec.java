@@ -0,0 +1,292 @@
+package com.shipsgame.replays;
+
+import com.shipsgame.FleetComposition;
+import com.shipsgame.Ruleset;
+import com.shipsgame.RulesetCodec;
+import com.shipsgame.Ship;
+import com.shipsgame.map.BitBoard;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, versioned binary format of replays. Layout of a single encoded replay:
+ * <ul>
+ * <li>format version (1 byte) and flags of optional fields (1 byte)</li>
+ * <li>seed of the game (8 bytes, optional)</li>
+ * <li>creation time in milliseconds (8 bytes, optional) or creation date string of old replays (optional)</li>
+ * <li>ruleset of the game written by {@link RulesetCodec}, if it isn't the default one (optional)</li>
+ * <li>player fleet (optional), for the default ruleset as a mask of ship tiles, one bit per map tile, otherwise
+ * as amount of ships (1 byte) followed by start and end tile index of every ship (4 bytes each), the start being
+ * the top left end</li>
+ * <li>amount of actions (4 bytes) followed by actions packed into groups of bits, 2 bits of {@link ActionType}
+ * and as many bits of tile index as needed for tiles of the board, 7 for the default ruleset</li>
+ * </ul>
+ * Replays of version 1 were always played with the default ruleset and stored amount of actions in 2 bytes.
+ * Decoding reads exactly the bytes written by encoding, so many replays can be stored one after another
+ * in the same stream. Streams are never closed by the codec.
+ */
+public final class ReplayCodec {
+
+    public static final int VERSION = 2;
+    private static final int DEFAULT_RULESET_VERSION = 1;
+
+    private static final int HAS_SEED = 1;
+    private static final int HAS_CREATION_TIME = 1 << 1;
+    private static final int HAS_CREATION_DATE_STRING = 1 << 2;
+    private static final int HAS_SHIPS = 1 << 3;
+    private static final int HAS_RULESET = 1 << 4;
+    private static final int ACTION_TYPE_BITS = 2;
+    private static final int FLEET_MASK_BYTES = (Ruleset.DEFAULT.getTilesAmount() + Byte.SIZE - 1) / Byte.SIZE;
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+
+    private ReplayCodec() {
+    }
+
+    /**
+     * Write given replay to the stream.
+     *
+     * @param replay replay to be encoded
+     * @param out    stream to which the replay is written
+     */
+    public static void encode(Replay replay, OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        int flags = 0;
+        if (replay.getSeed() != null) {
+            flags |= HAS_SEED;
+        }
+        if (replay.getCreationTime() != 0) {
+            flags |= HAS_CREATION_TIME;
+        } else if (replay.getCreationDateString() != null) {
+            flags |= HAS_CREATION_DATE_STRING;
+        }
+        if (replay.getPlayerShipsList() != null) {
+            flags |= HAS_SHIPS;
+        }
+        Ruleset ruleset = replay.getRuleset();
+        boolean defaultRuleset = ruleset.equals(Ruleset.DEFAULT);
+        if (!defaultRuleset) {
+            flags |= HAS_RULESET;
+        }
+
+        dataOut.writeByte(VERSION);
+        dataOut.writeByte(flags);
+        if ((flags & HAS_SEED) != 0) {
+            dataOut.writeLong(replay.getSeed());
+        }
+        if ((flags & HAS_CREATION_TIME) != 0) {
+            dataOut.writeLong(replay.getCreationTime());
+        } else if ((flags & HAS_CREATION_DATE_STRING) != 0) {
+            dataOut.writeUTF(replay.getCreationDateString());
+        }
+        if ((flags & HAS_RULESET) != 0) {
+            RulesetCodec.write(dataOut, ruleset);
+        }
+        if ((flags & HAS_SHIPS) != 0) {
+            if (defaultRuleset) {
+                dataOut.write(encodeFleetMask(replay.getPlayerShipsList()));
+            } else {
+                writeShips(dataOut, replay.getPlayerShipsList(), ruleset);
+            }
+        }
+
+        dataOut.writeInt(replay.getActionsAmount());
+        // Actions are packed into consecutive groups of bits, the first action in the highest bits of the first byte
+        int tileIndexBits = getTileIndexBits(ruleset);
+        int actionBits = ACTION_TYPE_BITS + tileIndexBits;
+        int buffer = 0;
+        int bufferedBits = 0;
+        for (int i = 0; i < replay.getActionsAmount(); i++) {
+            buffer = (buffer << actionBits) | (replay.getActionType(i).ordinal() << tileIndexBits) | replay.getActionTileIndex(i);
+            bufferedBits += actionBits;
+            while (bufferedBits >= Byte.SIZE) {
+                bufferedBits -= Byte.SIZE;
+                dataOut.writeByte(buffer >>> bufferedBits);
+            }
+        }
+        if (bufferedBits > 0) {
+            dataOut.writeByte(buffer << (Byte.SIZE - bufferedBits));
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * Read a single replay from the stream.
+     *
+     * @param in stream containing replay written by {@link #encode(Replay, OutputStream)}
+     * @return decoded replay
+     * @throws IOException if the stream ends early or doesn't contain a valid replay
+     */
+    public static Replay decode(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        int version = dataIn.readUnsignedByte();
+        if (version != VERSION && version != DEFAULT_RULESET_VERSION) {
+            throw new IOException("Unsupported replay format version: " + version);
+        }
+        int flags = dataIn.readUnsignedByte();
+        if (version == DEFAULT_RULESET_VERSION && (flags & HAS_RULESET) != 0) {
+            throw new IOException("Ruleset stored in replay of version " + version);
+        }
+
+        Long seed = (flags & HAS_SEED) != 0 ? dataIn.readLong() : null;
+        long creationTime = 0;
+        String creationDateString = null;
+        if ((flags & HAS_CREATION_TIME) != 0) {
+            creationTime = dataIn.readLong();
+        } else if ((flags & HAS_CREATION_DATE_STRING) != 0) {
+            creationDateString = dataIn.readUTF();
+        }
+        Ruleset ruleset = (flags & HAS_RULESET) != 0 ? RulesetCodec.read(dataIn) : Ruleset.DEFAULT;
+        boolean defaultRuleset = ruleset.equals(Ruleset.DEFAULT);
+        List<Ship> playerShipsList = null;
+        if ((flags & HAS_SHIPS) != 0) {
+            if (defaultRuleset) {
+                byte[] fleetMask = new byte[FLEET_MASK_BYTES];
+                dataIn.readFully(fleetMask);
+                playerShipsList = decodeFleetMask(fleetMask, ruleset);
+            } else {
+                playerShipsList = readShips(dataIn, ruleset);
+            }
+        }
+
+        int actionsAmount = version == DEFAULT_RULESET_VERSION ? dataIn.readUnsignedShort() : dataIn.readInt();
+        // Every tile is attacked at most once by each side
+        if (actionsAmount < 0 || actionsAmount > 2 * ruleset.getTilesAmount()) {
+            throw new IOException("Invalid amount of replay actions: " + actionsAmount);
+        }
+        int tileIndexBits = getTileIndexBits(ruleset);
+        int actionBits = ACTION_TYPE_BITS + tileIndexBits;
+        int[] actions = new int[actionsAmount];
+        int buffer = 0;
+        int bufferedBits = 0;
+        for (int i = 0; i < actions.length; i++) {
+            while (bufferedBits < actionBits) {
+                buffer = (buffer << Byte.SIZE) | dataIn.readUnsignedByte();
+                bufferedBits += Byte.SIZE;
+            }
+            bufferedBits -= actionBits;
+            int packedAction = (buffer >>> bufferedBits) & ((1 << actionBits) - 1);
+            int tileIndex = packedAction & ((1 << tileIndexBits) - 1);
+            if (tileIndex >= ruleset.getTilesAmount()) {
+                throw new IOException("Invalid tile index of replay action: " + tileIndex);
+            }
+            actions[i] = Replay.packAction(ACTION_TYPES[packedAction >>> tileIndexBits], tileIndex);
+        }
+        return new Replay(seed, ruleset, creationTime, creationDateString, playerShipsList, actions);
+    }
+
+    /**
+     * @return amount of bits needed to store index of any tile of the board
+     */
+    private static int getTileIndexBits(Ruleset ruleset) {
+        return Math.max(Integer.SIZE - Integer.numberOfLeadingZeros(ruleset.getTilesAmount() - 1), 1);
+    }
+
+    private static void writeShips(DataOutputStream dataOut, List<Ship> ships, Ruleset ruleset) throws IOException {
+        dataOut.writeByte(ships.size());
+        for (Ship ship : ships) {
+            dataOut.writeInt(ship.getTileIndex(0, ruleset));
+            dataOut.writeInt(ship.getTileIndex(ship.getShipSize() - 1, ruleset));
+        }
+    }
+
+    private static List<Ship> readShips(DataInputStream dataIn, Ruleset ruleset) throws IOException {
+        int shipsAmount = dataIn.readUnsignedByte();
+        List<Ship> ships = new ArrayList<>(shipsAmount);
+        int[] remainingShipsAmounts = countShipSizes(ruleset.getFleetComposition());
+        for (int i = 0; i < shipsAmount; i++) {
+            int startTileIndex = dataIn.readInt();
+            int endTileIndex = dataIn.readInt();
+            if (startTileIndex < 0 || startTileIndex >= ruleset.getTilesAmount()
+                    || endTileIndex < 0 || endTileIndex >= ruleset.getTilesAmount()) {
+                throw new IOException("Invalid tile index of replay ship: " + startTileIndex + ", " + endTileIndex);
+            }
+            ships.add(createShip(ruleset.toIndexX(startTileIndex), ruleset.toIndexY(startTileIndex),
+                    ruleset.toIndexX(endTileIndex), ruleset.toIndexY(endTileIndex), remainingShipsAmounts));
+        }
+        return ships;
+    }
+
+    private static byte[] encodeFleetMask(List<Ship> ships) {
+        BitBoard shipTiles = new BitBoard(Ruleset.DEFAULT);
+        for (Ship ship : ships) {
+            ship.markTiles(shipTiles);
+        }
+        byte[] fleetMask = new byte[FLEET_MASK_BYTES];
+        for (int i = shipTiles.nextTile(0); i >= 0; i = shipTiles.nextTile(i + 1)) {
+            fleetMask[i / Byte.SIZE] |= 1 << (i % Byte.SIZE);
+        }
+        return fleetMask;
+    }
+
+    /**
+     * Rebuild ships from the mask of their tiles. Ships never touch each other, so every straight line of tiles
+     * is a separate ship.
+     *
+     * @throws IOException if the mask contains ships which aren't a part of the fleet of the ruleset
+     */
+    private static List<Ship> decodeFleetMask(byte[] fleetMask, Ruleset ruleset) throws IOException {
+        BitBoard shipTiles = new BitBoard(ruleset);
+        for (int i = 0; i < ruleset.getTilesAmount(); i++) {
+            if ((fleetMask[i / Byte.SIZE] & (1 << (i % Byte.SIZE))) != 0) {
+                shipTiles.set(i);
+            }
+        }
+
+        List<Ship> ships = new ArrayList<>();
+        int[] remainingShipsAmounts = countShipSizes(ruleset.getFleetComposition());
+        // Tiles are visited in index order, so the first tile of every ship found is its top left end
+        for (int i = shipTiles.nextTile(0); i >= 0; i = shipTiles.nextTile(i + 1)) {
+            int startX = ruleset.toIndexX(i);
+            int startY = ruleset.toIndexY(i);
+            int endX = startX;
+            int endY = startY;
+            while (ruleset.isOnMap(endX + 1, startY) && shipTiles.get(ruleset.toIndex(endX + 1, startY))) {
+                shipTiles.clear(ruleset.toIndex(++endX, startY));
+            }
+            if (endX == startX) {
+                while (ruleset.isOnMap(startX, endY + 1) && shipTiles.get(ruleset.toIndex(startX, endY + 1))) {
+                    shipTiles.clear(ruleset.toIndex(startX, ++endY));
+                }
+            }
+            ships.add(createShip(startX, startY, endX, endY, remainingShipsAmounts));
+        }
+        return ships;
+    }
+
+    /**
+     * @return amount of ships of every size in the fleet, indexed by ship size
+     */
+    private static int[] countShipSizes(FleetComposition fleetComposition) {
+        int[] shipsAmounts = new int[fleetComposition.getMaxShipSize() + 1];
+        for (int shipSize : fleetComposition.getShipSizes()) {
+            shipsAmounts[shipSize]++;
+        }
+        return shipsAmounts;
+    }
+
+    /**
+     * Create a decoded ship of the player fleet, whose ends are tiles of the board.
+     *
+     * @param remainingShipsAmounts amount of ships of every size not decoded yet, reduced for the created ship
+     * @throws IOException if the ends aren't in one row or column with the start first, or no more ships of the ship
+     *                     size are left in the fleet
+     */
+    private static Ship createShip(int startX, int startY, int endX, int endY, int[] remainingShipsAmounts)
+            throws IOException {
+        if (startX != endX && startY != endY || endX < startX || endY < startY) {
+            throw new IOException("Invalid replay ship: " + startX + "," + startY + " to " + endX + "," + endY);
+        }
+        int shipSize = endX - startX + endY - startY + 1;
+        if (shipSize >= remainingShipsAmounts.length || remainingShipsAmounts[shipSize] == 0) {
+            throw new IOException("Replay ship of size " + shipSize + " isn't a part of the fleet");
+        }
+        remainingShipsAmounts[shipSize]--;
+        return new Ship(startX, startY, endX, endY);
+    }
+}
@@ -0,0 +1,162 @@
+package com.shipsgame.replays;
+
+import com.shipsgame.Ship;
+import com.shipsgame.map.Board;
+import com.shipsgame.map.Symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Position in a replay together with the board showing the recorded game at that position. Actions are read
+ * directly from the replay, which is never modified. The board is stored after every KEYFRAME_INTERVAL actions
+ * when the cursor passes it, so any position which was already passed is reached by copying the nearest earlier
+ * keyframe and applying less than KEYFRAME_INTERVAL actions.
+ */
+public class ReplayCursor {
+
+    public static final int MIN_SPEED = 1;
+    public static final int MAX_SPEED = 64;
+    // Time between actions played with speed equal to 1
+    private static final float TIME_BETWEEN_ACTIONS = 0.5f;
+    private static final int KEYFRAME_INTERVAL = 16;
+
+    private final Replay replay;
+    // Keyframe with index i holds the board after i * KEYFRAME_INTERVAL actions
+    private final List<Board> keyframes;
+    private final Board board;
+    // Amount of actions applied to the board
+    private int position;
+    private float timer;
+    private int speed;
+    private boolean paused;
+
+    public ReplayCursor(Replay replay) {
+        this.replay = replay;
+        this.board = new Board(replay.getRuleset());
+        if (replay.getPlayerShipsList() != null) {
+            for (Ship ship : replay.getPlayerShipsList()) {
+                board.markShip(ship);
+            }
+        }
+        this.keyframes = new ArrayList<>();
+        Board firstKeyframe = new Board(replay.getRuleset());
+        firstKeyframe.copyFrom(board);
+        keyframes.add(firstKeyframe);
+
+        this.position = 0;
+        this.timer = 0;
+        this.speed = MIN_SPEED;
+        this.paused = false;
+    }
+
+    /**
+     * @return board showing the recorded game after actions before the current position
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @return amount of actions applied to the board
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public int getActionsAmount() {
+        return replay.getActionsAmount();
+    }
+
+    public boolean isFinished() {
+        return position == replay.getActionsAmount();
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @param speed amount of actions played in the time in which a single action is played with speed equal to 1,
+     *              clamped to range from MIN_SPEED to MAX_SPEED
+     */
+    public void setSpeed(int speed) {
+        this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        this.timer = 0;
+    }
+
+    /**
+     * Play actions which should be played in the elapsed time.
+     *
+     * @param delta time elapsed since the previous update in seconds
+     */
+    public void update(float delta) {
+        if (paused || isFinished()) {
+            return;
+        }
+        this.timer += delta * speed;
+        while (timer >= TIME_BETWEEN_ACTIONS && !isFinished()) {
+            this.timer -= TIME_BETWEEN_ACTIONS;
+            applyNextAction();
+        }
+    }
+
+    /**
+     * Move to the given position, without playing actions between the current and the given position one by one.
+     *
+     * @param position amount of actions to be applied to the board, clamped to range from 0 to amount of actions
+     */
+    public void seek(int position) {
+        position = Math.max(0, Math.min(replay.getActionsAmount(), position));
+        int keyframe = Math.min(position / KEYFRAME_INTERVAL, keyframes.size() - 1);
+        // Moving forward doesn't need a keyframe, unless a keyframe closer to the position was already stored
+        if (position < this.position || keyframe > this.position / KEYFRAME_INTERVAL) {
+            board.copyFrom(keyframes.get(keyframe));
+            this.position = keyframe * KEYFRAME_INTERVAL;
+        }
+        while (this.position < position) {
+            applyNextAction();
+        }
+        this.timer = 0;
+    }
+
+    public void stepForward() {
+        seek(position + 1);
+    }
+
+    public void stepBackward() {
+        seek(position - 1);
+    }
+
+    private void applyNextAction() {
+        int tileIndex = replay.getActionTileIndex(position);
+        switch (replay.getActionType(position)) {
+            case PLAYER_SHOT:
+                board.setPlayerInfoSymbol(tileIndex, Symbol.SUCCESSFUL_HIT);
+                break;
+            case PLAYER_MISS_SHOT:
+                board.setPlayerInfoSymbol(tileIndex, Symbol.FAILED_HIT);
+                break;
+            case AI_SHOT:
+                board.setAiInfoSymbol(tileIndex, Symbol.SUCCESSFUL_HIT);
+                break;
+            case AI_MISS_SHOT:
+                board.setAiInfoSymbol(tileIndex, Symbol.FAILED_HIT);
+                break;
+        }
+        position++;
+        if (position % KEYFRAME_INTERVAL == 0 && position / KEYFRAME_INTERVAL == keyframes.size()) {
+            Board keyframe = new Board(replay.getRuleset());
+            keyframe.copyFrom(board);
+            keyframes.add(keyframe);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.shipsgame.replays;
+
+import java.util.Date;
+
+/**
+ * Entry of the {@link ReplayStore} index, describing a stored replay without reading it.
+ */
+public class ReplayIndexEntry {
+
+    // Position of the encoded replay in the segment file
+    private final long offset;
+    // Length of the encoded replay in bytes
+    private final int length;
+    // Creation time in milliseconds, 0 if unknown
+    private final long creationTime;
+    private final boolean playerWon;
+
+    ReplayIndexEntry(long offset, int length, long creationTime, boolean playerWon) {
+        this.offset = offset;
+        this.length = length;
+        this.creationTime = creationTime;
+        this.playerWon = playerWon;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * @return creation time in milliseconds or 0 if it is unknown
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @return creation date displayed to the player
+     */
+    public String getCreationDateString() {
+        return creationTime != 0 ? new Date(creationTime).toString() : "Unknown date";
+    }
+
+    public boolean didPlayerWin() {
+        return playerWon;
+    }
+}
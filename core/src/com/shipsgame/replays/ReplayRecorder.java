@@ -0,0 +1,130 @@
+package com.shipsgame.replays;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records a game being played and creates its {@link Replay} when the game is finished. Recorder is saved
+ * together with a resumed game.
+ */
+public class ReplayRecorder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_ACTIONS_CAPACITY = 64;
+
+    // Seed of the recorded game, null if the game was started before seeds were stored
+    private final Long seed;
+    // Ruleset of the recorded game, null for recorders saved before rulesets were stored
+    private Ruleset ruleset;
+    private List<Ship> playerShipsList;
+    // Actions packed by Replay.packAction, first actionsAmount of them are recorded
+    private int[] actions;
+    private int actionsAmount;
+
+    /**
+     * @param seed    seed of the recorded game
+     * @param ruleset ruleset of the recorded game
+     */
+    public ReplayRecorder(long seed, Ruleset ruleset) {
+        this.seed = seed;
+        this.ruleset = ruleset;
+        this.actions = new int[INITIAL_ACTIONS_CAPACITY];
+        this.actionsAmount = 0;
+    }
+
+    /**
+     * Continue recording of a game which was recorded directly into a replay, before recorders were introduced.
+     *
+     * @param replay replay of the game recorded so far
+     */
+    public ReplayRecorder(Replay replay) {
+        this.seed = replay.getSeed();
+        this.ruleset = replay.getRuleset();
+        if (replay.getPlayerShipsList() != null) {
+            setPlayerShipsList(replay.getPlayerShipsList());
+        }
+        this.actions = new int[Math.max(INITIAL_ACTIONS_CAPACITY, replay.getActionsAmount())];
+        this.actionsAmount = 0;
+        for (int i = 0; i < replay.getActionsAmount(); i++) {
+            addAction(replay.getActionType(i), replay.getActionTileIndex(i));
+        }
+    }
+
+    /**
+     * @return seed of the recorded game or null if the game was started before seeds were stored
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return ruleset of the recorded game
+     */
+    public Ruleset getRuleset() {
+        return ruleset;
+    }
+
+    /**
+     * @param playerShipsList ships of the player placed before the first action, they are copied, so damage done
+     *                        to them during the game isn't recorded
+     */
+    public void setPlayerShipsList(List<Ship> playerShipsList) {
+        this.playerShipsList = new ArrayList<>(playerShipsList.size());
+        for (Ship ship : playerShipsList) {
+            this.playerShipsList.add(new Ship(ship));
+        }
+    }
+
+    /**
+     * @param actionType type of the recorded action
+     * @param tileIndex  index of the tile used in the action, as used by the {@link Ruleset} of the game
+     */
+    public void addAction(ActionType actionType, int tileIndex) {
+        if (actionsAmount == actions.length) {
+            this.actions = Arrays.copyOf(actions, actions.length * 2);
+        }
+        actions[actionsAmount++] = Replay.packAction(actionType, tileIndex);
+    }
+
+    public int getActionsAmount() {
+        return actionsAmount;
+    }
+
+    /**
+     * @param actionIndex index of the action, 0 is the first recorded action
+     */
+    public ActionType getActionType(int actionIndex) {
+        return Replay.unpackActionType(actions[actionIndex]);
+    }
+
+    /**
+     * @param actionIndex index of the action, 0 is the first recorded action
+     * @return index of the tile used in the action, as used by the {@link Ruleset} of the game
+     */
+    public int getActionTileIndex(int actionIndex) {
+        return Replay.unpackTileIndex(actions[actionIndex]);
+    }
+
+    /**
+     * @param creationTime creation time of the replay in milliseconds
+     * @return replay of the game recorded so far
+     */
+    public Replay createReplay(long creationTime) {
+        return new Replay(seed, ruleset, creationTime, null, playerShipsList, Arrays.copyOf(actions, actionsAmount));
+    }
+
+    /**
+     * Games recorded before rulesets were stored were played with the default ruleset.
+     */
+    private Object readResolve() {
+        if (ruleset == null) {
+            ruleset = Ruleset.DEFAULT;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,174 @@
+package com.shipsgame.replays;
+
+import com.shipsgame.Ship;
+import com.shipsgame.flightrecorder.ReplayAppendEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays of a single player, kept outside of the player profile. Replays are appended, encoded with
+ * {@link ReplayCodec}, to a segment file which is never rewritten. A separate index file holds fixed size entries
+ * with offsets of replays in the segment file and data needed to list them, so any part of the list can be read
+ * without reading replays or the rest of the index.
+ * A replay is written to the segment file before its index entry, so an interrupted append never leaves an index
+ * entry pointing at missing data.
+ */
+public class ReplayStore {
+
+    private static final String SEGMENT_FILE_EXTENSION = ".replays";
+    private static final String INDEX_FILE_EXTENSION = ".replays.index";
+    // Offset (8 bytes), length (4 bytes), creation time (8 bytes) and result (1 byte) of a replay
+    private static final int INDEX_ENTRY_SIZE = 21;
+    // Format of Date.toString(), used by creation date strings of replays recorded before creation time was stored
+    private static final String LEGACY_DATE_FORMAT = "EEE MMM dd HH:mm:ss zzz yyyy";
+
+    private final File segmentFile;
+    private final File indexFile;
+
+    /**
+     * @param directoryPath path of the directory with player files
+     * @param login         login of the player owning replays
+     */
+    public ReplayStore(String directoryPath, String login) {
+        this.segmentFile = new File(directoryPath, login + SEGMENT_FILE_EXTENSION);
+        this.indexFile = new File(directoryPath, login + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * @return amount of stored replays
+     */
+    public synchronized int getReplaysAmount() {
+        // Entry left incomplete by an interrupted append isn't counted
+        return (int) (indexFile.length() / INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * Append replay of a finished game to the store.
+     *
+     * @param replay    replay of the finished game
+     * @param playerWon true if the player won the recorded game
+     */
+    public synchronized void append(Replay replay, boolean playerWon) throws IOException {
+        append(replay, replay.getCreationTime(), playerWon);
+    }
+
+    /**
+     * Append replays recorded before replays were stored outside of player profiles. Both fleets are of the same
+     * composition, so the player won a recorded game if the player hit as many tiles as the own fleet has.
+     * Replays of games finished before the replays are moved are kept after them, so replays already in the store are
+     * always the ones moved before an interrupted move and only the following ones are appended.
+     *
+     * @param replays replays of finished games, oldest first
+     */
+    public synchronized void appendLegacyReplays(List<Replay> replays) throws IOException {
+        SimpleDateFormat legacyDateFormat = new SimpleDateFormat(LEGACY_DATE_FORMAT, Locale.US);
+        for (Replay replay : replays.subList(Math.min(getReplaysAmount(), replays.size()), replays.size())) {
+            int fleetTilesAmount = 0;
+            if (replay.getPlayerShipsList() != null) {
+                for (Ship ship : replay.getPlayerShipsList()) {
+                    fleetTilesAmount += ship.getShipSize();
+                }
+            }
+            int playerHitsAmount = 0;
+            for (int i = 0; i < replay.getActionsAmount(); i++) {
+                if (replay.getActionType(i) == ActionType.PLAYER_SHOT) {
+                    playerHitsAmount++;
+                }
+            }
+
+            long creationTime = replay.getCreationTime();
+            if (creationTime == 0 && replay.getCreationDateString() != null) {
+                try {
+                    creationTime = legacyDateFormat.parse(replay.getCreationDateString()).getTime();
+                } catch (ParseException e) {
+                    // Replay is listed with unknown creation date
+                }
+            }
+            append(replay, creationTime, fleetTilesAmount > 0 && playerHitsAmount >= fleetTilesAmount);
+        }
+    }
+
+    /**
+     * @param firstReplay index of the first replay to read, 0 is the oldest replay
+     * @param amount      maximal amount of entries to read
+     * @return entries of stored replays starting from firstReplay, oldest first
+     */
+    public synchronized List<ReplayIndexEntry> readIndex(int firstReplay, int amount) throws IOException {
+        int entriesAmount = Math.max(0, Math.min(amount, getReplaysAmount() - firstReplay));
+        List<ReplayIndexEntry> entries = new ArrayList<>(entriesAmount);
+        if (entriesAmount == 0) {
+            return entries;
+        }
+        byte[] indexBytes = new byte[entriesAmount * INDEX_ENTRY_SIZE];
+        try (RandomAccessFile in = new RandomAccessFile(indexFile, "r")) {
+            in.seek((long) firstReplay * INDEX_ENTRY_SIZE);
+            in.readFully(indexBytes);
+        }
+        DataInputStream indexIn = new DataInputStream(new ByteArrayInputStream(indexBytes));
+        for (int i = 0; i < entriesAmount; i++) {
+            long offset = indexIn.readLong();
+            int length = indexIn.readInt();
+            long creationTime = indexIn.readLong();
+            boolean playerWon = indexIn.readBoolean();
+            entries.add(new ReplayIndexEntry(offset, length, creationTime, playerWon));
+        }
+        return entries;
+    }
+
+    /**
+     * @param entry index entry of the replay
+     * @return replay described by the entry
+     */
+    public synchronized Replay read(ReplayIndexEntry entry) throws IOException {
+        byte[] encodedReplay = new byte[entry.getLength()];
+        try (RandomAccessFile in = new RandomAccessFile(segmentFile, "r")) {
+            in.seek(entry.getOffset());
+            in.readFully(encodedReplay);
+        }
+        return ReplayCodec.decode(new ByteArrayInputStream(encodedReplay));
+    }
+
+    private void append(Replay replay, long creationTime, boolean playerWon) throws IOException {
+        ReplayAppendEvent replayAppendEvent = new ReplayAppendEvent();
+        replayAppendEvent.begin();
+        ByteArrayOutputStream encodedReplay = new ByteArrayOutputStream();
+        ReplayCodec.encode(replay, encodedReplay);
+
+        long offset;
+        try (FileOutputStream segmentOut = new FileOutputStream(segmentFile, true)) {
+            offset = segmentOut.getChannel().position();
+            encodedReplay.writeTo(segmentOut);
+        }
+
+        // Whole entry is written at once, so only the last entry can be incomplete after a crash
+        ByteArrayOutputStream indexEntry = new ByteArrayOutputStream(INDEX_ENTRY_SIZE);
+        DataOutputStream indexEntryOut = new DataOutputStream(indexEntry);
+        indexEntryOut.writeLong(offset);
+        indexEntryOut.writeInt(encodedReplay.size());
+        indexEntryOut.writeLong(creationTime);
+        indexEntryOut.writeBoolean(playerWon);
+        try (FileOutputStream indexOut = new FileOutputStream(indexFile, true)) {
+            // Entries following an incomplete one would be misaligned, so it is overwritten
+            indexOut.getChannel().truncate((long) getReplaysAmount() * INDEX_ENTRY_SIZE);
+            indexEntry.writeTo(indexOut);
+        }
+        replayAppendEvent.end();
+        if (replayAppendEvent.shouldCommit()) {
+            replayAppendEvent.size = encodedReplay.size();
+            replayAppendEvent.actionsAmount = replay.getActionsAmount();
+            replayAppendEvent.commit();
+        }
+    }
+}
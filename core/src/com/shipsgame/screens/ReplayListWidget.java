@@ -0,0 +1,166 @@
+package com.shipsgame.screens;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.shipsgame.replays.ReplayIndexEntry;
+import com.shipsgame.replays.ReplayStore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * List of replays of the signed in player, placed in a {@link ScrollPane}. Only rows visible in the scroll pane
+ * exist as actors and they are reused while scrolling. Index entries are read from {@link ReplayStore} in pages
+ * around the visible rows and replays are read only when chosen, so the list opens equally fast for any amount
+ * of replays.
+ */
+public class ReplayListWidget extends WidgetGroup {
+
+    // Amount of index entries read at once
+    private static final int INDEX_PAGE_SIZE = 64;
+    // Text of a row with the longest date, used to measure rows
+    private static final String WIDEST_ROW_TEXT = "  Wed Sep 30 00:00:00 CEST 2000 - lost  ";
+
+    private final ShipsGame shipsGame;
+    private final Skin skin;
+    private final ReplayStore replayStore;
+    private final int replaysAmount;
+    private final float rowWidth;
+    private final float rowHeight;
+    // Rows showing visible replays, the first row shows replay with index firstVisibleReplay
+    private final List<TextButton> rows;
+    private int firstVisibleReplay;
+    private int visibleRowsAmount;
+    // Index entries of replays starting with replay with index cachedEntriesStart
+    private List<ReplayIndexEntry> cachedEntries;
+    private int cachedEntriesStart;
+
+    public ReplayListWidget(ShipsGame shipsGame, Skin skin) {
+        this.shipsGame = shipsGame;
+        this.skin = skin;
+        this.replayStore = shipsGame.getReplayStore();
+        this.replaysAmount = replayStore.getReplaysAmount();
+        TextButton measuredRow = new TextButton(WIDEST_ROW_TEXT, skin);
+        this.rowWidth = measuredRow.getPrefWidth();
+        this.rowHeight = measuredRow.getPrefHeight();
+        this.rows = new ArrayList<>();
+        this.firstVisibleReplay = -1;
+        this.visibleRowsAmount = 0;
+        this.cachedEntries = Collections.emptyList();
+        this.cachedEntriesStart = 0;
+    }
+
+    @Override
+    public float getPrefWidth() {
+        return rowWidth;
+    }
+
+    @Override
+    public float getPrefHeight() {
+        return replaysAmount * rowHeight;
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        updateVisibleRows(false);
+    }
+
+    @Override
+    public void layout() {
+        // Rows are placed relative to the top of the widget, which moves when the widget is resized
+        updateVisibleRows(true);
+    }
+
+    /**
+     * Show replays visible in the scroll pane using as few rows as possible.
+     *
+     * @param forceUpdate true if rows have to be placed again even if visible replays didn't change
+     */
+    private void updateVisibleRows(boolean forceUpdate) {
+        if (!(getParent() instanceof ScrollPane)) {
+            return;
+        }
+        ScrollPane scrollPane = (ScrollPane) getParent();
+        int firstReplay = Math.max(0, (int) (scrollPane.getVisualScrollY() / rowHeight));
+        int lastReplay = Math.min(replaysAmount, (int) Math.ceil((scrollPane.getVisualScrollY() + scrollPane.getScrollHeight()) / rowHeight));
+        int rowsAmount = Math.max(0, lastReplay - firstReplay);
+        if (!forceUpdate && firstReplay == firstVisibleReplay && rowsAmount == visibleRowsAmount) {
+            return;
+        }
+        firstVisibleReplay = firstReplay;
+        visibleRowsAmount = rowsAmount;
+
+        while (rows.size() < rowsAmount) {
+            rows.add(createRow(rows.size()));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            TextButton row = rows.get(i);
+            if (i < rowsAmount) {
+                int replayIndex = firstReplay + i;
+                ReplayIndexEntry entry = getEntry(replayIndex);
+                if (entry != null) {
+                    row.setText("  " + entry.getCreationDateString() + " - " + (entry.didPlayerWin() ? "won" : "lost") + "  ");
+                } else {
+                    row.setText("  Replay unavailable  ");
+                }
+                row.setBounds(0, getHeight() - (replayIndex + 1) * rowHeight, getWidth(), rowHeight);
+                row.setVisible(true);
+            } else {
+                row.setVisible(false);
+            }
+        }
+    }
+
+    /**
+     * @param rowIndex index of the row counted from the first visible row
+     * @return new row opening replay shown in it when clicked
+     */
+    private TextButton createRow(int rowIndex) {
+        TextButton row = new TextButton("", skin);
+        row.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                ReplayIndexEntry entry = getEntry(firstVisibleReplay + rowIndex);
+                if (entry == null) {
+                    return;
+                }
+                try {
+                    shipsGame.setCurrentReplay(replayStore.read(entry));
+                    shipsGame.activateReplayerScreen();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        addActor(row);
+        return row;
+    }
+
+    /**
+     * @param replayIndex index of the replay, 0 is the oldest replay
+     * @return index entry of the replay or null if it couldn't be read
+     */
+    private ReplayIndexEntry getEntry(int replayIndex) {
+        if (replayIndex < cachedEntriesStart || replayIndex >= cachedEntriesStart + cachedEntries.size()) {
+            // Read entries before the replay too, so scrolling in any direction doesn't read the index at every row
+            cachedEntriesStart = Math.max(0, replayIndex - INDEX_PAGE_SIZE / 4);
+            try {
+                cachedEntries = replayStore.readIndex(cachedEntriesStart, INDEX_PAGE_SIZE);
+            } catch (IOException e) {
+                e.printStackTrace();
+                cachedEntries = Collections.emptyList();
+            }
+            if (replayIndex >= cachedEntriesStart + cachedEntries.size()) {
+                return null;
+            }
+        }
+        return cachedEntries.get(replayIndex - cachedEntriesStart);
+    }
+}
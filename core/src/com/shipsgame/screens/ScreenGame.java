@@ -17,12 +17,15 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.shipsgame.PlayerProfile;
+import com.shipsgame.Ruleset;
 import com.shipsgame.map.Map;
+import com.shipsgame.metrics.LatencyMetric;
+import com.shipsgame.metrics.LatencyMetrics;
+import com.shipsgame.replays.Replay;
+import com.shipsgame.replays.ReplayStore;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.util.Date;
 
 public class ScreenGame extends ScreenAdapter {
 
@@ -47,9 +50,7 @@ public class ScreenGame extends ScreenAdapter {
         this.shipsGame = shipsGame;
 
         camera = new OrthographicCamera();
-        camera.setToOrtho(true, Map.COLUMNS_AMOUNT * Map.TILE_WIDTH, Map.ROWS_AMOUNT * Map.TILE_HEIGHT);
-        camera.position.x = camera.viewportWidth / 2;
-        camera.position.y = camera.viewportHeight / 2;
+        setUpCamera(Ruleset.DEFAULT);
 
         // Set up for displaying messages during game
         stage = new Stage(new ScreenViewport(new OrthographicCamera(Gdx.graphics.getWidth(), Gdx.graphics.getHeight())));
@@ -89,17 +90,31 @@ public class ScreenGame extends ScreenAdapter {
         confirmButton.setVisible(false);
         this.map = new Map();
         this.mapInitialized = true;
+        shipsGame.getGameJournal().begin(map);
+        setUpCamera(map.getRuleset());
     }
 
     public void initializeMap(Map map) {
         this.map = map;
         this.mapInitialized = true;
+        shipsGame.getGameJournal().begin(map);
+        setUpCamera(map.getRuleset());
+    }
+
+    /**
+     * Make the camera show the whole board of given ruleset.
+     */
+    private void setUpCamera(Ruleset ruleset) {
+        camera.setToOrtho(true, ruleset.getColumnsAmount() * Map.TILE_WIDTH, ruleset.getRowsAmount() * Map.TILE_HEIGHT);
+        camera.position.x = camera.viewportWidth / 2;
+        camera.position.y = camera.viewportHeight / 2;
     }
 
     private void update(float delta) {
         if (gameRunning) {
-            // Handle user mouse click input
+            // Handle user mouse click input, only frames handling it are measured
             if (Gdx.input.justTouched()) {
+                long startTime = LatencyMetrics.startTime();
                 hideMessage();
                 // Calculate indexX and indexY of tile where mouse cursor is pointing
                 Vector3 mousePositionInGameWorld = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
@@ -108,6 +123,7 @@ public class ScreenGame extends ScreenAdapter {
                 int tileIndexY = (int) mousePositionInGameWorld.y / Map.TILE_HEIGHT;
 
                 map.update(tileIndexX, tileIndexY, this, shipsGame.getPlayerProfile());
+                LatencyMetric.GAME_UPDATE.record(startTime);
             }
 
             // Timer responsible for displaying messages for specified length
@@ -124,12 +140,11 @@ public class ScreenGame extends ScreenAdapter {
 
     private void updateGraphics() {
         camera.update();
-        shipsGame.shapeRenderer.setProjectionMatrix(camera.combined);
 
         Gdx.gl.glClearColor(ShipsGame.BACKGROUND_R, ShipsGame.BACKGROUND_G, ShipsGame.BACKGROUND_B, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        map.render(shipsGame.shapeRenderer);
+        shipsGame.boardRenderer.render(map.getBoard(), camera.combined);
     }
 
     public void displayMessage(String messageText) {
@@ -152,8 +167,38 @@ public class ScreenGame extends ScreenAdapter {
         infoLabel.setVisible(true);
         confirmButton.setVisible(true);
         gameRunning = false;
-        map.getReplayInConstruction().setCreationDateString(new Date().toString());
-        shipsGame.getPlayerProfile().addReplay(map.getReplayInConstruction());
+        shipsGame.getGameJournal().clear();
+        Replay replay = map.getReplayRecorder().createReplay(System.currentTimeMillis());
+        PlayerProfile playerProfile = shipsGame.getPlayerProfile();
+        if (!playerProfile.getLegacyReplays().isEmpty()) {
+            // Replays of the profile weren't moved to the store yet, the replay is stored after them
+            playerProfile.addLegacyReplay(replay);
+        } else {
+            ReplayStore replayStore = shipsGame.getReplayStore();
+            shipsGame.getProfilePersistence().execute(() -> {
+                try {
+                    replayStore.append(replay, playerWon);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+        saveProfile();
+    }
+
+    /**
+     * Save profile of the signed in player together with the game in progress, if there is one, without waiting
+     * for it to be written.
+     */
+    private void saveProfile() {
+        if (shipsGame.getPlayerProfile() != null) {
+            if (this.isMapInitialized()) {
+                shipsGame.getPlayerProfile().setResumedGameMap(this.map);
+            } else {
+                shipsGame.getPlayerProfile().setResumedGameMap(null);
+            }
+            shipsGame.getProfilePersistence().save(shipsGame.getPlayerProfile());
+        }
     }
 
     // Main game loop
@@ -169,6 +214,9 @@ public class ScreenGame extends ScreenAdapter {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             shipsGame.activateMenuScreen();
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.A) && gameRunning) {
+            map.autoPlaceShips(this);
+        }
         if (Gdx.input.isKeyJustPressed(Input.Keys.H)) {
             displayMessage("Grey tiles - your ship\nGreen circle - you missed your shot\nRed circle - you hit enemy ship" +
                     "\nBlack circle - you destroyed enemy ship\nGray cross - previous ai missed attack\nYellow cross - ai successful hit");
@@ -187,27 +235,20 @@ public class ScreenGame extends ScreenAdapter {
 
         // Display message about player being in "placing ships" mode
         if (!map.isMapCreatorFinished()) {
-            displayMessage("Place your ships on the map.");
+            displayMessage("Place your ships on the map.\nPress a to place remaining ships automatically.");
         } else {
             displayMessage("Game started. Click mouse to attack chosen tile.\nPress h for help.");
         }
     }
 
+    @Override
+    public void hide() {
+        saveProfile();
+    }
+
     @Override
     public void dispose() {
-        if (shipsGame.getPlayerProfile() != null) {
-            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(ShipsGame.PATH_TO_PLAYER_PROFILES + shipsGame.getPlayerProfile().getLogin() + ".profile"))) {
-                if (this.isMapInitialized()) {
-                    shipsGame.getPlayerProfile().setResumedGameMap(this.map);
-                } else {
-                    shipsGame.getPlayerProfile().setResumedGameMap(null);
-                }
-                out.writeObject(shipsGame.getPlayerProfile());
-                out.flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        saveProfile();
         skin.dispose();
         textureAtlas.dispose();
         stage.dispose();
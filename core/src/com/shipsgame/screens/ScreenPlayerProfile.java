@@ -12,7 +12,6 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
-import com.shipsgame.replays.Replay;
 
 public class ScreenPlayerProfile extends ScreenAdapter {
 
@@ -92,21 +91,8 @@ public class ScreenPlayerProfile extends ScreenAdapter {
         infoTable.add(lastNameTextField).right();
 
 
-        Table replaysTable = new Table();
         Label replaysLabel = new Label("Replays", skin);
-        replaysTable.add(replaysLabel).top().row();
-        for (Replay currentReplay : shipsGame.getPlayerProfile().getReplayList()) {
-            TextButton replayTextButton = new TextButton("  " + currentReplay.getCreationDateString() + "  ", skin);
-            replayTextButton.addListener(new ChangeListener() {
-                @Override
-                public void changed(ChangeEvent event, Actor actor) {
-                    shipsGame.setCurrentReplay(new Replay(currentReplay));
-                    shipsGame.activateReplayerScreen();
-                }
-            });
-            replaysTable.add(replayTextButton).row();
-        }
-        ScrollPane replaysScrollPane = new ScrollPane(replaysTable, skin);
+        ScrollPane replaysScrollPane = new ScrollPane(new ReplayListWidget(shipsGame, skin), skin);
         replaysScrollPane.setScrollingDisabled(true, false);
         replaysScrollPane.setFadeScrollBars(false);
 
@@ -117,7 +103,8 @@ public class ScreenPlayerProfile extends ScreenAdapter {
         rootTable.add(scoreHorizontalGroup).top().row();
         rootTable.add(infoTable).top().padTop(USER_INFO_TOP_PADDING).expand().fillX().row();
         rootTable.add(loginLabel).row();
-        rootTable.add(replaysScrollPane).padTop(REPLAYS_LABEL_TOP_PADDING).top().expand().row();
+        rootTable.add(replaysLabel).padTop(REPLAYS_LABEL_TOP_PADDING).row();
+        rootTable.add(replaysScrollPane).top().expand().row();
         rootTable.add(buttonsTable).padTop(RETURN_BUTTON_TOP_PADDING).expand().bottom();
         stage.addActor(rootTable);
         stage.setScrollFocus(replaysScrollPane);
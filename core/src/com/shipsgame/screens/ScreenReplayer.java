@@ -2,44 +2,68 @@ package com.shipsgame.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.ScreenAdapter;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.shipsgame.Ship;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.Slider;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.shipsgame.Ruleset;
 import com.shipsgame.map.Map;
-import com.shipsgame.map.Symbol;
-import com.shipsgame.map.Tile;
-import com.shipsgame.map.TileType;
 import com.shipsgame.replays.Replay;
-import com.shipsgame.utilities.Pair;
+import com.shipsgame.replays.ReplayCursor;
 
 public class ScreenReplayer extends ScreenAdapter {
 
+    private static final String CONTROLS_TEXT = "Space - pause, left/right - step, up/down - speed, home/end - seek";
+    private static final int CONTROLS_PADDING = 10;
+
     private final ShipsGame shipsGame;
 
     private OrthographicCamera camera;
-    private Tile[][] mapArray;
-    private int rowsAmount;
-    private int columnsAmount;
-    private Replay currentReplay;
+    private ReplayCursor replayCursor;
+    // Fields for displaying replay controls
+    private TextureAtlas textureAtlas;
+    private Skin skin;
+    private Stage stage;
+    private Label statusLabel;
+    private Slider positionSlider;
 
     public ScreenReplayer(ShipsGame shipsGame) {
         camera = new OrthographicCamera();
-        camera.setToOrtho(true, Map.COLUMNS_AMOUNT * Map.TILE_WIDTH, Map.ROWS_AMOUNT * Map.TILE_HEIGHT);
-        camera.position.x = camera.viewportWidth / 2;
-        camera.position.y = camera.viewportHeight / 2;
+        setUpCamera(Ruleset.DEFAULT);
 
         this.shipsGame = shipsGame;
-        this.rowsAmount = Map.ROWS_AMOUNT;
-        this.columnsAmount = Map.COLUMNS_AMOUNT;
-        this.mapArray = new Tile[rowsAmount][columnsAmount];
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                this.mapArray[i][j] = new Tile();
+
+        stage = new Stage(new ScreenViewport(new OrthographicCamera(Gdx.graphics.getWidth(), Gdx.graphics.getHeight())));
+        textureAtlas = new TextureAtlas(ShipsGame.UI_SKIN_ATLAS_NAME);
+        skin = new Skin(Gdx.files.internal(ShipsGame.UI_SKIN_JSON_NAME), textureAtlas);
+        statusLabel = new Label("", skin);
+        positionSlider = new Slider(0, 1, 1, false, skin);
+        Table rootTable = new Table();
+        rootTable.bottom();
+        rootTable.setFillParent(true);
+        rootTable.add(positionSlider).growX().padLeft(CONTROLS_PADDING).padRight(CONTROLS_PADDING);
+        rootTable.row();
+        rootTable.add(statusLabel).padBottom(CONTROLS_PADDING);
+        stage.addActor(rootTable);
+
+        positionSlider.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                // Slider is also moved to follow the replay, which mustn't seek again
+                if ((int) positionSlider.getValue() != replayCursor.getPosition()) {
+                    replayCursor.seek((int) positionSlider.getValue());
+                }
             }
-        }
+        });
     }
 
     /**
@@ -48,89 +72,92 @@ public class ScreenReplayer extends ScreenAdapter {
      * @param currentReplay replay to be watched in ScreenReplayer
      */
     public void setCurrentReplay(Replay currentReplay) {
-        this.currentReplay = currentReplay;
+        this.replayCursor = new ReplayCursor(currentReplay);
+        positionSlider.setRange(0, Math.max(1, replayCursor.getActionsAmount()));
+        setUpCamera(currentReplay.getRuleset());
+    }
+
+    /**
+     * Make the camera show the whole board of given ruleset.
+     */
+    private void setUpCamera(Ruleset ruleset) {
+        camera.setToOrtho(true, ruleset.getColumnsAmount() * Map.TILE_WIDTH, ruleset.getRowsAmount() * Map.TILE_HEIGHT);
+        camera.position.x = camera.viewportWidth / 2;
+        camera.position.y = camera.viewportHeight / 2;
     }
 
     private void update(float delta) {
-        this.currentReplay.update(delta, this.mapArray);
+        // Replay doesn't move on while the slider is dragged
+        if (!positionSlider.isDragging()) {
+            replayCursor.update(delta);
+        }
+        positionSlider.setValue(replayCursor.getPosition());
+        statusLabel.setText("Move " + replayCursor.getPosition() + "/" + replayCursor.getActionsAmount() + "   "
+                + replayCursor.getSpeed() + "x" + (replayCursor.isPaused() ? "   paused" : "") + "\n" + CONTROLS_TEXT);
     }
 
-    private void updateGraphics(ShapeRenderer shapeRenderer) {
+    private void updateGraphics() {
         camera.update();
-        shipsGame.shapeRenderer.setProjectionMatrix(camera.combined);
 
         Gdx.gl.glClearColor(ShipsGame.BACKGROUND_R, ShipsGame.BACKGROUND_G, ShipsGame.BACKGROUND_B, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                // Draw player ships
-                if (mapArray[i][j].getTileType() == TileType.SHIP) {
-                    shapeRenderer.setColor(Color.DARK_GRAY);
-                } else if (mapArray[i][j].getTileType() == TileType.EMPTY) {
-                    // Light blue color
-                    shapeRenderer.setColor(new Color(0.004f, 0.569f, 0.784f, 1));
-                }
-                shapeRenderer.rect(j * Map.TILE_WIDTH, i * Map.TILE_HEIGHT, Map.TILE_WIDTH, Map.TILE_HEIGHT);
-                // Draw ai attacks
-                if (mapArray[i][j].getAiInfoSymbol() == Symbol.SUCCESSFUL_HIT) {
-                    shapeRenderer.setColor(new Color(0.929f, 0.741f, 0.243f, 1));
-                    shapeRenderer.rectLine(j * Map.TILE_WIDTH, i * Map.TILE_HEIGHT, (j + 1) * Map.TILE_WIDTH, (i + 1) * Map.TILE_HEIGHT, Map.TILE_WIDTH / 10f);
-                    shapeRenderer.rectLine((j + 1) * Map.TILE_WIDTH, i * Map.TILE_HEIGHT, j * Map.TILE_WIDTH, (i + 1) * Map.TILE_HEIGHT, Map.TILE_WIDTH / 10f);
-                } else if (mapArray[i][j].getAiInfoSymbol() == Symbol.FAILED_HIT) {
-                    shapeRenderer.setColor(Color.DARK_GRAY);
-                    shapeRenderer.rectLine(j * Map.TILE_WIDTH, i * Map.TILE_HEIGHT, (j + 1) * Map.TILE_WIDTH, (i + 1) * Map.TILE_HEIGHT, Map.TILE_WIDTH / 10f);
-                    shapeRenderer.rectLine((j + 1) * Map.TILE_WIDTH, i * Map.TILE_HEIGHT, j * Map.TILE_WIDTH, (i + 1) * Map.TILE_HEIGHT, Map.TILE_WIDTH / 10f);
-                }
-                // Draw player attacks
-                if (mapArray[i][j].getPlayerInfoSymbol() == Symbol.SUCCESSFUL_HIT) {
-                    shapeRenderer.setColor(Color.RED);
-                    shapeRenderer.circle(j * Map.TILE_WIDTH + Map.TILE_WIDTH / 2f, i * Map.TILE_HEIGHT + Map.TILE_HEIGHT / 2f, Map.TILE_WIDTH / 4f, Map.CIRCLE_EDGES);
-                } else if (mapArray[i][j].getPlayerInfoSymbol() == Symbol.FAILED_HIT) {
-                    shapeRenderer.setColor(Color.GREEN);
-                    shapeRenderer.circle(j * Map.TILE_WIDTH + Map.TILE_WIDTH / 2f, i * Map.TILE_HEIGHT + Map.TILE_HEIGHT / 2f, Map.TILE_WIDTH / 6f, Map.CIRCLE_EDGES);
-                }
-            }
+        shipsGame.boardRenderer.render(replayCursor.getBoard(), camera.combined);
+    }
+
+    private void handleKeyboardInput() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+            replayCursor.setPaused(!replayCursor.isPaused());
         }
-        shapeRenderer.end();
-
-        // Draw lines between tiles
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(Color.BLACK);
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                shapeRenderer.rect(j * Map.TILE_WIDTH, i * Map.TILE_HEIGHT, Map.TILE_WIDTH, Map.TILE_HEIGHT);
-            }
+        // Stepping pauses the replay, so the shown move can be examined
+        if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
+            replayCursor.setPaused(true);
+            replayCursor.stepForward();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) {
+            replayCursor.setPaused(true);
+            replayCursor.stepBackward();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.UP)) {
+            replayCursor.setSpeed(replayCursor.getSpeed() * 2);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) {
+            replayCursor.setSpeed(replayCursor.getSpeed() / 2);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.HOME)) {
+            replayCursor.seek(0);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.END)) {
+            replayCursor.seek(replayCursor.getActionsAmount());
         }
-        shapeRenderer.end();
     }
 
     @Override
     public void show() {
-        // Set all tiles to empty
-        for (int i = 0; i < rowsAmount; i++) {
-            for (int j = 0; j < columnsAmount; j++) {
-                this.mapArray[i][j].clear();
-            }
-        }
-        // Populate map tiles with player ship positions
-        for (Ship currentShip : currentReplay.getPlayerShipsList()) {
-            for (Pair currentTileIndices : currentShip.calculateShipTileIndices()) {
-                this.mapArray[currentTileIndices.getIndexY()][currentTileIndices.getIndexX()].setTileType(TileType.SHIP);
-            }
-        }
+        // Set input processor to new empty InputAdapter to disable input handling from other screens
+        Gdx.input.setInputProcessor(new InputAdapter());
+        Gdx.input.setInputProcessor(stage);
+
+        replayCursor.seek(0);
+        replayCursor.setPaused(false);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true);
     }
 
     @Override
     public void render(float delta) {
-        // Logical updates
+        // Handle keyboard input and logical updates
+        handleKeyboardInput();
         update(delta);
 
         // Graphical updates
-        updateGraphics(shipsGame.shapeRenderer);
+        updateGraphics();
+        stage.act(Gdx.graphics.getDeltaTime());
+        stage.draw();
 
-        // Handle input
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             shipsGame.activateMenuScreen();
         }
@@ -138,6 +165,9 @@ public class ScreenReplayer extends ScreenAdapter {
 
     @Override
     public void dispose() {
+        skin.dispose();
+        textureAtlas.dispose();
+        stage.dispose();
         System.out.println("dispose - ScreenReplayer");
     }
-}
\ No newline at end of file
+}
@@ -13,19 +13,18 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.shipsgame.PlayerProfile;
+import com.shipsgame.authorization.CredentialIndex;
+import com.shipsgame.metrics.LatencyMetric;
+import com.shipsgame.metrics.LatencyMetrics;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Scanner;
 
 public class ScreenSignIn extends ScreenAdapter {
 
     private static final String USERS_PATH_NAME = "authorization/users.passwords";
+    private static final String USERS_INDEX_PATH_NAME = "authorization/users.index";
     private static final String INFO_EMPTY = "";
     private static final String INFO_WRONG_PASSWORD = "Wrong password.";
     private static final String INFO_LOGIN_ALREADY_EXISTS = "Account with this login already exists.";
@@ -41,6 +40,7 @@ public class ScreenSignIn extends ScreenAdapter {
     private TextField loginTextField;
     private TextField passwordTextField;
     private Label infoLabel;
+    private CredentialIndex credentialIndex;
 
     public ScreenSignIn(ShipsGame shipsGame) {
         this.shipsGame = shipsGame;
@@ -116,26 +116,24 @@ public class ScreenSignIn extends ScreenAdapter {
      * @return password for the given {@code login} or null if user doesn't exist
      */
     private String findUserPassword(String login) {
-        Path path = Paths.get(USERS_PATH_NAME);
         try {
-            String string = new String(Files.readAllBytes(path));
-            Scanner scanner = new Scanner(string);
-            while (scanner.hasNextLine()) {
-                String currentString = scanner.nextLine();
-                String[] tokens = currentString.split(" ");
-                String currentUsername = tokens[0];
-                String currentHashedPassword = tokens[1];
-                if (currentUsername.equals(login)) {
-                    return currentHashedPassword;
-                }
-            }
-
+            return getCredentialIndex().findPassword(login);
         } catch (IOException e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    /**
+     * @return index of the users file, opened when used for the first time
+     */
+    private CredentialIndex getCredentialIndex() throws IOException {
+        if (credentialIndex == null) {
+            credentialIndex = new CredentialIndex(USERS_PATH_NAME, USERS_INDEX_PATH_NAME);
+        }
+        return credentialIndex;
+    }
+
     /**
      * Go to the menu screen if login and password are valid.
      */
@@ -147,17 +145,23 @@ public class ScreenSignIn extends ScreenAdapter {
         if (hashedPassword != null) {
             if (hashedPassword.equals(createHashedPassword(password))) {
                 // What happens when login attempt is successful
-                try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(ShipsGame.PATH_TO_PLAYER_PROFILES + loginTextField.getText() + ".profile"))) {
-                    PlayerProfile loggedUserPlayerProfile = (PlayerProfile) in.readObject();
-                    if (!loggedUserPlayerProfile.verifyPassword(createHashedPassword(password))) {
-                        infoLabel.setText(INFO_CHEATING);
-                    } else {
-                        shipsGame.setPlayerProfile(loggedUserPlayerProfile);
-                        shipsGame.createScreenPlayerProfile();
-                        shipsGame.activateMenuScreen();
-                    }
+                long startTime = LatencyMetrics.startTime();
+                PlayerProfile loggedUserPlayerProfile;
+                try {
+                    loggedUserPlayerProfile = shipsGame.getProfilePersistence().load(login);
                 } catch (IOException | ClassNotFoundException e) {
                     e.printStackTrace();
+                    return;
+                } finally {
+                    // Failed loads are recorded too, they can be the slowest ones
+                    LatencyMetric.PROFILE_LOAD.record(startTime);
+                }
+                if (!loggedUserPlayerProfile.verifyPassword(createHashedPassword(password))) {
+                    infoLabel.setText(INFO_CHEATING);
+                } else {
+                    shipsGame.setPlayerProfile(loggedUserPlayerProfile);
+                    shipsGame.createScreenPlayerProfile();
+                    shipsGame.activateMenuScreen();
                 }
             } else {
                 infoLabel.setText(INFO_WRONG_PASSWORD);
@@ -193,34 +197,23 @@ public class ScreenSignIn extends ScreenAdapter {
      */
     private boolean createUser() {
         // Create user if login is not already in use
-        if (findUserPassword(loginTextField.getText()) == null) {
-            String profileString = loginTextField.getText() + " " + createHashedPassword(passwordTextField.getText());
-            try (BufferedWriter bufferedWriter = Files.newBufferedWriter(Paths.get(USERS_PATH_NAME), StandardOpenOption.APPEND)) {
-                bufferedWriter.write(profileString);
-                bufferedWriter.newLine();
-
+        try {
+            if (getCredentialIndex().addUser(loginTextField.getText(), createHashedPassword(passwordTextField.getText()))) {
                 createPlayerProfile();
                 return true;
-            } catch (IOException e) {
-                e.printStackTrace();
-                return false;
             }
-        } else {
-            return false;
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+        return false;
     }
 
     /**
      * Create new player profile and save in the file
      */
     private void createPlayerProfile() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(ShipsGame.PATH_TO_PLAYER_PROFILES + loginTextField.getText() + ".profile"))) {
-            PlayerProfile playerProfile = new PlayerProfile(loginTextField.getText(), createHashedPassword(passwordTextField.getText()));
-            out.writeObject(playerProfile);
-            out.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        PlayerProfile playerProfile = new PlayerProfile(loginTextField.getText(), createHashedPassword(passwordTextField.getText()));
+        shipsGame.getProfilePersistence().save(playerProfile);
     }
 
     @Override
@@ -259,6 +252,13 @@ public class ScreenSignIn extends ScreenAdapter {
         skin.dispose();
         textureAtlas.dispose();
         stage.dispose();
+        if (credentialIndex != null) {
+            try {
+                credentialIndex.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         System.out.println("dispose - ScreenSignIn");
     }
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.shipsgame.screens;
 
 import com.badlogic.gdx.Game;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.Screen;
+import com.shipsgame.GameJournal;
 import com.shipsgame.PlayerProfile;
+import com.shipsgame.ProfilePersistence;
+import com.shipsgame.flightrecorder.ScreenTransitionEvent;
+import com.shipsgame.map.BoardRenderer;
 import com.shipsgame.map.Map;
+import com.shipsgame.metrics.LatencyMetrics;
 import com.shipsgame.replays.Replay;
+import com.shipsgame.replays.ReplayStore;
+
+import java.io.IOException;
+import java.util.List;
 
 public class ShipsGame extends Game {
 
@@ -15,8 +24,12 @@ public class ShipsGame extends Game {
     public static final String UI_SKIN_JSON_NAME = "skins/uiskin.json";
     public static final String PATH_TO_PLAYER_PROFILES = "profiles/";
 
-    ShapeRenderer shapeRenderer;
+    // Draws boards of both the game and the replayer
+    BoardRenderer boardRenderer;
+    private ProfilePersistence profilePersistence;
     private PlayerProfile playerProfile;
+    private ReplayStore replayStore;
+    private GameJournal gameJournal;
     private ScreenSignIn screenSignIn;
     private ScreenMenu screenMenu;
     private ScreenGame screenGame;
@@ -25,7 +38,9 @@ public class ShipsGame extends Game {
 
     @Override
     public void create() {
-        this.shapeRenderer = new ShapeRenderer();
+        LatencyMetrics.export();
+        this.boardRenderer = new BoardRenderer();
+        this.profilePersistence = new ProfilePersistence(PATH_TO_PLAYER_PROFILES);
         this.screenSignIn = new ScreenSignIn(this);
         this.screenMenu = new ScreenMenu(this);
         this.screenGame = new ScreenGame(this);
@@ -34,12 +49,52 @@ public class ShipsGame extends Game {
         this.setScreen(screenSignIn);
     }
 
+    public ProfilePersistence getProfilePersistence() {
+        return profilePersistence;
+    }
+
     public PlayerProfile getPlayerProfile() {
         return playerProfile;
     }
 
+    public ReplayStore getReplayStore() {
+        return replayStore;
+    }
+
+    public GameJournal getGameJournal() {
+        return gameJournal;
+    }
+
+    /**
+     * Set profile of the signed in player and open the store of the player's replays and the journal of the game
+     * in progress. Journaled game is more recent than the game saved in the profile, so it is the one resumed.
+     *
+     * @param playerProfile profile of the signed in player
+     */
     public void setPlayerProfile(PlayerProfile playerProfile) {
         this.playerProfile = playerProfile;
+        this.replayStore = new ReplayStore(PATH_TO_PLAYER_PROFILES, playerProfile.getLogin());
+        this.gameJournal = new GameJournal(PATH_TO_PLAYER_PROFILES, playerProfile.getLogin());
+        try {
+            Map journaledGameMap = gameJournal.load();
+            if (journaledGameMap != null) {
+                playerProfile.setResumedGameMap(journaledGameMap);
+            }
+        } catch (IOException e) {
+            // Game saved in the profile is resumed instead
+            e.printStackTrace();
+        }
+        // Move replays from profiles saved before ReplayStore was introduced. They are removed from the profile only
+        // once all of them are stored, a failed move is resumed on the next sign in.
+        List<Replay> legacyReplays = playerProfile.getLegacyReplays();
+        if (!legacyReplays.isEmpty()) {
+            try {
+                replayStore.appendLegacyReplays(legacyReplays);
+                playerProfile.clearLegacyReplays();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     public boolean isMapInitialized() {
@@ -78,11 +133,35 @@ public class ShipsGame extends Game {
         this.setScreen(screenReplayer);
     }
 
+    /**
+     * Hide the current screen and show the given one, recording the transition in the flight recorder.
+     */
+    @Override
+    public void setScreen(Screen screen) {
+        ScreenTransitionEvent screenTransitionEvent = new ScreenTransitionEvent();
+        screenTransitionEvent.begin();
+        Screen previousScreen = getScreen();
+        super.setScreen(screen);
+        screenTransitionEvent.end();
+        if (screenTransitionEvent.shouldCommit()) {
+            screenTransitionEvent.from = previousScreen != null ? previousScreen.getClass().getSimpleName() : null;
+            screenTransitionEvent.to = screen != null ? screen.getClass().getSimpleName() : null;
+            screenTransitionEvent.commit();
+        }
+    }
+
     @Override
     public void render() {
         super.render();
     }
 
+    @Override
+    public void resume() {
+        // Content of frame buffers may be lost while the application is paused
+        boardRenderer.invalidate();
+        super.resume();
+    }
+
     @Override
     public void dispose() {
         System.out.println("Dispose launched is shipsGame");
@@ -93,5 +172,12 @@ public class ShipsGame extends Game {
             screenPlayerProfile.dispose();
         }
         screenReplayer.dispose();
+        boardRenderer.dispose();
+        if (gameJournal != null) {
+            gameJournal.close();
+        }
+        // Screens save profiles when disposed, so profiles are written after all screens are disposed
+        profilePersistence.close();
+        LatencyMetrics.close();
     }
 }
\ No newline at end of file
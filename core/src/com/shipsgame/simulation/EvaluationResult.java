@@ -0,0 +1,71 @@
+package com.shipsgame.simulation;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+
+import java.util.List;
+
+/**
+ * Statistics of games simulated by {@link MonteCarloEvaluator}.
+ */
+public class EvaluationResult {
+
+    private long gamesPlayed;
+    private long firstAiWins;
+    // Shots needed by every ai to destroy the fleet of the other one
+    private final ShotsDistribution firstAiShots;
+    private final ShotsDistribution secondAiShots;
+
+    /**
+     * @param ruleset ruleset of simulated games
+     */
+    public EvaluationResult(Ruleset ruleset) {
+        this.gamesPlayed = 0;
+        this.firstAiWins = 0;
+        this.firstAiShots = new ShotsDistribution(ruleset);
+        this.secondAiShots = new ShotsDistribution(ruleset);
+    }
+
+    /**
+     * Record a single game. First ai wins ties, because it shoots first.
+     *
+     * @param firstAiShotsAmount  shots needed by the first ai to destroy fleet of the second ai
+     * @param secondAiShips       ships of the second ai
+     * @param secondAiShotsAmount shots needed by the second ai to destroy fleet of the first ai
+     * @param firstAiShips        ships of the first ai
+     */
+    public void addGame(int firstAiShotsAmount, List<Ship> secondAiShips, int secondAiShotsAmount, List<Ship> firstAiShips) {
+        gamesPlayed++;
+        if (firstAiShotsAmount <= secondAiShotsAmount) {
+            firstAiWins++;
+        }
+        firstAiShots.add(firstAiShotsAmount, secondAiShips);
+        secondAiShots.add(secondAiShotsAmount, firstAiShips);
+    }
+
+    /**
+     * Add all games recorded in other to this result.
+     */
+    public void add(EvaluationResult other) {
+        gamesPlayed += other.gamesPlayed;
+        firstAiWins += other.firstAiWins;
+        firstAiShots.add(other.firstAiShots);
+        secondAiShots.add(other.secondAiShots);
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public double getFirstAiWinRate() {
+        return gamesPlayed == 0 ? 0 : (double) firstAiWins / gamesPlayed;
+    }
+
+    public ShotsDistribution getFirstAiShots() {
+        return firstAiShots;
+    }
+
+    public ShotsDistribution getSecondAiShots() {
+        return secondAiShots;
+    }
+}
@@ -0,0 +1,26 @@
+package com.shipsgame.simulation;
+
+/**
+ * Outcome of a single simulated game.
+ */
+public class GameResult {
+
+    private final boolean firstAiWon;
+    private final int shotsAmount;
+
+    public GameResult(boolean firstAiWon, int shotsAmount) {
+        this.firstAiWon = firstAiWon;
+        this.shotsAmount = shotsAmount;
+    }
+
+    public boolean didFirstAiWin() {
+        return firstAiWon;
+    }
+
+    /**
+     * @return amount of shots fired by the winner of the game
+     */
+    public int getShotsAmount() {
+        return shotsAmount;
+    }
+}
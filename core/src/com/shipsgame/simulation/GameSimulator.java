@@ -0,0 +1,156 @@
+package com.shipsgame.simulation;
+
+import com.shipsgame.Ai;
+import com.shipsgame.AiMode;
+import com.shipsgame.Ruleset;
+import com.shipsgame.utilities.GameRandom;
+
+/**
+ * Headless runner playing full games between two ai instances, without any rendering or screens.
+ * Run from main with optional amount of games to play as the first argument, optional {@link AiMode} names of
+ * the first and the second ai as following arguments and optional seed as the last argument.
+ * Games played by simulators created with the same seed are always the same.
+ */
+public class GameSimulator {
+
+    private static final int DEFAULT_GAMES_AMOUNT = 100000;
+
+    private AiMode firstAiMode;
+    private AiMode secondAiMode;
+    private Ruleset ruleset;
+    // Generators of both ai are split from this one before every game
+    private GameRandom random;
+    private int gamesPlayed;
+    private long winnerShotsSum;
+    private StrategyStats firstAiStats;
+    private StrategyStats secondAiStats;
+
+    public GameSimulator() {
+        this(AiMode.HUNT_AND_TARGET, AiMode.HUNT_AND_TARGET);
+    }
+
+    /**
+     * @param firstAiMode  strategy of the ai shooting first
+     * @param secondAiMode strategy of the ai shooting second
+     */
+    public GameSimulator(AiMode firstAiMode, AiMode secondAiMode) {
+        this(firstAiMode, secondAiMode, new GameRandom(GameRandom.generateSeed()));
+    }
+
+    /**
+     * @param firstAiMode  strategy of the ai shooting first
+     * @param secondAiMode strategy of the ai shooting second
+     * @param random       random number generator used only by this simulator
+     */
+    public GameSimulator(AiMode firstAiMode, AiMode secondAiMode, GameRandom random) {
+        this(firstAiMode, secondAiMode, Ruleset.DEFAULT, random);
+    }
+
+    /**
+     * @param firstAiMode  strategy of the ai shooting first
+     * @param secondAiMode strategy of the ai shooting second
+     * @param ruleset      size of the board and composition of fleets of played games
+     * @param random       random number generator used only by this simulator
+     */
+    public GameSimulator(AiMode firstAiMode, AiMode secondAiMode, Ruleset ruleset, GameRandom random) {
+        this.random = random;
+        this.firstAiMode = firstAiMode;
+        this.secondAiMode = secondAiMode;
+        this.ruleset = ruleset;
+        this.firstAiStats = new StrategyStats();
+        this.secondAiStats = new StrategyStats();
+    }
+
+    /**
+     * Play one full game. First ai always shoots first. Time of every move is recorded in statistics of its ai.
+     *
+     * @return result of the played game
+     */
+    public GameResult playGame() {
+        Ai firstAi = new Ai(null, firstAiMode, ruleset, random.split());
+        Ai secondAi = new Ai(null, secondAiMode, ruleset, random.split());
+
+        int shotsAmount = 0;
+        while (true) {
+            shotsAmount++;
+            long startTime = System.nanoTime();
+            firstAi.attackTile(secondAi.getFleet());
+            long firstAiMoveEndTime = System.nanoTime();
+            firstAiStats.addMove(firstAiMoveEndTime - startTime);
+            if (secondAi.didAiLose()) {
+                return recordResult(new GameResult(true, shotsAmount));
+            }
+            secondAi.attackTile(firstAi.getFleet());
+            secondAiStats.addMove(System.nanoTime() - firstAiMoveEndTime);
+            if (firstAi.didAiLose()) {
+                return recordResult(new GameResult(false, shotsAmount));
+            }
+        }
+    }
+
+    private GameResult recordResult(GameResult gameResult) {
+        gamesPlayed++;
+        winnerShotsSum += gameResult.getShotsAmount();
+        // Second ai fires one shot less when it loses
+        firstAiStats.addGame(gameResult.didFirstAiWin(), gameResult.getShotsAmount());
+        secondAiStats.addGame(!gameResult.didFirstAiWin(),
+                gameResult.didFirstAiWin() ? gameResult.getShotsAmount() - 1 : gameResult.getShotsAmount());
+        return gameResult;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * @return fraction of games won by the ai shooting first
+     */
+    public double getFirstAiWinRate() {
+        return firstAiStats.getWinRate();
+    }
+
+    public AiMode getFirstAiMode() {
+        return firstAiMode;
+    }
+
+    public AiMode getSecondAiMode() {
+        return secondAiMode;
+    }
+
+    public StrategyStats getFirstAiStats() {
+        return firstAiStats;
+    }
+
+    public StrategyStats getSecondAiStats() {
+        return secondAiStats;
+    }
+
+    /**
+     * @return average amount of shots needed by the winner to destroy enemy fleet
+     */
+    public double getAverageWinnerShots() {
+        return gamesPlayed == 0 ? 0 : (double) winnerShotsSum / gamesPlayed;
+    }
+
+    public static void main(String[] args) {
+        int gamesAmount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_AMOUNT;
+
+        AiMode firstAiMode = args.length > 1 ? AiMode.valueOf(args[1]) : AiMode.HUNT_AND_TARGET;
+        AiMode secondAiMode = args.length > 2 ? AiMode.valueOf(args[2]) : firstAiMode;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : GameRandom.generateSeed();
+
+        GameSimulator gameSimulator = new GameSimulator(firstAiMode, secondAiMode, new GameRandom(seed));
+        long startTime = System.nanoTime();
+        for (int i = 0; i < gamesAmount; i++) {
+            gameSimulator.playGame();
+        }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("Modes : %s vs %s, seed %d%n", firstAiMode, secondAiMode, seed);
+        System.out.printf("Games played : %d in %.2f s (%.0f games/s)%n", gamesAmount, elapsedSeconds, gamesAmount / elapsedSeconds);
+        System.out.printf("First ai win rate : %.2f%%%n", gameSimulator.getFirstAiWinRate() * 100);
+        System.out.printf("Average shots of the winner : %.2f%n", gameSimulator.getAverageWinnerShots());
+        System.out.printf("Average move time : %.0f ns first ai, %.0f ns second ai%n",
+                gameSimulator.getFirstAiStats().getAverageMoveNanos(), gameSimulator.getSecondAiStats().getAverageMoveNanos());
+    }
+}
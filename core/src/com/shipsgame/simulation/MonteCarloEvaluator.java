@@ -0,0 +1,155 @@
+package com.shipsgame.simulation;
+
+import com.shipsgame.Ai;
+import com.shipsgame.AiMode;
+import com.shipsgame.FleetComposition;
+import com.shipsgame.Ruleset;
+import com.shipsgame.utilities.GameRandom;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates ai strategies, fleet compositions and board sizes by simulating many games split across all cores with a
+ * {@link ForkJoinPool}. In every game each ai attacks the fleet of the other until it is destroyed, so amounts
+ * of shots needed to destroy a fleet are known for both ai. First ai wins if it doesn't need more shots than the
+ * second one, because it shoots first.
+ * Run from main with optional arguments: amount of games, {@link AiMode} names of both ai, fleet composition
+ * (for example "1,1,2,3"), seed and board size (for example "100x100").
+ */
+public class MonteCarloEvaluator {
+
+    private static final int DEFAULT_GAMES_AMOUNT = 200000;
+    // Tasks with at most this amount of games aren't split any more
+    private static final int GAMES_PER_TASK = 2000;
+
+    private final AiMode firstAiMode;
+    private final AiMode secondAiMode;
+    private final Ruleset ruleset;
+    private final long seed;
+
+    /**
+     * @param firstAiMode  strategy of the first ai
+     * @param secondAiMode strategy of the second ai
+     * @param ruleset      size of the board and composition of fleets of both ai
+     * @param seed         seed from which random number generators of all tasks are split
+     */
+    public MonteCarloEvaluator(AiMode firstAiMode, AiMode secondAiMode, Ruleset ruleset, long seed) {
+        this.firstAiMode = firstAiMode;
+        this.secondAiMode = secondAiMode;
+        this.ruleset = ruleset;
+        this.seed = seed;
+    }
+
+    /**
+     * @param gamesAmount  amount of games to simulate
+     * @param forkJoinPool pool running the simulation
+     * @return statistics of all games
+     */
+    public EvaluationResult evaluate(int gamesAmount, ForkJoinPool forkJoinPool) {
+        return forkJoinPool.invoke(new EvaluationTask(0, gamesAmount, new GameRandom(seed)));
+    }
+
+    /**
+     * Let attacking ai shoot at the fleet of defending ai until it is destroyed.
+     *
+     * @return amount of fired shots
+     */
+    private static int destroyFleet(Ai attackingAi, Ai defendingAi) {
+        int shotsAmount = 0;
+        while (!defendingAi.didAiLose()) {
+            attackingAi.attackTile(defendingAi.getFleet());
+            shotsAmount++;
+        }
+        return shotsAmount;
+    }
+
+    /**
+     * Task simulating games with numbers from firstGame inclusive to lastGame exclusive. Tasks are split in halves
+     * until they are small enough. Every task owns its random number generator, split from the generator of its parent
+     * task, and tasks playing games reuse two ai in all their games, so workers share no mutable state. Tasks are always
+     * split the same way, so results depend only on the seed and not on the amount of threads.
+     */
+    private class EvaluationTask extends RecursiveTask<EvaluationResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int firstGame;
+        private final int lastGame;
+        private final GameRandom random;
+
+        private EvaluationTask(int firstGame, int lastGame, GameRandom random) {
+            this.firstGame = firstGame;
+            this.lastGame = lastGame;
+            this.random = random;
+        }
+
+        @Override
+        protected EvaluationResult compute() {
+            if (lastGame - firstGame <= GAMES_PER_TASK) {
+                return playGames();
+            }
+            int middleGame = (firstGame + lastGame) >>> 1;
+            EvaluationTask firstHalf = new EvaluationTask(firstGame, middleGame, random.split());
+            firstHalf.fork();
+            EvaluationResult evaluationResult = new EvaluationTask(middleGame, lastGame, random).compute();
+            evaluationResult.add(firstHalf.join());
+            return evaluationResult;
+        }
+
+        private EvaluationResult playGames() {
+            Ai firstAi = new Ai(null, firstAiMode, ruleset, random.split());
+            Ai secondAi = new Ai(null, secondAiMode, ruleset, random.split());
+            EvaluationResult evaluationResult = new EvaluationResult(ruleset);
+            for (int i = firstGame; i < lastGame; i++) {
+                if (i > firstGame) {
+                    firstAi.reset();
+                    secondAi.reset();
+                }
+                int firstAiShots = destroyFleet(firstAi, secondAi);
+                int secondAiShots = destroyFleet(secondAi, firstAi);
+                evaluationResult.addGame(firstAiShots, secondAi.getFleet().getShips(),
+                        secondAiShots, firstAi.getFleet().getShips());
+            }
+            return evaluationResult;
+        }
+    }
+
+    public static void main(String[] args) {
+        int gamesAmount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_AMOUNT;
+        AiMode firstAiMode = args.length > 1 ? AiMode.valueOf(args[1]) : AiMode.HUNT_AND_TARGET;
+        AiMode secondAiMode = args.length > 2 ? AiMode.valueOf(args[2]) : firstAiMode;
+        FleetComposition fleetComposition = args.length > 3 ? FleetComposition.parse(args[3]) : FleetComposition.DEFAULT;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : GameRandom.generateSeed();
+        Ruleset ruleset;
+        if (args.length > 5) {
+            String[] sideLengths = args[5].split("x");
+            ruleset = new Ruleset(Integer.parseInt(sideLengths[0].trim()), Integer.parseInt(sideLengths[1].trim()), fleetComposition);
+        } else {
+            ruleset = new Ruleset(Ruleset.DEFAULT.getColumnsAmount(), Ruleset.DEFAULT.getRowsAmount(), fleetComposition);
+        }
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        MonteCarloEvaluator monteCarloEvaluator = new MonteCarloEvaluator(firstAiMode, secondAiMode, ruleset, seed);
+        long startTime = System.nanoTime();
+        EvaluationResult evaluationResult = monteCarloEvaluator.evaluate(gamesAmount, forkJoinPool);
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+        forkJoinPool.shutdown();
+
+        System.out.printf("Games played : %d in %.2f s (%.0f games/s) using %d threads, seed %d%n", gamesAmount,
+                elapsedSeconds, gamesAmount / elapsedSeconds, forkJoinPool.getParallelism(), seed);
+        System.out.printf("Ruleset : %s%n", ruleset);
+        System.out.printf("First ai win rate : %.2f%%%n", evaluationResult.getFirstAiWinRate() * 100);
+        printDistribution("First ai " + firstAiMode, evaluationResult.getFirstAiShots());
+        printDistribution("Second ai " + secondAiMode, evaluationResult.getSecondAiShots());
+    }
+
+    private static void printDistribution(String name, ShotsDistribution shotsDistribution) {
+        System.out.printf("%s shots to destroy fleet : average %.2f, p10 %d, p50 %d, p90 %d, p99 %d, worst %d%n", name,
+                shotsDistribution.getAverage(), shotsDistribution.getPercentile(0.1), shotsDistribution.getPercentile(0.5),
+                shotsDistribution.getPercentile(0.9), shotsDistribution.getPercentile(0.99),
+                shotsDistribution.getWorstShotsAmount());
+        System.out.println("Fleet placement that needed the most shots :");
+        System.out.print(shotsDistribution.getWorstPlacementDrawing());
+    }
+}
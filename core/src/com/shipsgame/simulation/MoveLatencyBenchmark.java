@@ -0,0 +1,68 @@
+package com.shipsgame.simulation;
+
+import com.shipsgame.Ai;
+import com.shipsgame.AiMode;
+import com.shipsgame.Ruleset;
+
+import java.util.Arrays;
+
+/**
+ * Measures time needed by the ai to choose and perform a single attack, for every {@link AiMode}.
+ * Run from main with optional amount of measured games as the first argument.
+ */
+public class MoveLatencyBenchmark {
+
+    private static final int DEFAULT_GAMES_AMOUNT = 20000;
+    private static final int WARMUP_GAMES_AMOUNT = 20000;
+
+    private MoveLatencyBenchmark() {
+    }
+
+    /**
+     * Let ai with given mode attack fleets of new ai opponents until they are destroyed.
+     *
+     * @param aiMode        strategy of measured ai
+     * @param gamesAmount   amount of games to play
+     * @param moveLatencies array filled with time of every move in nanoseconds, may be null
+     * @return amount of performed moves
+     */
+    private static int playGames(AiMode aiMode, int gamesAmount, long[] moveLatencies) {
+        int movesAmount = 0;
+        for (int i = 0; i < gamesAmount; i++) {
+            Ai attackingAi = new Ai(null, aiMode);
+            Ai defendingAi = new Ai(null);
+            while (!defendingAi.didAiLose()) {
+                long startTime = System.nanoTime();
+                attackingAi.attackTile(defendingAi.getFleet());
+                long moveLatency = System.nanoTime() - startTime;
+                if (moveLatencies != null) {
+                    moveLatencies[movesAmount] = moveLatency;
+                }
+                movesAmount++;
+            }
+        }
+        return movesAmount;
+    }
+
+    public static void main(String[] args) {
+        int gamesAmount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_AMOUNT;
+
+        for (AiMode aiMode : AiMode.values()) {
+            playGames(aiMode, WARMUP_GAMES_AMOUNT, null);
+
+            // Single game can't take more moves than there are tiles on the map
+            long[] moveLatencies = new long[gamesAmount * Ruleset.DEFAULT.getTilesAmount()];
+            int movesAmount = playGames(aiMode, gamesAmount, moveLatencies);
+            Arrays.sort(moveLatencies, 0, movesAmount);
+            long latenciesSum = 0;
+            for (int i = 0; i < movesAmount; i++) {
+                latenciesSum += moveLatencies[i];
+            }
+
+            System.out.printf("%s : %.2f moves per game, mean %.0f ns, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns per move%n",
+                    aiMode, (double) movesAmount / gamesAmount, (double) latenciesSum / movesAmount,
+                    moveLatencies[movesAmount / 2], moveLatencies[(int) (movesAmount * 0.99)],
+                    moveLatencies[(int) (movesAmount * 0.999)], moveLatencies[movesAmount - 1]);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.shipsgame.simulation;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+import com.shipsgame.map.BitBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distribution of amounts of shots needed by an ai to destroy a whole fleet, together with the fleet placement
+ * that needed the most shots.
+ */
+public class ShotsDistribution {
+
+    // Amount of fleets destroyed with every possible amount of shots
+    private final Ruleset ruleset;
+    private final long[] histogram;
+    private long samplesAmount;
+    private long shotsSum;
+    private int worstShotsAmount;
+    // Ships of the fleet that needed worstShotsAmount shots
+    private List<Ship> worstPlacement;
+
+    /**
+     * @param ruleset ruleset of games in which fleets are destroyed
+     */
+    public ShotsDistribution(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.histogram = new long[ruleset.getTilesAmount() + 1];
+        this.samplesAmount = 0;
+        this.shotsSum = 0;
+        this.worstShotsAmount = -1;
+        this.worstPlacement = null;
+    }
+
+    /**
+     * @param shotsAmount amount of shots needed to destroy the fleet
+     * @param fleetShips  ships of destroyed fleet, copied only if the fleet is the worst one so far
+     */
+    public void add(int shotsAmount, List<Ship> fleetShips) {
+        histogram[shotsAmount]++;
+        samplesAmount++;
+        shotsSum += shotsAmount;
+        if (shotsAmount > worstShotsAmount) {
+            worstShotsAmount = shotsAmount;
+            worstPlacement = new ArrayList<>(fleetShips);
+        }
+    }
+
+    /**
+     * Add all samples of other to this distribution.
+     */
+    public void add(ShotsDistribution other) {
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+        samplesAmount += other.samplesAmount;
+        shotsSum += other.shotsSum;
+        if (other.worstShotsAmount > worstShotsAmount) {
+            worstShotsAmount = other.worstShotsAmount;
+            worstPlacement = other.worstPlacement;
+        }
+    }
+
+    public long getSamplesAmount() {
+        return samplesAmount;
+    }
+
+    public double getAverage() {
+        return samplesAmount == 0 ? 0 : (double) shotsSum / samplesAmount;
+    }
+
+    /**
+     * @param fraction fraction of samples, from 0 to 1
+     * @return the lowest amount of shots not exceeded by given fraction of samples
+     */
+    public int getPercentile(double fraction) {
+        long neededSamples = (long) Math.ceil(fraction * samplesAmount);
+        long countedSamples = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            countedSamples += histogram[i];
+            if (countedSamples >= neededSamples && countedSamples > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public int getWorstShotsAmount() {
+        return worstShotsAmount;
+    }
+
+    /**
+     * @return map of the worst fleet placement, one line per row, with '#' for ship tiles and '.' for empty tiles
+     */
+    public String getWorstPlacementDrawing() {
+        if (worstPlacement == null) {
+            return "";
+        }
+        BitBoard shipTiles = new BitBoard(ruleset);
+        for (Ship currentShip : worstPlacement) {
+            currentShip.markTiles(shipTiles);
+        }
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < ruleset.getRowsAmount(); i++) {
+            for (int j = 0; j < ruleset.getColumnsAmount(); j++) {
+                stringBuilder.append(shipTiles.get(ruleset.toIndex(j, i)) ? '#' : '.');
+            }
+            stringBuilder.append(System.lineSeparator());
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.shipsgame.simulation;
+
+/**
+ * Statistics of a single ai strategy collected over simulated games.
+ */
+public class StrategyStats {
+
+    private long gamesPlayed;
+    private long wins;
+    // Sum of shots fired in games won by the strategy
+    private long winningShotsSum;
+    private long movesAmount;
+    private long movesNanosSum;
+
+    /**
+     * Record result of a game played by the strategy.
+     *
+     * @param won         true if the strategy won the game
+     * @param shotsAmount amount of shots fired by the strategy in the game
+     */
+    public void addGame(boolean won, int shotsAmount) {
+        gamesPlayed++;
+        if (won) {
+            wins++;
+            winningShotsSum += shotsAmount;
+        }
+    }
+
+    /**
+     * @param moveNanos time needed by the strategy to make a single move in nanoseconds
+     */
+    public void addMove(long moveNanos) {
+        movesAmount++;
+        movesNanosSum += moveNanos;
+    }
+
+    /**
+     * Add all statistics collected by other to this statistics.
+     */
+    public void add(StrategyStats other) {
+        gamesPlayed += other.gamesPlayed;
+        wins += other.wins;
+        winningShotsSum += other.winningShotsSum;
+        movesAmount += other.movesAmount;
+        movesNanosSum += other.movesNanosSum;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public double getWinRate() {
+        return gamesPlayed == 0 ? 0 : (double) wins / gamesPlayed;
+    }
+
+    /**
+     * @return average amount of shots needed to destroy enemy fleet in won games
+     */
+    public double getAverageShotsToWin() {
+        return wins == 0 ? 0 : (double) winningShotsSum / wins;
+    }
+
+    /**
+     * @return average time of a single move in nanoseconds
+     */
+    public double getAverageMoveNanos() {
+        return movesAmount == 0 ? 0 : (double) movesNanosSum / movesAmount;
+    }
+}
@@ -0,0 +1,149 @@
+package com.shipsgame.simulation;
+
+import com.shipsgame.AiMode;
+import com.shipsgame.utilities.GameRandom;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays games between every pair of ai strategies on a pool of threads and reports statistics of every strategy.
+ * Every pair plays in both orders, so no strategy gains from shooting first.
+ * Run from main with optional amount of games per pair and order as the first argument, optional amount of threads
+ * as the second argument and optional seed as the third argument. Tournaments with the same seed play the same games
+ * regardless of the amount of threads.
+ */
+public class Tournament {
+
+    private static final int DEFAULT_GAMES_AMOUNT = 20000;
+    // Amount of games played by a single task submitted to the thread pool
+    private static final int BATCH_SIZE = 1000;
+
+    private final int gamesAmount;
+    private final int threadsAmount;
+    // Generators of all batches are split from this one, in the order of submitting batches
+    private final GameRandom random;
+    private final EnumMap<AiMode, StrategyStats> strategiesStats;
+    // Results of games indexed by modes of the first and the second ai
+    private final StrategyStats[][] matchupsStats;
+
+    /**
+     * @param gamesAmount   amount of games played by every ordered pair of strategies
+     * @param threadsAmount amount of threads playing games
+     * @param seed          seed of all games of the tournament
+     */
+    public Tournament(int gamesAmount, int threadsAmount, long seed) {
+        this.gamesAmount = gamesAmount;
+        this.threadsAmount = threadsAmount;
+        this.random = new GameRandom(seed);
+        this.strategiesStats = new EnumMap<>(AiMode.class);
+        for (AiMode aiMode : AiMode.values()) {
+            strategiesStats.put(aiMode, new StrategyStats());
+        }
+        this.matchupsStats = new StrategyStats[AiMode.values().length][AiMode.values().length];
+    }
+
+    /**
+     * Play all games of the tournament and collect their statistics.
+     */
+    public void play() throws InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadsAmount);
+        try {
+            List<Future<GameSimulator>> results = new ArrayList<>();
+            for (AiMode firstAiMode : AiMode.values()) {
+                for (AiMode secondAiMode : AiMode.values()) {
+                    if (firstAiMode == secondAiMode) {
+                        continue;
+                    }
+                    matchupsStats[firstAiMode.ordinal()][secondAiMode.ordinal()] = new StrategyStats();
+                    for (int playedGames = 0; playedGames < gamesAmount; playedGames += BATCH_SIZE) {
+                        results.add(executorService.submit(new GamesBatch(firstAiMode, secondAiMode,
+                                Math.min(BATCH_SIZE, gamesAmount - playedGames), random.split())));
+                    }
+                }
+            }
+
+            // Every batch uses its own simulator, so statistics are merged only here, by a single thread
+            for (Future<GameSimulator> result : results) {
+                GameSimulator gameSimulator = result.get();
+                strategiesStats.get(gameSimulator.getFirstAiMode()).add(gameSimulator.getFirstAiStats());
+                strategiesStats.get(gameSimulator.getSecondAiMode()).add(gameSimulator.getSecondAiStats());
+                matchupsStats[gameSimulator.getFirstAiMode().ordinal()][gameSimulator.getSecondAiMode().ordinal()]
+                        .add(gameSimulator.getFirstAiStats());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    public StrategyStats getStrategyStats(AiMode aiMode) {
+        return strategiesStats.get(aiMode);
+    }
+
+    /**
+     * @return statistics of the first ai in games between given strategies
+     */
+    public StrategyStats getMatchupStats(AiMode firstAiMode, AiMode secondAiMode) {
+        return matchupsStats[firstAiMode.ordinal()][secondAiMode.ordinal()];
+    }
+
+    /**
+     * Task playing given amount of games between two strategies.
+     */
+    private static class GamesBatch implements Callable<GameSimulator> {
+
+        private final AiMode firstAiMode;
+        private final AiMode secondAiMode;
+        private final int gamesAmount;
+        private final GameRandom random;
+
+        private GamesBatch(AiMode firstAiMode, AiMode secondAiMode, int gamesAmount, GameRandom random) {
+            this.firstAiMode = firstAiMode;
+            this.secondAiMode = secondAiMode;
+            this.gamesAmount = gamesAmount;
+            this.random = random;
+        }
+
+        @Override
+        public GameSimulator call() {
+            GameSimulator gameSimulator = new GameSimulator(firstAiMode, secondAiMode, random);
+            for (int i = 0; i < gamesAmount; i++) {
+                gameSimulator.playGame();
+            }
+            return gameSimulator;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int gamesAmount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_AMOUNT;
+        int threadsAmount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : GameRandom.generateSeed();
+
+        Tournament tournament = new Tournament(gamesAmount, threadsAmount, seed);
+        long startTime = System.nanoTime();
+        tournament.play();
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("Tournament finished in %.2f s using %d threads, seed %d%n", elapsedSeconds, threadsAmount, seed);
+        System.out.printf("%-20s %10s %10s %16s %14s%n", "Strategy", "Games", "Win rate", "Shots to win", "ns per move");
+        for (AiMode aiMode : AiMode.values()) {
+            StrategyStats stats = tournament.getStrategyStats(aiMode);
+            System.out.printf("%-20s %10d %9.2f%% %16.2f %14.0f%n", aiMode, stats.getGamesPlayed(),
+                    stats.getWinRate() * 100, stats.getAverageShotsToWin(), stats.getAverageMoveNanos());
+        }
+        for (AiMode firstAiMode : AiMode.values()) {
+            for (AiMode secondAiMode : AiMode.values()) {
+                if (firstAiMode != secondAiMode) {
+                    System.out.printf("%s shooting first vs %s : %.2f%% wins%n", firstAiMode, secondAiMode,
+                            tournament.getMatchupStats(firstAiMode, secondAiMode).getWinRate() * 100);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.shipsgame.targeting;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.map.Symbol;
+import com.shipsgame.map.TilePool;
+import com.shipsgame.utilities.Direction;
+import com.shipsgame.utilities.GameRandom;
+
+/**
+ * Attacks random tiles until a ship is hit, then follows the hit ship in random directions until it is destroyed.
+ * Tiles surrounding destroyed ships are never attacked.
+ */
+public class HuntAndTargetStrategy implements TargetingStrategy {
+
+    private static final long serialVersionUID = 1L;
+    private static final int NO_TILE = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private Ruleset ruleset;
+    // Enemy tiles that weren't attacked yet and may contain a ship
+    private TilePool availablePlayerTiles;
+    // Fields used to "intelligently" choose next tile to attack
+    private boolean justHitShip;
+    private int[] attackedShipTiles;
+    private int attackedShipTilesAmount;
+    private Direction attackedShipDirection;
+    // Bit mask of Direction ordinals already checked for attack
+    private int checkedDirectionsMask;
+    private Direction[] validDirectionsForAttack;
+    private boolean checkBackwardsAttackedShip;
+    private boolean shipDirectionConfirmed;
+    private boolean checkLongAttackedShipBackwards;
+
+    /**
+     * @param ruleset rules of the game, describing the attacked board
+     */
+    public HuntAndTargetStrategy(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.availablePlayerTiles = new TilePool(ruleset);
+        this.justHitShip = false;
+        // Attacked ship is straight, so it can't be longer than the longer side of the board
+        this.attackedShipTiles = new int[Math.max(ruleset.getColumnsAmount(), ruleset.getRowsAmount())];
+        this.attackedShipTilesAmount = 0;
+        this.attackedShipDirection = null;
+        this.checkedDirectionsMask = 0;
+        this.validDirectionsForAttack = new Direction[DIRECTIONS.length];
+        this.checkBackwardsAttackedShip = false;
+        this.shipDirectionConfirmed = false;
+        this.checkLongAttackedShipBackwards = false;
+    }
+
+    @Override
+    public int chooseTile(GameRandom random) {
+        int chosenTile = NO_TILE;
+        if (justHitShip) {
+            int previousTile;
+            if (checkBackwardsAttackedShip && !checkLongAttackedShipBackwards) {
+                previousTile = attackedShipTiles[0];
+            } else {
+                previousTile = attackedShipTiles[attackedShipTilesAmount - 1];
+            }
+
+            if (attackedShipDirection == null) {
+                int validDirectionsAmount = 0;
+                for (Direction currentDirection : DIRECTIONS) {
+                    if ((checkedDirectionsMask & (1 << currentDirection.ordinal())) == 0
+                            && isAvailablePlayerTile(getNeighbourTile(previousTile, currentDirection))) {
+                        validDirectionsForAttack[validDirectionsAmount++] = currentDirection;
+                    }
+                }
+                if (validDirectionsAmount > 0) {
+                    attackedShipDirection = validDirectionsForAttack[random.nextInt(validDirectionsAmount)];
+                    checkedDirectionsMask |= 1 << attackedShipDirection.ordinal();
+                }
+            }
+            if (attackedShipDirection != null) {
+                chosenTile = getNeighbourTile(previousTile, attackedShipDirection);
+            }
+            if (!isAvailablePlayerTile(chosenTile)) {
+                // Attacked ship can't be followed any more, go back to searching for ships
+                resetAttackedShip();
+                chosenTile = NO_TILE;
+            }
+        }
+        if (chosenTile == NO_TILE) {
+            chosenTile = availablePlayerTiles.removeRandom(random);
+        } else {
+            availablePlayerTiles.remove(chosenTile);
+        }
+        return chosenTile;
+    }
+
+    /**
+     * Tiles next to a followed ship are available tiles too, so all available tiles are counted.
+     */
+    @Override
+    public int getCandidateTilesAmount() {
+        return availablePlayerTiles.size();
+    }
+
+    @Override
+    public void processAttackResult(int tileIndex, Symbol attackStatus) {
+        if (attackStatus == Symbol.FAILED_HIT) {
+            if (justHitShip) {
+                if (shipDirectionConfirmed) {
+                    checkBackwardsAttackedShip = true;
+                }
+                if (checkBackwardsAttackedShip) {
+                    attackedShipDirection = Direction.getOppositeDirection(attackedShipDirection);
+                } else {
+                    attackedShipDirection = null;
+                }
+            } else {
+                justHitShip = false;
+            }
+        } else if (attackStatus == Symbol.DESTROYED) {
+            attackedShipTiles[attackedShipTilesAmount++] = tileIndex;
+            // Remove all tiles surrounding destroyed ship from availablePlayerTiles
+            for (int i = 0; i < attackedShipTilesAmount; i++) {
+                availablePlayerTiles.removeNeighbourhood(attackedShipTiles[i]);
+            }
+            resetAttackedShip();
+        } else if (attackStatus == Symbol.SUCCESSFUL_HIT) {
+            attackedShipTiles[attackedShipTilesAmount++] = tileIndex;
+            if (justHitShip) {
+                shipDirectionConfirmed = true;
+            }
+            justHitShip = true;
+            // In case of a long ship when ai starts shooting in reverse
+            if (checkBackwardsAttackedShip) {
+                checkLongAttackedShipBackwards = true;
+            }
+            // Check if ai is not attacking beyond map bounds or unavailable tile
+            if (attackedShipDirection != null && !isAvailablePlayerTile(getNeighbourTile(tileIndex, attackedShipDirection))) {
+                checkBackwardsAttackedShip = true;
+                attackedShipDirection = Direction.getOppositeDirection(attackedShipDirection);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        availablePlayerTiles.reset();
+        resetAttackedShip();
+    }
+
+    /**
+     * Forget about currently attacked ship and go back to attacking random tiles.
+     */
+    private void resetAttackedShip() {
+        justHitShip = false;
+        checkBackwardsAttackedShip = false;
+        shipDirectionConfirmed = false;
+        checkedDirectionsMask = 0;
+        attackedShipTilesAmount = 0;
+        attackedShipDirection = null;
+        checkLongAttackedShipBackwards = false;
+    }
+
+    /**
+     * @param tileIndex index of the tile
+     * @param direction direction of the neighbour
+     * @return index of the tile next to the given one in given direction or NO_TILE if it is beyond map bounds
+     */
+    private int getNeighbourTile(int tileIndex, Direction direction) {
+        int indexX = ruleset.toIndexX(tileIndex) + direction.getOffsetX();
+        int indexY = ruleset.toIndexY(tileIndex) + direction.getOffsetY();
+        return ruleset.isOnMap(indexX, indexY) ? ruleset.toIndex(indexX, indexY) : NO_TILE;
+    }
+
+    private boolean isAvailablePlayerTile(int tileIndex) {
+        return tileIndex != NO_TILE && availablePlayerTiles.contains(tileIndex);
+    }
+}
@@ -0,0 +1,447 @@
+package com.shipsgame.targeting;
+
+import com.shipsgame.Ruleset;
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.Symbol;
+import com.shipsgame.utilities.GameRandom;
+
+import java.util.Arrays;
+
+/**
+ * Chooses tiles to attack by counting, for every tile, how many positions of enemy ships that are still alive
+ * could cover it, and attacking the tile with the highest count. Positions covering hits of not yet destroyed ships
+ * are weighted much higher, so damaged ships are finished first.
+ * Counts are kept for every ship size and direction separately, so after every shot only parts of rows and columns
+ * around the attacked tile are recounted instead of the whole map. On boards with more than SCANNED_TILES_LIMIT tiles scores
+ * of tiles are also kept in a {@link TileScoreTree}, so choosing a tile doesn't check every tile of the board either.
+ */
+public class ProbabilityDensityStrategy implements TargetingStrategy {
+
+    private static final long serialVersionUID = 1L;
+    // Weight of ship positions covering hits of not yet destroyed ships
+    private static final int HIT_WEIGHT = 1000;
+    // Boards with up to this amount of tiles are scanned whole to choose a tile
+    private static final int SCANNED_TILES_LIMIT = 1024;
+    // Amount of tiles which scores are changed in the score tree before nodes above them are updated
+    private static final int SCORE_TREE_UPDATE_BATCH = 1024;
+    // Scores are updated tile by tile only if at most 1 / SPARSE_UPDATE_RATIO of tiles are candidates, otherwise
+    // rebuilding the whole score tree is faster
+    private static final int SPARSE_UPDATE_RATIO = 16;
+
+    private Ruleset ruleset;
+    // Sizes of all enemy ships
+    private int[] enemyShipSizes;
+    // Amount of alive enemy ships indexed by ship size
+    private int[] aliveShipsAmounts;
+    // Distinct sizes of enemy ships
+    private int[] shipSizes;
+    // Tiles that can't contain alive ship parts: missed shots, destroyed ships and tiles surrounding them
+    private BitBoard blockedTiles;
+    // Tiles that weren't attacked yet
+    private BitBoard availableTiles;
+    // Hit parts of ships that weren't destroyed yet
+    private BitBoard hitTiles;
+    // Tiles next to hit tiles in vertical direction, horizontal ships covering them would touch hit ship
+    private BitBoard horizontallyBlockedTiles;
+    // Tiles next to hit tiles in horizontal direction, vertical ships covering them would touch hit ship
+    private BitBoard verticallyBlockedTiles;
+    // Amount of valid horizontal ship positions covering every tile, increased by HIT_WEIGHT for every such position
+    // covering at least one hit tile, indexed by number of ship size in shipSizes and tile index
+    private int[][] horizontalScores;
+    // The same for vertical ship positions
+    private int[][] verticalScores;
+    // Tiles that weren't attacked yet and aren't blocked, reused by chooseTile on small boards
+    private BitBoard candidateTiles;
+    // Scores of candidate tiles on big boards, null on small boards
+    private TileScoreTree scoreTree;
+    // False while scores are recounted before rebuilding the whole score tree
+    private boolean scoreTreeUpdated;
+    // Buffer for tiles which scores were changed in the score tree, null on small boards
+    private int[] changedScoreTiles;
+    // Buffer for tiles of destroyed ship
+    private int[] destroyedShipTiles;
+    // Buffers used by recountLine, indexed by number of tile in the line
+    private boolean[] lineHits;
+    private int[] lineBlockedPrefixSums;
+    private int[] lineHitsPrefixSums;
+    private int[] validStartsPrefixSums;
+    private int[] hitStartsPrefixSums;
+
+    /**
+     * @param ruleset rules of the game, describing the attacked board and fleet
+     */
+    public ProbabilityDensityStrategy(Ruleset ruleset) {
+        this.ruleset = ruleset;
+        this.enemyShipSizes = ruleset.getFleetComposition().getShipSizes();
+        int maxShipSize = ruleset.getFleetComposition().getMaxShipSize();
+        boolean[] usedSizes = new boolean[maxShipSize + 1];
+        int distinctSizesAmount = 0;
+        for (int shipSize : enemyShipSizes) {
+            if (!usedSizes[shipSize]) {
+                usedSizes[shipSize] = true;
+                distinctSizesAmount++;
+            }
+        }
+        this.shipSizes = new int[distinctSizesAmount];
+        for (int i = 0, j = 0; i <= maxShipSize; i++) {
+            if (usedSizes[i]) {
+                shipSizes[j++] = i;
+            }
+        }
+
+        int tilesAmount = ruleset.getTilesAmount();
+        int maxLineLength = Math.max(ruleset.getColumnsAmount(), ruleset.getRowsAmount());
+        this.aliveShipsAmounts = new int[maxShipSize + 1];
+        this.blockedTiles = new BitBoard(ruleset);
+        this.availableTiles = new BitBoard(ruleset);
+        this.hitTiles = new BitBoard(ruleset);
+        this.horizontallyBlockedTiles = new BitBoard(ruleset);
+        this.verticallyBlockedTiles = new BitBoard(ruleset);
+        this.horizontalScores = new int[distinctSizesAmount][tilesAmount];
+        this.verticalScores = new int[distinctSizesAmount][tilesAmount];
+        this.candidateTiles = new BitBoard(ruleset);
+        this.scoreTree = tilesAmount > SCANNED_TILES_LIMIT ? new TileScoreTree(tilesAmount) : null;
+        this.changedScoreTiles = scoreTree != null ? new int[SCORE_TREE_UPDATE_BATCH] : null;
+        this.destroyedShipTiles = new int[maxLineLength];
+        this.lineHits = new boolean[maxLineLength];
+        this.lineBlockedPrefixSums = new int[maxLineLength + 1];
+        this.lineHitsPrefixSums = new int[maxLineLength + 1];
+        this.validStartsPrefixSums = new int[maxLineLength + 1];
+        this.hitStartsPrefixSums = new int[maxLineLength + 1];
+
+        reset();
+    }
+
+    /**
+     * Mark all enemy ships as alive and all tiles as not attacked, then count all ship positions.
+     */
+    @Override
+    public void reset() {
+        Arrays.fill(aliveShipsAmounts, 0);
+        for (int shipSize : enemyShipSizes) {
+            aliveShipsAmounts[shipSize]++;
+        }
+        blockedTiles.clear();
+        availableTiles.fill();
+        hitTiles.clear();
+        horizontallyBlockedTiles.clear();
+        verticallyBlockedTiles.clear();
+
+        scoreTreeUpdated = false;
+        for (int i = 0; i < ruleset.getRowsAmount(); i++) {
+            recountRow(i, 0, ruleset.getColumnsAmount() - 1);
+        }
+        for (int i = 0; i < ruleset.getColumnsAmount(); i++) {
+            recountColumn(i, 0, ruleset.getRowsAmount() - 1);
+        }
+        rebuildScoreTree();
+    }
+
+    /**
+     * Choose tile with the highest amount of possible ship positions. Ties are broken randomly.
+     */
+    @Override
+    public int chooseTile(GameRandom random) {
+        int bestTile = scoreTree != null ? scoreTree.chooseTile(random) : scanTiles(random);
+        if (bestTile == -1) {
+            // All tiles that may contain ships were attacked, can happen only if enemy fleet differs from expected one
+            bestTile = availableTiles.selectTile(random.nextInt(availableTiles.cardinality()));
+        }
+        return bestTile;
+    }
+
+    /**
+     * Check scores of all candidate tiles.
+     *
+     * @return tile with the highest score or -1 if there are no candidate tiles
+     */
+    private int scanTiles(GameRandom random) {
+        int bestTile = -1;
+        long bestScore = -1;
+        int bestTilesAmount = 0;
+        candidateTiles.clear();
+        candidateTiles.or(availableTiles);
+        candidateTiles.andNot(blockedTiles);
+        for (int i = candidateTiles.nextTile(0); i != -1; i = candidateTiles.nextTile(i + 1)) {
+            long score = calculateScore(i);
+            if (score > bestScore) {
+                bestScore = score;
+                bestTile = i;
+                bestTilesAmount = 1;
+            } else if (score == bestScore && random.nextInt(++bestTilesAmount) == 0) {
+                bestTile = i;
+            }
+        }
+        return bestTile;
+    }
+
+    @Override
+    public int getCandidateTilesAmount() {
+        candidateTiles.clear();
+        candidateTiles.or(availableTiles);
+        candidateTiles.andNot(blockedTiles);
+        return candidateTiles.cardinality();
+    }
+
+    private long calculateScore(int tileIndex) {
+        long score = 0;
+        for (int i = 0; i < shipSizes.length; i++) {
+            int aliveShipsAmount = aliveShipsAmounts[shipSizes[i]];
+            if (aliveShipsAmount > 0) {
+                score += (long) aliveShipsAmount * (horizontalScores[i][tileIndex] + verticalScores[i][tileIndex]);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return score of the tile or TileScoreTree.NO_SCORE if the tile was attacked or is blocked
+     */
+    private long calculateCandidateScore(int tileIndex) {
+        if (!availableTiles.get(tileIndex) || blockedTiles.get(tileIndex)) {
+            return TileScoreTree.NO_SCORE;
+        }
+        return calculateScore(tileIndex);
+    }
+
+    /**
+     * Set scores of all tiles in the score tree, if there is one.
+     */
+    private void rebuildScoreTree() {
+        if (scoreTree != null) {
+            for (int i = 0; i < ruleset.getTilesAmount(); i++) {
+                scoreTree.setScoreWithoutUpdate(i, calculateCandidateScore(i));
+            }
+            scoreTree.rebuild();
+        }
+        scoreTreeUpdated = true;
+    }
+
+    /**
+     * Update scores in the score tree, if there is one, after the amount of alive ships of given size changed.
+     * Scores change only on candidate tiles covered by positions of ships of that size, so late in the game, when few
+     * tiles are candidates, only these tiles and nodes above them are updated instead of rebuilding the whole tree.
+     */
+    private void updateScoreTree(int shipSize) {
+        if (scoreTree == null) {
+            return;
+        }
+        candidateTiles.clear();
+        candidateTiles.or(availableTiles);
+        candidateTiles.andNot(blockedTiles);
+        if (candidateTiles.cardinality() > ruleset.getTilesAmount() / SPARSE_UPDATE_RATIO) {
+            rebuildScoreTree();
+            return;
+        }
+        int sizeNumber = Arrays.binarySearch(shipSizes, shipSize);
+        int[] shipHorizontalScores = horizontalScores[sizeNumber];
+        int[] shipVerticalScores = verticalScores[sizeNumber];
+        int changedTilesAmount = 0;
+        for (int i = candidateTiles.nextTile(0); i != -1; i = candidateTiles.nextTile(i + 1)) {
+            if (shipHorizontalScores[i] != 0 || shipVerticalScores[i] != 0) {
+                scoreTree.setScoreWithoutUpdate(i, calculateScore(i));
+                changedScoreTiles[changedTilesAmount++] = i;
+                if (changedTilesAmount == changedScoreTiles.length) {
+                    scoreTree.update(changedScoreTiles, changedTilesAmount);
+                    changedTilesAmount = 0;
+                }
+            }
+        }
+        scoreTree.update(changedScoreTiles, changedTilesAmount);
+    }
+
+    /**
+     * Update counts after the result of attacking given tile is known.
+     */
+    @Override
+    public void processAttackResult(int tileIndex, Symbol attackStatus) {
+        availableTiles.clear(tileIndex);
+        int indexX = ruleset.toIndexX(tileIndex);
+        int indexY = ruleset.toIndexY(tileIndex);
+        if (attackStatus == Symbol.FAILED_HIT) {
+            blockedTiles.set(tileIndex);
+            recountRow(indexY, indexX, indexX);
+            recountColumn(indexX, indexY, indexY);
+        } else if (attackStatus == Symbol.SUCCESSFUL_HIT) {
+            addHitTile(indexX, indexY);
+            // Ships don't touch, so hit affects positions in neighbouring rows and columns too
+            for (int i = Math.max(indexY - 1, 0); i <= Math.min(indexY + 1, ruleset.getRowsAmount() - 1); i++) {
+                recountRow(i, indexX - 1, indexX + 1);
+            }
+            for (int i = Math.max(indexX - 1, 0); i <= Math.min(indexX + 1, ruleset.getColumnsAmount() - 1); i++) {
+                recountColumn(i, indexY - 1, indexY + 1);
+            }
+        } else if (attackStatus == Symbol.DESTROYED) {
+            addHitTile(indexX, indexY);
+            removeDestroyedShip(tileIndex);
+        }
+    }
+
+    /**
+     * Mark tile as a hit ship part. Ships are straight, so diagonal neighbours of the tile are empty.
+     */
+    private void addHitTile(int indexX, int indexY) {
+        hitTiles.set(ruleset.toIndex(indexX, indexY));
+        for (int i = indexY - 1; i <= indexY + 1; i++) {
+            for (int j = indexX - 1; j <= indexX + 1; j++) {
+                if (!ruleset.isOnMap(j, i)) {
+                    continue;
+                }
+                if (i != indexY && j != indexX) {
+                    blockedTiles.set(ruleset.toIndex(j, i));
+                } else if (i != indexY) {
+                    horizontallyBlockedTiles.set(ruleset.toIndex(j, i));
+                } else if (j != indexX) {
+                    verticallyBlockedTiles.set(ruleset.toIndex(j, i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Block tiles of a destroyed ship and its surroundings. Ships don't touch each other, so the destroyed ship
+     * is built from all hit tiles in line with the last attacked tile.
+     *
+     * @param tileIndex index of the tile which attack destroyed the ship
+     */
+    private void removeDestroyedShip(int tileIndex) {
+        int shipSize = 0;
+        destroyedShipTiles[shipSize++] = tileIndex;
+        int indexX = ruleset.toIndexX(tileIndex);
+        int indexY = ruleset.toIndexY(tileIndex);
+        int minX = indexX, maxX = indexX, minY = indexY, maxY = indexY;
+        while (minX > 0 && hitTiles.get(ruleset.toIndex(minX - 1, indexY))) {
+            destroyedShipTiles[shipSize++] = ruleset.toIndex(--minX, indexY);
+        }
+        while (maxX < ruleset.getColumnsAmount() - 1 && hitTiles.get(ruleset.toIndex(maxX + 1, indexY))) {
+            destroyedShipTiles[shipSize++] = ruleset.toIndex(++maxX, indexY);
+        }
+        while (minY > 0 && hitTiles.get(ruleset.toIndex(indexX, minY - 1))) {
+            destroyedShipTiles[shipSize++] = ruleset.toIndex(indexX, --minY);
+        }
+        while (maxY < ruleset.getRowsAmount() - 1 && hitTiles.get(ruleset.toIndex(indexX, maxY + 1))) {
+            destroyedShipTiles[shipSize++] = ruleset.toIndex(indexX, ++maxY);
+        }
+
+        for (int i = 0; i < shipSize; i++) {
+            hitTiles.clear(destroyedShipTiles[i]);
+        }
+        for (int i = Math.max(minY - 1, 0); i <= Math.min(maxY + 1, ruleset.getRowsAmount() - 1); i++) {
+            for (int j = Math.max(minX - 1, 0); j <= Math.min(maxX + 1, ruleset.getColumnsAmount() - 1); j++) {
+                blockedTiles.set(ruleset.toIndex(j, i));
+            }
+        }
+        boolean aliveShipsChanged = shipSize < aliveShipsAmounts.length && aliveShipsAmounts[shipSize] > 0;
+        if (aliveShipsChanged) {
+            aliveShipsAmounts[shipSize]--;
+        }
+
+        for (int i = Math.max(minY - 1, 0); i <= Math.min(maxY + 1, ruleset.getRowsAmount() - 1); i++) {
+            recountRow(i, minX - 1, maxX + 1);
+        }
+        for (int i = Math.max(minX - 1, 0); i <= Math.min(maxX + 1, ruleset.getColumnsAmount() - 1); i++) {
+            recountColumn(i, minY - 1, maxY + 1);
+        }
+        if (aliveShipsChanged) {
+            // Recounted tiles already have their new scores, scores of the other tiles covered by ships of this size
+            // change too
+            updateScoreTree(shipSize);
+        }
+    }
+
+    /**
+     * Recount horizontal ship positions of all sizes in given row, around tiles of the row that changed.
+     *
+     * @param indexY      vertical index of the row
+     * @param changedFrom horizontal index of the first changed tile
+     * @param changedTo   horizontal index of the last changed tile
+     */
+    private void recountRow(int indexY, int changedFrom, int changedTo) {
+        recountLine(ruleset.toIndex(0, indexY), 1, ruleset.getColumnsAmount(), changedFrom, changedTo,
+                horizontallyBlockedTiles, horizontalScores);
+    }
+
+    /**
+     * Recount vertical ship positions of all sizes in given column, around tiles of the column that changed.
+     *
+     * @param indexX      horizontal index of the column
+     * @param changedFrom vertical index of the first changed tile
+     * @param changedTo   vertical index of the last changed tile
+     */
+    private void recountColumn(int indexX, int changedFrom, int changedTo) {
+        recountLine(ruleset.toIndex(indexX, 0), ruleset.getColumnsAmount(), ruleset.getRowsAmount(), changedFrom, changedTo,
+                verticallyBlockedTiles, verticalScores);
+    }
+
+    /**
+     * Recount ship positions of all sizes in a single row or column of the map. Valid position doesn't cover
+     * any blocked tile, doesn't touch hit tiles from the side and doesn't end right before a hit tile.
+     * Change of a tile affects only positions touching it, so only tiles closer than the biggest ship to changed tiles
+     * are recounted, using tiles closer than twice the size of the biggest ship. Blocked tiles and hits of that part
+     * of the line are summed into prefix sums, so every position is checked in constant time and recounting takes
+     * the same time on boards of any size.
+     *
+     * @param firstTileIndex   index of the first tile of the line
+     * @param step             difference between indices of following tiles of the line
+     * @param lineLength       amount of tiles in the line
+     * @param changedFrom      number of the first changed tile in the line
+     * @param changedTo        number of the last changed tile in the line
+     * @param lineBlockedTiles tiles that can't be covered by positions along this line, unless they are hit
+     * @param scores           scores of positions along the line to update, indexed by number of ship size and tile index
+     */
+    private void recountLine(int firstTileIndex, int step, int lineLength, int changedFrom, int changedTo,
+                             BitBoard lineBlockedTiles, int[][] scores) {
+        int maxShipSize = shipSizes[shipSizes.length - 1];
+        // Recounted tiles, positions covering them and tiles touching these positions
+        int scoredFrom = Math.max(changedFrom - maxShipSize, 0);
+        int scoredTo = Math.min(changedTo + maxShipSize, lineLength - 1);
+        int startsFrom = Math.max(scoredFrom - maxShipSize + 1, 0);
+        int checkedFrom = Math.max(scoredFrom - maxShipSize, 0);
+        int checkedTo = Math.min(scoredTo + maxShipSize, lineLength - 1);
+
+        lineBlockedPrefixSums[checkedFrom] = 0;
+        lineHitsPrefixSums[checkedFrom] = 0;
+        for (int i = checkedFrom, currentTileIndex = firstTileIndex + checkedFrom * step; i <= checkedTo; i++, currentTileIndex += step) {
+            lineHits[i] = hitTiles.get(currentTileIndex);
+            boolean lineBlocked = !lineHits[i] && (blockedTiles.get(currentTileIndex) || lineBlockedTiles.get(currentTileIndex));
+            lineBlockedPrefixSums[i + 1] = lineBlockedPrefixSums[i] + (lineBlocked ? 1 : 0);
+            lineHitsPrefixSums[i + 1] = lineHitsPrefixSums[i] + (lineHits[i] ? 1 : 0);
+        }
+
+        for (int sizeNumber = 0; sizeNumber < shipSizes.length; sizeNumber++) {
+            int shipSize = shipSizes[sizeNumber];
+            // Ships with size 1 are counted only horizontally
+            if (shipSize == 1 && step != 1) {
+                continue;
+            }
+            // Prefix sums of starts of valid positions and of valid positions covering hit tiles
+            validStartsPrefixSums[startsFrom] = 0;
+            hitStartsPrefixSums[startsFrom] = 0;
+            for (int start = startsFrom; start <= scoredTo; start++) {
+                int end = start + shipSize;
+                boolean valid = end <= lineLength
+                        && lineBlockedPrefixSums[end] == lineBlockedPrefixSums[start]
+                        && (start == 0 || !lineHits[start - 1])
+                        && (end == lineLength || !lineHits[end]);
+                boolean coversHit = valid && lineHitsPrefixSums[end] != lineHitsPrefixSums[start];
+                validStartsPrefixSums[start + 1] = validStartsPrefixSums[start] + (valid ? 1 : 0);
+                hitStartsPrefixSums[start + 1] = hitStartsPrefixSums[start] + (coversHit ? 1 : 0);
+            }
+
+            int[] shipScores = scores[sizeNumber];
+            for (int i = scoredFrom, currentTileIndex = firstTileIndex + scoredFrom * step; i <= scoredTo; i++, currentTileIndex += step) {
+                // Positions covering tile number i start at tiles i - shipSize + 1 to i
+                int firstStart = Math.max(i - shipSize + 1, 0);
+                int density = validStartsPrefixSums[i + 1] - validStartsPrefixSums[firstStart];
+                int hitDensity = hitStartsPrefixSums[i + 1] - hitStartsPrefixSums[firstStart];
+                shipScores[currentTileIndex] = density + HIT_WEIGHT * hitDensity;
+            }
+        }
+
+        if (scoreTree != null && scoreTreeUpdated) {
+            for (int i = scoredFrom, currentTileIndex = firstTileIndex + scoredFrom * step; i <= scoredTo; i++, currentTileIndex += step) {
+                scoreTree.setScore(currentTileIndex, calculateCandidateScore(currentTileIndex));
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.shipsgame.targeting;
+
+import com.shipsgame.map.Symbol;
+import com.shipsgame.utilities.GameRandom;
+
+import java.io.Serializable;
+
+/**
+ * Way of choosing enemy tiles to attack, used by the ai. Tiles are identified by indices of the
+ * {@link com.shipsgame.Ruleset} of the game. Every call to {@link #chooseTile(GameRandom)} is followed by a call to
+ * {@link #processAttackResult(int, Symbol)} with the chosen tile.
+ */
+public interface TargetingStrategy extends Serializable {
+
+    /**
+     * Choose next tile to attack. Tile is never chosen twice.
+     *
+     * @param random random number generator of the ai
+     * @return index of a tile to attack
+     */
+    int chooseTile(GameRandom random);
+
+    /**
+     * Update knowledge about the enemy after attacking a tile.
+     *
+     * @param tileIndex    index of attacked tile
+     * @param attackStatus result of the attack
+     */
+    void processAttackResult(int tileIndex, Symbol attackStatus);
+
+    /**
+     * Count tiles the next tile would be chosen from. Used only for diagnostics, it may take time proportional to
+     * the size of the board.
+     *
+     * @return amount of tiles which may be chosen next
+     */
+    int getCandidateTilesAmount();
+
+    /**
+     * Forget all attacks, so the strategy can be used in a new game.
+     */
+    void reset();
+}
@@ -0,0 +1,140 @@
+package com.shipsgame.targeting;
+
+import com.shipsgame.utilities.GameRandom;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Scores of all tiles of the board kept in a segment tree, so a tile with the highest score is found without checking
+ * every tile. Every node holds the highest score of tiles below it and the amount of tiles with that score.
+ * Changing a score and choosing a tile take time proportional to the logarithm of the amount of tiles.
+ */
+class TileScoreTree implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    // Score of tiles which can't be chosen
+    static final long NO_SCORE = -1;
+
+    // Amount of leaves, the lowest power of two not lower than the amount of tiles
+    private final int leavesAmount;
+    // Node 1 is the root, children of node i are nodes 2 * i and 2 * i + 1, leaf of tile i is node leavesAmount + i
+    private final long[] maxScores;
+    private final int[] maxScoreTilesAmounts;
+
+    /**
+     * Create tree in which no tile can be chosen.
+     *
+     * @param tilesAmount amount of tiles of the board
+     */
+    TileScoreTree(int tilesAmount) {
+        this.leavesAmount = Integer.highestOneBit(Math.max(tilesAmount - 1, 1)) << 1;
+        this.maxScores = new long[2 * leavesAmount];
+        this.maxScoreTilesAmounts = new int[2 * leavesAmount];
+        Arrays.fill(maxScores, NO_SCORE);
+    }
+
+    /**
+     * Change score of a tile, updating all nodes above it.
+     *
+     * @param tileIndex index of the tile
+     * @param score     new score of the tile, not lower than 0, or NO_SCORE if the tile can't be chosen
+     */
+    void setScore(int tileIndex, long score) {
+        int node = leavesAmount + tileIndex;
+        if (maxScores[node] == score) {
+            return;
+        }
+        setLeaf(node, score);
+        for (node >>>= 1; node > 0; node >>>= 1) {
+            updateNode(node);
+        }
+    }
+
+    /**
+     * Change score of a tile without updating nodes above it. After changing scores this way {@link #rebuild()}
+     * must be called before the tree is used.
+     */
+    void setScoreWithoutUpdate(int tileIndex, long score) {
+        setLeaf(leavesAmount + tileIndex, score);
+    }
+
+    /**
+     * Update nodes above given tiles after their scores were changed with {@link #setScoreWithoutUpdate(int, long)}.
+     * Every node is updated once, so updating many tiles costs less than setting their scores one by one.
+     *
+     * @param tileIndices indices of changed tiles in ascending order, overwritten by the update
+     * @param tilesAmount amount of changed tiles in tileIndices
+     */
+    void update(int[] tileIndices, int tilesAmount) {
+        for (int i = 0; i < tilesAmount; i++) {
+            tileIndices[i] += leavesAmount;
+        }
+        // Nodes of a level are in ascending order, so updated parents are listed in place of their children
+        while (tilesAmount > 0 && tileIndices[0] > 1) {
+            int parentsAmount = 0;
+            for (int i = 0; i < tilesAmount; i++) {
+                int parent = tileIndices[i] >>> 1;
+                if (parentsAmount == 0 || tileIndices[parentsAmount - 1] != parent) {
+                    updateNode(parent);
+                    tileIndices[parentsAmount++] = parent;
+                }
+            }
+            tilesAmount = parentsAmount;
+        }
+    }
+
+    /**
+     * Update all nodes above leaves, in time proportional to the amount of tiles.
+     */
+    void rebuild() {
+        for (int node = leavesAmount - 1; node > 0; node--) {
+            updateNode(node);
+        }
+    }
+
+    /**
+     * @param random random number generator used to break ties
+     * @return index of a tile with the highest score, chosen uniformly among all such tiles, or -1 if no tile
+     * can be chosen
+     */
+    int chooseTile(GameRandom random) {
+        if (maxScoreTilesAmounts[1] == 0) {
+            return -1;
+        }
+        int chosenTileNumber = random.nextInt(maxScoreTilesAmounts[1]);
+        int node = 1;
+        while (node < leavesAmount) {
+            int leftChild = 2 * node;
+            if (maxScores[leftChild] == maxScores[node]) {
+                if (chosenTileNumber < maxScoreTilesAmounts[leftChild]) {
+                    node = leftChild;
+                    continue;
+                }
+                chosenTileNumber -= maxScoreTilesAmounts[leftChild];
+            }
+            node = leftChild + 1;
+        }
+        return node - leavesAmount;
+    }
+
+    private void setLeaf(int node, long score) {
+        maxScores[node] = score;
+        maxScoreTilesAmounts[node] = score == NO_SCORE ? 0 : 1;
+    }
+
+    private void updateNode(int node) {
+        int leftChild = 2 * node;
+        int rightChild = leftChild + 1;
+        long maxScore = Math.max(maxScores[leftChild], maxScores[rightChild]);
+        int maxScoreTilesAmount = 0;
+        if (maxScores[leftChild] == maxScore) {
+            maxScoreTilesAmount += maxScoreTilesAmounts[leftChild];
+        }
+        if (maxScores[rightChild] == maxScore) {
+            maxScoreTilesAmount += maxScoreTilesAmounts[rightChild];
+        }
+        maxScores[node] = maxScore;
+        maxScoreTilesAmounts[node] = maxScoreTilesAmount;
+    }
+}
@@ -1,22 +1,41 @@
 package com.shipsgame.utilities;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-
 public enum Direction {
-    EAST,
-    SOUTH,
-    WEST,
-    NORTH;
+    EAST(1, 0),
+    SOUTH(0, 1),
+    WEST(-1, 0),
+    NORTH(0, -1);
+
+    private static final Direction[] VALUES = values();
+
+    private final int offsetX;
+    private final int offsetY;
+
+    Direction(int offsetX, int offsetY) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+    }
+
+    /**
+     * @return change of horizontal index after moving one tile in this direction
+     */
+    public int getOffsetX() {
+        return offsetX;
+    }
 
-    private static final List<Direction> VALUES = Collections.unmodifiableList(Arrays.asList(values()));
-    private static final int SIZE = VALUES.size();
-    private static final Random RANDOM = new Random();
+    /**
+     * @return change of vertical index after moving one tile in this direction
+     */
+    public int getOffsetY() {
+        return offsetY;
+    }
 
-    public static Direction getRandomDirection() {
-        return VALUES.get(RANDOM.nextInt(SIZE));
+    /**
+     * @param random random number generator owned by the caller
+     * @return random direction
+     */
+    public static Direction getRandomDirection(GameRandom random) {
+        return VALUES[random.nextInt(VALUES.length)];
     }
 
     public static Direction getOppositeDirection(Direction currentDirection) {
@@ -0,0 +1,109 @@
+package com.shipsgame.utilities;
+
+import java.io.Serializable;
+import java.util.SplittableRandom;
+
+/**
+ * Seedable, splittable random number generator used by the game logic. Uses the same SplitMix64 algorithm as
+ * {@link SplittableRandom}, but unlike it, can be serialized together with the state of a game.
+ * Generator must not be shared between threads; independent generators for other threads or game parts are created
+ * with {@link #split()}. The same seed always produces the same sequence of numbers.
+ */
+public class GameRandom implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    // Used only to choose seeds of generators created without explicit seed
+    private static final SplittableRandom SEED_GENERATOR = new SplittableRandom();
+
+    private long seed;
+    // Odd value added to the seed after generating every number
+    private final long gamma;
+
+    /**
+     * @param seed initial seed of the generator
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @return new seed, different for every call
+     */
+    public static long generateSeed() {
+        synchronized (SEED_GENERATOR) {
+            return SEED_GENERATOR.nextLong();
+        }
+    }
+
+    /**
+     * Create new generator, which shares no state with this one. Generators created by the same sequence
+     * of calls on generators with the same seed produce the same numbers.
+     *
+     * @return new generator
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /**
+     * @param bound upper bound (exclusive), must be positive
+     * @return uniformly distributed value between 0 (inclusive) and bound (exclusive)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        int result = mix32(nextSeed());
+        int mask = bound - 1;
+        if ((bound & mask) == 0) {
+            // Bound is a power of 2
+            return result & mask;
+        }
+        // Reject values from the last, incomplete range of bound values
+        int value = result >>> 1;
+        result = value % bound;
+        while (value + mask - result < 0) {
+            value = mix32(nextSeed()) >>> 1;
+            result = value % bound;
+        }
+        return result;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int mix32(long value) {
+        value = (value ^ (value >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((value ^ (value >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        value = (value ^ (value >>> 33)) | 1L;
+        // Gammas with too few bit flips produce poor sequences
+        int bitFlips = Long.bitCount(value ^ (value >>> 1));
+        return (bitFlips < 24) ? value ^ 0xaaaaaaaaaaaaaaaaL : value;
+    }
+}
@@ -0,0 +1,216 @@
+package com.shipsgame;
+
+import com.shipsgame.map.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class GameJournalTest {
+
+    private static final String LOGIN = "player";
+    private static final long SEED = 1234;
+    // Shot of the player and the answering shot of the ai, each one a record type and a tile index
+    private static final int SHOTS_RECORD_LENGTH = 2 * (1 + Integer.BYTES);
+
+    private File directory;
+    private File journalFile;
+
+    @Before
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("journals").toFile();
+        this.journalFile = new File(directory, LOGIN + ".journal");
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void journaledShotsAreRestored() throws IOException {
+        Map map = playJournaledGame(3);
+
+        TestGames.assertSameGame(map, new GameJournal(directory.getPath(), LOGIN).load());
+        assertFalse(new File(directory, LOGIN + ".journal.tmp").exists());
+    }
+
+    @Test
+    public void journaledShipsAreRestored() throws IOException {
+        Ruleset ruleset = new Ruleset(12, 8, FleetComposition.DEFAULT);
+        List<Ship> ships = TestGames.generateShips(SEED, ruleset);
+        GameJournal gameJournal = new GameJournal(directory.getPath(), LOGIN);
+        gameJournal.begin(new Map(SEED, ruleset, ships.subList(0, 4), new int[0]));
+        for (Ship ship : ships.subList(4, ships.size())) {
+            gameJournal.appendShip(ship);
+        }
+        gameJournal.close();
+
+        TestGames.assertSameGame(new Map(SEED, ruleset, ships, new int[0]), gameJournal.load());
+    }
+
+    @Test
+    public void resumedGameIsJournaledAgain() throws IOException {
+        playJournaledGame(2);
+        GameJournal gameJournal = new GameJournal(directory.getPath(), LOGIN);
+        Map map = gameJournal.load();
+        gameJournal.begin(map);
+        shoot(map, 2);
+        gameJournal.close();
+
+        TestGames.assertSameGame(map, gameJournal.load());
+        TestGames.assertSameGame(TestGames.createGame(SEED, Ruleset.DEFAULT, 4), map);
+    }
+
+    @Test
+    public void clearedJournalIsNotRestored() throws IOException {
+        playJournaledGame(1);
+        GameJournal gameJournal = new GameJournal(directory.getPath(), LOGIN);
+        gameJournal.clear();
+
+        assertFalse(journalFile.exists());
+        assertNull(gameJournal.load());
+    }
+
+    @Test
+    public void incompleteLastRecordIsIgnored() throws IOException {
+        playJournaledGame(3);
+        long journalLength = journalFile.length();
+
+        // Only the answering shot of the ai is lost, it follows from the seed
+        truncateJournal(journalLength - 1);
+        TestGames.assertSameGame(TestGames.createGame(SEED, Ruleset.DEFAULT, 3), load());
+        truncateJournal(journalLength - SHOTS_RECORD_LENGTH / 2);
+        TestGames.assertSameGame(TestGames.createGame(SEED, Ruleset.DEFAULT, 3), load());
+        // Shot of the player is lost too
+        truncateJournal(journalLength - SHOTS_RECORD_LENGTH / 2 - 1);
+        TestGames.assertSameGame(TestGames.createGame(SEED, Ruleset.DEFAULT, 2), load());
+    }
+
+    @Test
+    public void journalWithDamagedHeaderIsRejected() throws IOException {
+        playJournaledGame(1);
+        // Magic number
+        writeJournalByte(0, 0);
+        assertRejected();
+
+        playJournaledGame(1);
+        // Format version
+        writeJournalByte(Integer.BYTES, 2);
+        assertRejected();
+
+        playJournaledGame(1);
+        // Ruleset, cut in the middle of the amount of columns
+        truncateJournal(Integer.BYTES + 1 + Long.BYTES + 1);
+        assertRejected();
+    }
+
+    @Test
+    public void journalWithDamagedRecordIsRejected() throws IOException {
+        playJournaledGame(1);
+        // Unknown record type
+        writeJournalByte(journalFile.length() - SHOTS_RECORD_LENGTH, 9);
+        assertRejected();
+
+        playJournaledGame(1);
+        // Tile index outside of the board
+        writeJournalByte(journalFile.length() - SHOTS_RECORD_LENGTH + 1, 1);
+        assertRejected();
+
+        playJournaledGame(1);
+        // Shot of the ai not matching the game played from the seed
+        long aiTileIndexPosition = journalFile.length() - 1;
+        writeJournalByte(aiTileIndexPosition, readJournalByte(aiTileIndexPosition) == 0 ? 1 : 0);
+        assertRejected();
+    }
+
+    @Test
+    public void journalWithTouchingShipsIsRejected() throws IOException {
+        GameJournal gameJournal = new GameJournal(directory.getPath(), LOGIN);
+        gameJournal.begin(new Map(SEED));
+        gameJournal.appendShip(new Ship(0, 0, 0, 0));
+        gameJournal.appendShip(new Ship(1, 1, 1, 1));
+        gameJournal.close();
+
+        assertRejected();
+    }
+
+    /**
+     * Journal a game with all ships placed and given amount of shots of the player at the first tiles of the board,
+     * made after journaling started.
+     *
+     * @return journaled game
+     */
+    private Map playJournaledGame(int playerShotsAmount) {
+        Map map = TestGames.createGame(SEED, Ruleset.DEFAULT, 0);
+        GameJournal gameJournal = new GameJournal(directory.getPath(), LOGIN);
+        gameJournal.begin(map);
+        shoot(map, playerShotsAmount);
+        gameJournal.close();
+        return map;
+    }
+
+    /**
+     * Shoot at the first tiles of the board not shot yet, the way clicks of the player do.
+     */
+    private static void shoot(Map map, int playerShotsAmount) {
+        PlayerProfile playerProfile = new PlayerProfile(LOGIN, "hash");
+        int shotsMade = 0;
+        for (int tileIndex = 0; shotsMade < playerShotsAmount; tileIndex++) {
+            int actionsAmount = map.getReplayRecorder().getActionsAmount();
+            map.update(map.getRuleset().toIndexX(tileIndex), map.getRuleset().toIndexY(tileIndex), null, playerProfile);
+            if (map.getReplayRecorder().getActionsAmount() > actionsAmount) {
+                shotsMade++;
+            }
+        }
+    }
+
+    private Map load() throws IOException {
+        return new GameJournal(directory.getPath(), LOGIN).load();
+    }
+
+    private void assertRejected() {
+        try {
+            load();
+            fail("Damaged journal wasn't rejected");
+        } catch (IOException e) {
+            // Expected, the game is resumed from the profile instead
+        }
+    }
+
+    private void truncateJournal(long length) throws IOException {
+        try (RandomAccessFile journal = new RandomAccessFile(journalFile, "rw")) {
+            journal.setLength(length);
+        }
+    }
+
+    private int readJournalByte(long position) throws IOException {
+        try (RandomAccessFile journal = new RandomAccessFile(journalFile, "r")) {
+            journal.seek(position);
+            return journal.read();
+        }
+    }
+
+    private void writeJournalByte(long position, int value) throws IOException {
+        try (RandomAccessFile journal = new RandomAccessFile(journalFile, "rw")) {
+            journal.seek(position);
+            journal.write(value);
+        }
+    }
+}
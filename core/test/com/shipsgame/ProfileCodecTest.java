@@ -0,0 +1,174 @@
+package com.shipsgame;
+
+import com.shipsgame.map.Map;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ProfileCodecTest {
+
+    private static final int MAGIC = 0x53485046;
+    private static final long SEED = 1234;
+
+    @Test
+    public void profileIsEncodedAndDecoded() throws IOException {
+        Ruleset ruleset = new Ruleset(12, 8, FleetComposition.DEFAULT);
+        Map resumedGameMap = TestGames.createGame(SEED, ruleset, 5);
+        PlayerProfile playerProfile = new PlayerProfile("player", "hash", "First", "Last", 3, 7, resumedGameMap);
+
+        byte[] encodedProfile = encode(playerProfile);
+        assertTrue(ProfileCodec.isEncodedProfile(encodedProfile));
+        PlayerProfile decodedProfile = decode(encodedProfile);
+        assertEquals("player", decodedProfile.getLogin());
+        assertTrue(decodedProfile.verifyPassword("hash"));
+        assertEquals("First", decodedProfile.getFirstName());
+        assertEquals("Last", decodedProfile.getLastName());
+        assertEquals(3, decodedProfile.getWins());
+        assertEquals(7, decodedProfile.getLoses());
+        TestGames.assertSameGame(resumedGameMap, decodedProfile.getResumedGameMap());
+    }
+
+    @Test
+    public void profileWithoutResumedGameIsEncodedAndDecoded() throws IOException {
+        PlayerProfile playerProfile = new PlayerProfile("player", "hash", null, null, 0, 0, null);
+
+        PlayerProfile decodedProfile = decode(encode(playerProfile));
+        assertEquals("player", decodedProfile.getLogin());
+        assertNull(decodedProfile.getFirstName());
+        assertNull(decodedProfile.getLastName());
+        assertNull(decodedProfile.getResumedGameMap());
+    }
+
+    @Test
+    public void version1ProfileIsMigrated() throws IOException {
+        Map resumedGameMap = TestGames.createGame(SEED, Ruleset.DEFAULT, 5);
+        int[] playerShotTileIndices = {0, 1, 2, 3, 4};
+        byte[] version1Profile = encodeByHand(1, null, TestGames.generateShips(SEED, Ruleset.DEFAULT), playerShotTileIndices);
+
+        PlayerProfile decodedProfile = decode(version1Profile);
+        assertEquals(Ruleset.DEFAULT, decodedProfile.getResumedGameMap().getRuleset());
+        TestGames.assertSameGame(resumedGameMap, decodedProfile.getResumedGameMap());
+        // Profile is saved again in the current version
+        byte[] migratedProfile = encode(decodedProfile);
+        assertEquals(ProfileCodec.VERSION, migratedProfile[Integer.BYTES]);
+        TestGames.assertSameGame(resumedGameMap, decode(migratedProfile).getResumedGameMap());
+    }
+
+    @Test
+    public void serializedProfileIsNotEncodedProfile() {
+        assertFalse(ProfileCodec.isEncodedProfile(new byte[]{(byte) 0xac, (byte) 0xed, 0, 5}));
+        assertFalse(ProfileCodec.isEncodedProfile(new byte[]{0x53, 0x48}));
+    }
+
+    @Test
+    public void profileWithWrongMagicIsRejected() throws IOException {
+        byte[] encodedProfile = encode(new PlayerProfile("player", "hash"));
+        encodedProfile[0] ^= 1;
+        assertRejected(encodedProfile);
+    }
+
+    @Test
+    public void profileOfUnsupportedVersionIsRejected() throws IOException {
+        byte[] encodedProfile = encode(new PlayerProfile("player", "hash"));
+        encodedProfile[Integer.BYTES] = ProfileCodec.VERSION + 1;
+        assertRejected(encodedProfile);
+    }
+
+    @Test
+    public void truncatedProfileIsRejected() throws IOException {
+        Map resumedGameMap = TestGames.createGame(SEED, new Ruleset(12, 8, FleetComposition.DEFAULT), 5);
+        byte[] encodedProfile = encode(new PlayerProfile("player", "hash", "First", "Last", 3, 7, resumedGameMap));
+        for (int length = 0; length < encodedProfile.length; length++) {
+            assertRejected(Arrays.copyOf(encodedProfile, length));
+        }
+    }
+
+    @Test
+    public void profileWithInvalidResumedGameIsRejected() throws IOException {
+        List<Ship> ships = TestGames.generateShips(SEED, Ruleset.DEFAULT);
+        // Undamaged game with a shot of the player and the answering shot of the ai is loaded, so the profiles below
+        // are rejected only because of their damage
+        assertEquals(2, decode(encodeByHand(ProfileCodec.VERSION, Ruleset.DEFAULT, ships, new int[]{0}))
+                .getResumedGameMap().getReplayRecorder().getActionsAmount());
+        // Shot outside of the board
+        assertRejected(encodeByHand(ProfileCodec.VERSION, Ruleset.DEFAULT, ships, new int[]{100}));
+        // Ships touching each other
+        assertRejected(encodeByHand(ProfileCodec.VERSION, Ruleset.DEFAULT,
+                Arrays.asList(new Ship(0, 0, 0, 0), new Ship(1, 1, 1, 1)), new int[0]));
+        // Shot before all ships were placed
+        assertRejected(encodeByHand(ProfileCodec.VERSION, Ruleset.DEFAULT, ships.subList(0, 1), new int[]{0}));
+        // Tile shot twice
+        assertRejected(encodeByHand(ProfileCodec.VERSION, Ruleset.DEFAULT, ships, new int[]{0, 0}));
+        // Ship placed twice
+        List<Ship> shipsPlacedTwice = new ArrayList<>(ships);
+        shipsPlacedTwice.add(ships.get(0));
+        assertRejected(encodeByHand(ProfileCodec.VERSION, Ruleset.DEFAULT, shipsPlacedTwice, new int[0]));
+    }
+
+    private static byte[] encode(PlayerProfile playerProfile) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProfileCodec.encode(playerProfile, out);
+        return out.toByteArray();
+    }
+
+    private static PlayerProfile decode(byte[] encodedProfile) throws IOException {
+        return ProfileCodec.decode(new ByteArrayInputStream(encodedProfile));
+    }
+
+    private static void assertRejected(byte[] encodedProfile) {
+        try {
+            decode(encodedProfile);
+            fail("Profile of " + encodedProfile.length + " bytes wasn't rejected");
+        } catch (IOException e) {
+            // Expected, damaged profiles fail to load instead of resuming a different game
+        }
+    }
+
+    /**
+     * Encode a profile with a resumed game without {@link ProfileCodec}, so profiles of older versions and damaged
+     * profiles can be written.
+     *
+     * @param ruleset ruleset of the resumed game, not written if null
+     */
+    private static byte[] encodeByHand(int version, Ruleset ruleset, List<Ship> ships, int[] playerShotTileIndices)
+            throws IOException {
+        Ruleset shipsRuleset = ruleset != null ? ruleset : Ruleset.DEFAULT;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeByte(version);
+        for (String string : new String[]{"player", "hash", "First", "Last"}) {
+            dataOut.writeBoolean(true);
+            dataOut.writeUTF(string);
+        }
+        dataOut.writeInt(1);
+        dataOut.writeInt(2);
+        dataOut.writeBoolean(true);
+        dataOut.writeLong(SEED);
+        if (ruleset != null) {
+            RulesetCodec.write(dataOut, ruleset);
+        }
+        dataOut.writeByte(ships.size());
+        for (Ship ship : ships) {
+            dataOut.writeInt(ship.getTileIndex(0, shipsRuleset));
+            dataOut.writeInt(ship.getTileIndex(ship.getShipSize() - 1, shipsRuleset));
+        }
+        dataOut.writeInt(playerShotTileIndices.length);
+        for (int tileIndex : playerShotTileIndices) {
+            dataOut.writeInt(tileIndex);
+        }
+        return out.toByteArray();
+    }
+}
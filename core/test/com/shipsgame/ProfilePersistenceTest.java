@@ -0,0 +1,122 @@
+package com.shipsgame;
+
+import com.shipsgame.replays.Replay;
+import com.shipsgame.replays.ReplayStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProfilePersistenceTest {
+
+    // Profiles bundled with the game, saved with Java serialization before ProfileCodec was introduced
+    private static final String LEGACY_PROFILES_PATH = "assets/profiles/";
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("profiles").toFile();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void legacyReplaysSurviveSignIn() throws Exception {
+        assertLegacyReplaysSurviveSignIn("guest", 4);
+    }
+
+    @Test
+    public void legacyProfileIsLoadedWithReplays() throws Exception {
+        copyLegacyProfile("test");
+        PlayerProfile playerProfile = new ProfilePersistence(directory.getPath()).load("test");
+        assertEquals(1, playerProfile.getWins());
+        assertEquals(2, playerProfile.getLegacyReplays().size());
+    }
+
+    @Test
+    public void interruptedMoveOfLegacyReplaysIsResumed() throws Exception {
+        copyLegacyProfile("guest");
+        ProfilePersistence profilePersistence = new ProfilePersistence(directory.getPath());
+        PlayerProfile playerProfile = profilePersistence.load("guest");
+        ReplayStore replayStore = new ReplayStore(directory.getPath(), "guest");
+        // Move interrupted after the first replays were stored, the profile still keeps all of them
+        replayStore.appendLegacyReplays(playerProfile.getLegacyReplays().subList(0, 2));
+        profilePersistence.close();
+
+        assertLegacyReplaysSurviveSignIn("guest", 4);
+    }
+
+    @Test
+    public void profileWithLegacyReplaysIsSavedWithThem() throws Exception {
+        copyLegacyProfile("guest");
+        ProfilePersistence profilePersistence = new ProfilePersistence(directory.getPath());
+        PlayerProfile playerProfile = profilePersistence.load("guest");
+        playerProfile.addLegacyReplay(playerProfile.getLegacyReplays().get(0));
+        profilePersistence.save(playerProfile);
+        profilePersistence.close();
+
+        assertEquals(5, new ProfilePersistence(directory.getPath()).load("guest").getLegacyReplays().size());
+    }
+
+    @Test
+    public void savedProfileIsLoadedBeforeItIsWritten() throws Exception {
+        ProfilePersistence profilePersistence = new ProfilePersistence(directory.getPath());
+        PlayerProfile playerProfile = new PlayerProfile("player", "hash");
+        playerProfile.addWin();
+        profilePersistence.save(playerProfile);
+        PlayerProfile loadedProfile = profilePersistence.load("player");
+        profilePersistence.close();
+
+        assertEquals(1, loadedProfile.getWins());
+        assertTrue(loadedProfile.verifyPassword("hash"));
+        assertEquals(1, new ProfilePersistence(directory.getPath()).load("player").getWins());
+    }
+
+    /**
+     * Sign in the way {@link com.shipsgame.screens.ShipsGame} does: load the profile, move its legacy replays
+     * to the store and save it in the new format, then sign in again.
+     */
+    private void assertLegacyReplaysSurviveSignIn(String login, int replaysAmount) throws Exception {
+        if (!new File(directory, login + ".profile").exists()) {
+            copyLegacyProfile(login);
+        }
+        ProfilePersistence profilePersistence = new ProfilePersistence(directory.getPath());
+        PlayerProfile playerProfile = profilePersistence.load(login);
+        ReplayStore replayStore = new ReplayStore(directory.getPath(), login);
+        List<Replay> legacyReplays = playerProfile.getLegacyReplays();
+        assertEquals(replaysAmount, legacyReplays.size());
+        replayStore.appendLegacyReplays(legacyReplays);
+        playerProfile.clearLegacyReplays();
+        profilePersistence.save(playerProfile);
+        profilePersistence.close();
+
+        byte[] savedProfile = Files.readAllBytes(new File(directory, login + ".profile").toPath());
+        assertTrue(ProfileCodec.isEncodedProfile(savedProfile));
+        PlayerProfile signedInAgain = new ProfilePersistence(directory.getPath()).load(login);
+        assertTrue(signedInAgain.getLegacyReplays().isEmpty());
+        assertEquals(replaysAmount, replayStore.getReplaysAmount());
+        assertEquals(replaysAmount, replayStore.readIndex(0, replaysAmount).size());
+    }
+
+    private void copyLegacyProfile(String login) throws IOException {
+        Files.copy(new File(LEGACY_PROFILES_PATH, login + ".profile").toPath(),
+                new File(directory, login + ".profile").toPath());
+    }
+}
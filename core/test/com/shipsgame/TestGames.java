@@ -0,0 +1,67 @@
+package com.shipsgame;
+
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.Map;
+import com.shipsgame.map.ShipPlacementGenerator;
+import com.shipsgame.replays.ReplayRecorder;
+import com.shipsgame.utilities.GameRandom;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Games created and compared by tests of stored games.
+ */
+final class TestGames {
+
+    private TestGames() {
+    }
+
+    /**
+     * @return ships of the whole fleet of given ruleset, placed at random positions chosen by the seed
+     */
+    static List<Ship> generateShips(long seed, Ruleset ruleset) {
+        return ShipPlacementGenerator.generateShips(ruleset.getFleetComposition().getShipSizes(), new BitBoard(ruleset),
+                new GameRandom(seed));
+    }
+
+    /**
+     * @return game with the whole fleet of the player placed, in which the player shot the first tiles of the board
+     */
+    static Map createGame(long seed, Ruleset ruleset, int playerShotsAmount) {
+        int[] playerShotTileIndices = new int[playerShotsAmount];
+        for (int i = 0; i < playerShotsAmount; i++) {
+            playerShotTileIndices[i] = i;
+        }
+        return new Map(seed, ruleset, generateShips(seed, ruleset), playerShotTileIndices);
+    }
+
+    /**
+     * Check that both games have the same seed, ruleset, ships of the player and moves.
+     */
+    static void assertSameGame(Map expected, Map actual) {
+        assertEquals(expected.getRuleset(), actual.getRuleset());
+        assertSameShips(expected.getShips(), actual.getShips(), expected.getRuleset());
+        ReplayRecorder expectedRecorder = expected.getReplayRecorder();
+        ReplayRecorder actualRecorder = actual.getReplayRecorder();
+        assertEquals(expectedRecorder.getSeed(), actualRecorder.getSeed());
+        assertEquals(expectedRecorder.getActionsAmount(), actualRecorder.getActionsAmount());
+        for (int i = 0; i < expectedRecorder.getActionsAmount(); i++) {
+            assertEquals(expectedRecorder.getActionType(i), actualRecorder.getActionType(i));
+            assertEquals(expectedRecorder.getActionTileIndex(i), actualRecorder.getActionTileIndex(i));
+        }
+    }
+
+    static void assertSameShips(List<Ship> expected, List<Ship> actual, Ruleset ruleset) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Ship expectedShip = expected.get(i);
+            Ship actualShip = actual.get(i);
+            assertEquals(expectedShip.getShipSize(), actualShip.getShipSize());
+            assertEquals(expectedShip.getTileIndex(0, ruleset), actualShip.getTileIndex(0, ruleset));
+            assertEquals(expectedShip.getTileIndex(expectedShip.getShipSize() - 1, ruleset),
+                    actualShip.getTileIndex(actualShip.getShipSize() - 1, ruleset));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.shipsgame.authorization;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CredentialIndexTest {
+
+    // More users than fit into the initial capacity of the index
+    private static final int MANY_USERS_AMOUNT = 2000;
+
+    private File directory;
+    private File usersFile;
+    private File indexFile;
+
+    @Before
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("authorization").toFile();
+        this.usersFile = new File(directory, "users.passwords");
+        this.indexFile = new File(directory, "users.index");
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void addedUsersAreFound() throws IOException {
+        try (CredentialIndex credentialIndex = open()) {
+            assertTrue(credentialIndex.addUser("first", "hash1"));
+            assertTrue(credentialIndex.addUser("second", "hash2"));
+            assertFalse(credentialIndex.addUser("first", "hash3"));
+            assertEquals("hash1", credentialIndex.findPassword("first"));
+            assertNull(credentialIndex.findPassword("third"));
+        }
+
+        try (CredentialIndex credentialIndex = open()) {
+            assertEquals("hash1", credentialIndex.findPassword("first"));
+            assertEquals("hash2", credentialIndex.findPassword("second"));
+            assertNull(credentialIndex.findPassword("third"));
+        }
+        assertEquals("first hash1" + System.lineSeparator() + "second hash2" + System.lineSeparator(), readUsersFile());
+    }
+
+    @Test
+    public void indexGrowsWithUsers() throws IOException {
+        try (CredentialIndex credentialIndex = open()) {
+            for (int i = 0; i < MANY_USERS_AMOUNT; i++) {
+                assertTrue(credentialIndex.addUser("user" + i, "hash" + i));
+            }
+        }
+
+        try (CredentialIndex credentialIndex = open()) {
+            for (int i = 0; i < MANY_USERS_AMOUNT; i++) {
+                assertEquals("hash" + i, credentialIndex.findPassword("user" + i));
+            }
+            assertNull(credentialIndex.findPassword("user" + MANY_USERS_AMOUNT));
+        }
+    }
+
+    @Test
+    public void usersFileWithoutIndexIsIndexed() throws IOException {
+        // Users file written before the index was introduced, the first line of a login is used
+        writeUsersFile("first hash1\r\nsecond hash2\nfirst hash3\n\nthird");
+
+        try (CredentialIndex credentialIndex = open()) {
+            assertEquals("hash1", credentialIndex.findPassword("first"));
+            assertEquals("hash2", credentialIndex.findPassword("second"));
+            assertEquals("", credentialIndex.findPassword("third"));
+            // Line separator is added before the new user, the last line didn't end with it
+            assertTrue(credentialIndex.addUser("fourth", "hash4"));
+        }
+
+        try (CredentialIndex credentialIndex = open()) {
+            assertEquals("", credentialIndex.findPassword("third"));
+            assertEquals("hash4", credentialIndex.findPassword("fourth"));
+        }
+    }
+
+    @Test
+    public void usersAppendedWhileIndexIsClosedAreFound() throws IOException {
+        try (CredentialIndex credentialIndex = open()) {
+            credentialIndex.addUser("first", "hash1");
+        }
+        appendUsersFile("second hash2" + System.lineSeparator());
+
+        try (CredentialIndex credentialIndex = open()) {
+            assertEquals("hash1", credentialIndex.findPassword("first"));
+            assertEquals("hash2", credentialIndex.findPassword("second"));
+        }
+    }
+
+    @Test
+    public void damagedIndexIsRebuilt() throws IOException {
+        addUsers("first", "second");
+        // Magic number
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+            index.write(0);
+        }
+        assertUsersFound("first", "second");
+
+        addUsers("third");
+        // Index cut in the middle of its slots
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+            index.setLength(index.length() / 2);
+        }
+        assertUsersFound("first", "second", "third");
+
+        addUsers("fourth");
+        // Index shorter than its header
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+            index.setLength(3);
+        }
+        assertUsersFound("first", "second", "third", "fourth");
+
+        assertTrue(indexFile.delete());
+        assertUsersFound("first", "second", "third", "fourth");
+    }
+
+    @Test
+    public void indexOfEditedUsersFileIsRebuilt() throws IOException {
+        addUsers("first", "second");
+        // Users file shorter than the part covered by the index
+        writeUsersFile("second hash2" + System.lineSeparator());
+
+        try (CredentialIndex credentialIndex = open()) {
+            assertNull(credentialIndex.findPassword("first"));
+            assertEquals("hash2", credentialIndex.findPassword("second"));
+        }
+    }
+
+    private CredentialIndex open() throws IOException {
+        return new CredentialIndex(usersFile.getPath(), indexFile.getPath());
+    }
+
+    /**
+     * Add users with passwords "hash" followed by the login.
+     */
+    private void addUsers(String... logins) throws IOException {
+        try (CredentialIndex credentialIndex = open()) {
+            for (String login : logins) {
+                assertTrue(credentialIndex.addUser(login, "hash" + login));
+            }
+        }
+    }
+
+    private void assertUsersFound(String... logins) throws IOException {
+        try (CredentialIndex credentialIndex = open()) {
+            for (String login : logins) {
+                assertEquals("hash" + login, credentialIndex.findPassword(login));
+            }
+            assertNull(credentialIndex.findPassword("unknown"));
+        }
+    }
+
+    private String readUsersFile() throws IOException {
+        return new String(Files.readAllBytes(usersFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private void writeUsersFile(String users) throws IOException {
+        Files.write(usersFile.toPath(), users.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void appendUsersFile(String users) throws IOException {
+        Files.write(usersFile.toPath(), users.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
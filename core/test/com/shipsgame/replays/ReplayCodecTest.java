@@ -0,0 +1,244 @@
+package com.shipsgame.replays;
+
+import com.shipsgame.FleetComposition;
+import com.shipsgame.Ruleset;
+import com.shipsgame.Ship;
+import com.shipsgame.map.BitBoard;
+import com.shipsgame.map.ShipPlacementGenerator;
+import com.shipsgame.utilities.GameRandom;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ReplayCodecTest {
+
+    private static final long SEED = 1234;
+    private static final long CREATION_TIME = 1500000000000L;
+    // Board with more tiles than indices of 7 bits can address
+    private static final Ruleset LARGE_RULESET = new Ruleset(30, 20, FleetComposition.DEFAULT);
+    // Version and flags, seed, creation time and the mask of ship tiles of the default ruleset
+    private static final int DEFAULT_RULESET_ACTIONS_AMOUNT_POSITION = 2 + Long.BYTES + Long.BYTES
+            + (Ruleset.DEFAULT.getTilesAmount() + Byte.SIZE - 1) / Byte.SIZE;
+
+    @Test
+    public void replayOfDefaultRulesetIsEncodedAndDecoded() throws IOException {
+        Replay replay = recordReplay(Ruleset.DEFAULT);
+
+        assertSameReplay(replay, decode(encode(replay)));
+    }
+
+    @Test
+    public void replayOfLargeRulesetIsEncodedAndDecoded() throws IOException {
+        Replay replay = recordReplay(LARGE_RULESET);
+
+        Replay decodedReplay = decode(encode(replay));
+        assertEquals(LARGE_RULESET, decodedReplay.getRuleset());
+        assertSameReplay(replay, decodedReplay);
+    }
+
+    @Test
+    public void replayWithoutOptionalFieldsIsEncodedAndDecoded() throws IOException {
+        int[] actions = {Replay.packAction(ActionType.PLAYER_MISS_SHOT, 99), Replay.packAction(ActionType.AI_SHOT, 0)};
+        Replay replay = new Replay(null, Ruleset.DEFAULT, 0, "Sat Jan 06 12:00:00 CET 2018", null, actions);
+
+        Replay decodedReplay = decode(encode(replay));
+        assertNull(decodedReplay.getSeed());
+        assertNull(decodedReplay.getPlayerShipsList());
+        assertEquals("Sat Jan 06 12:00:00 CET 2018", decodedReplay.getCreationDateString());
+        assertSameReplay(replay, decodedReplay);
+    }
+
+    @Test
+    public void replaysAreDecodedOneAfterAnother() throws IOException {
+        Replay[] replays = {recordReplay(Ruleset.DEFAULT), recordReplay(LARGE_RULESET), recordReplay(Ruleset.DEFAULT)};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Replay replay : replays) {
+            ReplayCodec.encode(replay, out);
+        }
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        for (Replay replay : replays) {
+            assertSameReplay(replay, ReplayCodec.decode(in));
+        }
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    public void version1ReplayIsMigrated() throws IOException {
+        Replay replay = recordReplay(Ruleset.DEFAULT);
+        byte[] encodedReplay = encode(replay);
+        // Version 1 differs only in the version and in the amount of actions stored in 2 bytes instead of 4
+        byte[] version1Replay = new byte[encodedReplay.length - 2];
+        System.arraycopy(encodedReplay, 0, version1Replay, 0, DEFAULT_RULESET_ACTIONS_AMOUNT_POSITION);
+        System.arraycopy(encodedReplay, DEFAULT_RULESET_ACTIONS_AMOUNT_POSITION + 2, version1Replay,
+                DEFAULT_RULESET_ACTIONS_AMOUNT_POSITION, version1Replay.length - DEFAULT_RULESET_ACTIONS_AMOUNT_POSITION);
+        version1Replay[0] = 1;
+
+        Replay decodedReplay = decode(version1Replay);
+        assertSameReplay(replay, decodedReplay);
+        // Replay is stored again in the current version
+        byte[] migratedReplay = encode(decodedReplay);
+        assertEquals(ReplayCodec.VERSION, migratedReplay[0]);
+        assertSameReplay(replay, decode(migratedReplay));
+    }
+
+    @Test
+    public void replayOfUnsupportedVersionIsRejected() throws IOException {
+        byte[] encodedReplay = encode(recordReplay(Ruleset.DEFAULT));
+        encodedReplay[0] = ReplayCodec.VERSION + 1;
+        assertRejected(encodedReplay);
+    }
+
+    @Test
+    public void version1ReplayWithRulesetIsRejected() throws IOException {
+        byte[] encodedReplay = encode(recordReplay(LARGE_RULESET));
+        encodedReplay[0] = 1;
+        assertRejected(encodedReplay);
+    }
+
+    @Test
+    public void truncatedReplayIsRejected() throws IOException {
+        for (Ruleset ruleset : new Ruleset[]{Ruleset.DEFAULT, LARGE_RULESET}) {
+            byte[] encodedReplay = encode(recordReplay(ruleset));
+            for (int length = 0; length < encodedReplay.length; length++) {
+                assertRejected(Arrays.copyOf(encodedReplay, length));
+            }
+        }
+    }
+
+    @Test
+    public void replayWithInvalidActionsIsRejected() throws IOException {
+        // Single action of 12 bits stored in the last 2 bytes, after the amount of actions
+        int[] actions = {Replay.packAction(ActionType.PLAYER_SHOT, 0)};
+        byte[] encodedReplay = encode(new Replay(null, LARGE_RULESET, 0, null, null, actions));
+        int actionsAmountPosition = encodedReplay.length - 2 - Integer.BYTES;
+
+        byte[] tooManyActions = encodedReplay.clone();
+        tooManyActions[actionsAmountPosition] = 0x7f;
+        assertRejected(tooManyActions);
+
+        byte[] tileOutsideOfBoard = encodedReplay.clone();
+        tileOutsideOfBoard[encodedReplay.length - 2] = (byte) 0xff;
+        tileOutsideOfBoard[encodedReplay.length - 1] = (byte) 0xf0;
+        assertRejected(tileOutsideOfBoard);
+    }
+
+    @Test
+    public void replayWithInvalidShipsIsRejected() throws IOException {
+        // Ship of 2 tiles is decoded, so the replays below are rejected only because of their ships
+        assertEquals(2, decode(encodeLargeRulesetShip(0, 1)).getPlayerShipsList().get(0).getShipSize());
+        // Diagonal ship
+        assertRejected(encodeLargeRulesetShip(0, LARGE_RULESET.toIndex(1, 1)));
+        // Ends in reversed order
+        assertRejected(encodeLargeRulesetShip(1, 0));
+        // Ships not in the fleet, for both ways of storing it
+        for (Ruleset ruleset : new Ruleset[]{Ruleset.DEFAULT, LARGE_RULESET}) {
+            // Longer than any ship of the fleet
+            assertRejected(encode(new Replay(null, ruleset, 0, null,
+                    Collections.singletonList(new Ship(0, 0, 4, 0)), new int[0])));
+            // Fleet has only one ship of 4 tiles
+            assertRejected(encode(new Replay(null, ruleset, 0, null,
+                    Arrays.asList(new Ship(0, 0, 3, 0), new Ship(0, 2, 3, 2)), new int[0])));
+        }
+    }
+
+    /**
+     * @return encoded replay of the large ruleset without actions, with a single ship stored with given ends
+     */
+    private static byte[] encodeLargeRulesetShip(int startTileIndex, int endTileIndex) throws IOException {
+        byte[] encodedReplay = encode(new Replay(null, LARGE_RULESET, 0, null,
+                Collections.singletonList(new Ship(0, 0)), new int[0]));
+        // Ends of the ship are followed only by the amount of actions
+        ByteBuffer.wrap(encodedReplay, encodedReplay.length - 3 * Integer.BYTES, 2 * Integer.BYTES)
+                .putInt(startTileIndex)
+                .putInt(endTileIndex);
+        return encodedReplay;
+    }
+
+    /**
+     * @return replay of a game with the whole fleet of the player, in which both sides shot every tile of the board
+     */
+    private static Replay recordReplay(Ruleset ruleset) {
+        ReplayRecorder replayRecorder = new ReplayRecorder(SEED, ruleset);
+        replayRecorder.setPlayerShipsList(ShipPlacementGenerator.generateShips(ruleset.getFleetComposition().getShipSizes(),
+                new BitBoard(ruleset), new GameRandom(SEED)));
+        for (int i = 0; i < ruleset.getTilesAmount(); i++) {
+            replayRecorder.addAction(i % 3 == 0 ? ActionType.PLAYER_SHOT : ActionType.PLAYER_MISS_SHOT, i);
+            replayRecorder.addAction(i % 5 == 0 ? ActionType.AI_SHOT : ActionType.AI_MISS_SHOT,
+                    ruleset.getTilesAmount() - 1 - i);
+        }
+        return replayRecorder.createReplay(CREATION_TIME);
+    }
+
+    private static byte[] encode(Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReplayCodec.encode(replay, out);
+        return out.toByteArray();
+    }
+
+    private static Replay decode(byte[] encodedReplay) throws IOException {
+        return ReplayCodec.decode(new ByteArrayInputStream(encodedReplay));
+    }
+
+    private static void assertRejected(byte[] encodedReplay) {
+        try {
+            decode(encodedReplay);
+            fail("Replay of " + encodedReplay.length + " bytes wasn't rejected");
+        } catch (IOException e) {
+            // Expected, damaged replays fail to load instead of being played wrongly
+        }
+    }
+
+    private static void assertSameReplay(Replay expected, Replay actual) {
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getRuleset(), actual.getRuleset());
+        assertEquals(expected.getCreationTime(), actual.getCreationTime());
+        assertEquals(expected.getCreationDateString(), actual.getCreationDateString());
+        List<Ship> expectedShips = expected.getPlayerShipsList();
+        List<Ship> actualShips = actual.getPlayerShipsList();
+        if (expectedShips == null) {
+            assertNull(actualShips);
+        } else {
+            Ruleset ruleset = expected.getRuleset();
+            assertEquals(expectedShips.size(), actualShips.size());
+            // Ships of the default ruleset are decoded from the mask of their tiles, starting from their top left ends
+            for (Ship expectedShip : expectedShips) {
+                assertEquals(1, countShipsWithEnds(actualShips, expectedShip, ruleset));
+            }
+        }
+        assertEquals(expected.getActionsAmount(), actual.getActionsAmount());
+        for (int i = 0; i < expected.getActionsAmount(); i++) {
+            assertEquals(expected.getActionType(i), actual.getActionType(i));
+            assertEquals(expected.getActionTileIndex(i), actual.getActionTileIndex(i));
+        }
+    }
+
+    private static int countShipsWithEnds(List<Ship> ships, Ship ship, Ruleset ruleset) {
+        int shipsAmount = 0;
+        for (Ship other : ships) {
+            if (getFirstTileIndex(other, ruleset) == getFirstTileIndex(ship, ruleset)
+                    && getLastTileIndex(other, ruleset) == getLastTileIndex(ship, ruleset)) {
+                shipsAmount++;
+            }
+        }
+        return shipsAmount;
+    }
+
+    private static int getFirstTileIndex(Ship ship, Ruleset ruleset) {
+        return Math.min(ship.getTileIndex(0, ruleset), ship.getTileIndex(ship.getShipSize() - 1, ruleset));
+    }
+
+    private static int getLastTileIndex(Ship ship, Ruleset ruleset) {
+        return Math.max(ship.getTileIndex(0, ruleset), ship.getTileIndex(ship.getShipSize() - 1, ruleset));
+    }
+}